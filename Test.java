@@ -1,5 +1,7 @@
 
+import calculations.FloorDesign;
 import enums.GRADES.*;
+import enums.SUPPORTS.*;
 import sections.*;
 import standards.*;
 
@@ -46,5 +48,17 @@ public class Test {
                 Slab slabL1 = new Slab(150, concrete, steelCA50);
                 slabL1.FlexuralResistance(5.0*Math.pow(10,6), NBR6118);
                 System.out.println(slabL1);
+
+            // Application of the Method in a floor with two panels of slab.
+                // Creates the panels from their spans, load (kN/m²), section and supports (left, right, bottom, top):
+                SlabPanel panelL2 = new SlabPanel(4000, 5000, 8, new Slab(90, concrete, steelCA50),
+                                                  Support.SIMPLE, Support.FIXED, Support.SIMPLE, Support.SIMPLE);
+                SlabPanel panelL3 = new SlabPanel(3500, 5000, 8, new Slab(90, concrete, steelCA50),
+                                                  Support.FIXED, Support.SIMPLE, Support.SIMPLE, Support.SIMPLE);
+                FloorDesign floor = new FloorDesign();
+                floor.connect(floor.add(panelL2), Edge.RIGHT, floor.add(panelL3), Edge.LEFT); // Edge shared by the panels
+                floor.design(NBR6118); // Moments of the panels, balance of the shared edge and design of the strips
+                System.out.println(panelL2);
+                System.out.println(panelL3);
     }
 }
\ No newline at end of file
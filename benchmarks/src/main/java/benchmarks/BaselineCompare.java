@@ -0,0 +1,152 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH results in CSV format (-rf csv) and reports the benchmarks that became slower,
+ * or that allocate more, than the baseline.
+ * A change is only reported when it is above the threshold and above the error of both measurements.
+ *
+ * Usage: java -cp benchmarks.jar benchmarks.BaselineCompare baseline.csv current.csv [threshold %]
+ */
+public class BaselineCompare {
+
+    // Relative change accepted before reporting a regression [%]
+    static final double DEFAULT_THRESHOLD = 5.0;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCompare baseline.csv current.csv [threshold %]");
+            System.exit(2);
+        }
+        double threshold = (args.length > 2) ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        int regressions = compare(args[0], args[1], threshold, System.out);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+
+
+    /**
+     * Prints the comparison of each benchmark found in both files.
+     * @return int - Number of regressions found.
+     */
+    static int compare(String baselineFile, String currentFile, double threshold, PrintStream out) throws IOException {
+        Map<String, double[]> baseline = read(baselineFile);
+        Map<String, double[]> current = read(currentFile);
+        int regressions = 0;
+        out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, double[]> entry : current.entrySet()) {
+            double[] before = baseline.get(entry.getKey());
+            if (before == null) {
+                out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", entry.getValue()[0], "new");
+                continue;
+            }
+            double[] after = entry.getValue();
+            // Direction of the metric: +1 when lower is better (time and bytes per operation), -1 when higher is better
+            double direction = after[2];
+            if (direction == 0) {
+                continue;
+            }
+            double change = (before[0] == 0) ? (after[0] == 0 ? 0 : 100) : 100*(after[0] - before[0])/Math.abs(before[0]);
+            boolean worse = direction*change > threshold
+                         && Math.abs(after[0] - before[0]) > safe(before[1]) + safe(after[1]);
+            if (worse) {
+                regressions++;
+            }
+            out.printf("%-90s %14.3f %14.3f %8.1f%% %s%n", entry.getKey(), before[0], after[0], change, worse ? "REGRESSION" : "");
+        }
+        out.println(regressions + " regression(s) above " + threshold + "%");
+        return regressions;
+    }
+
+
+
+    // Reads the CSV, keyed by benchmark + parameters: [score, error, direction]
+    private static Map<String, double[]> read(String file) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(file), StandardCharsets.UTF_8);
+        Map<String, double[]> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = split(lines.get(0));
+        int score = header.indexOf("Score");
+        int error = header.indexOf("Score Error (99.9%)");
+        int unit = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            List<String> columns = split(line);
+            if (columns.size() < header.size()) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(columns.get(0));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ")) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(columns.get(i));
+                }
+            }
+            results.put(key.toString(), new double[] {
+                number(columns.get(score)), number(columns.get(error)), direction(columns.get(unit))
+            });
+        }
+        return results;
+    }
+
+
+    // Lower is better for time or bytes per operation, higher is better for operations per time
+    private static double direction(String unit) {
+        if (unit.startsWith("ops/")) {
+            return -1;
+        }
+        if (unit.endsWith("/op")) {
+            return 1;
+        }
+        return 0; // Informative metrics (allocation rate, GC counts...)
+    }
+
+
+    private static double number(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+
+    private static double safe(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+
+
+    // Splits a CSV line, with fields between quotes
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
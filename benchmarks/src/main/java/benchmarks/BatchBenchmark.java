@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import calculations.BatchResistance;
+import calculations.DesignTable;
+import enums.GRADES;
+import standards.Code;
+import utils.NeutralAxisSolver;
+
+/**
+ * Benchmarks of the design of many sections at once (BatchResistance and DesignTable),
+ * over beams and slabs of a single concrete class with random moments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+
+    private static final int SECTIONS = 10000;
+
+    @Param({"NBR6118", "EUROCODE2"})
+    public String code;
+
+    @Param({"C30", "C70"})
+    public String concrete;
+
+    private Code design;
+    private DesignTable table;
+    private NeutralAxisSolver newton;
+    private final double[] mk = new double[SECTIONS];
+    private final double[] b = new double[SECTIONS];
+    private final double[] d = new double[SECTIONS];
+    private final double[] fck = new double[SECTIONS];
+    private final double[] fyk = new double[SECTIONS];
+    private final double[] As = new double[SECTIONS];
+    private final double[] As2 = new double[SECTIONS];
+
+    @Setup
+    public void setup() {
+        design = Codes.of(code);
+        GRADES.Concrete grade = GRADES.Concrete.valueOf(concrete);
+        table = DesignTable.of(design, grade, GRADES.Grade.CA50);
+        newton = new NeutralAxisSolver(NeutralAxisSolver.Method.NEWTON, 0.001);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SECTIONS; i++) {
+            boolean slab = random.nextBoolean();
+            b[i] = slab ? 1000 : 120 + 10*random.nextInt(30);
+            d[i] = slab ? 80 + 5*random.nextInt(20) : 300 + 10*random.nextInt(60);
+            fck[i] = grade.getFck();
+            fyk[i] = GRADES.Grade.CA50.getFyk();
+            // Moments up to 1.2 times the limit of the simple reinforcement
+            double fcd = fck[i]/design.getGc();
+            mk[i] = random.nextDouble(0.05, 1.2)*table.getMuLimit()*b[i]*d[i]*d[i]*fcd/design.getGf();
+        }
+    }
+
+    @Benchmark
+    public double[] batchBisection() {
+        BatchResistance.Flexural(design, mk, b, d, fck, fyk, As, As2);
+        return As;
+    }
+
+    @Benchmark
+    public double[] batchNewton() {
+        BatchResistance.Flexural(design, newton, mk, b, d, fck, fyk, As, As2, null);
+        return As;
+    }
+
+    @Benchmark
+    public double[] designTable() {
+        table.Flexural(mk, b, d, As, As2);
+        return As;
+    }
+}
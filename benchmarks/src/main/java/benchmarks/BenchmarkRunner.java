@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation per operation) and stores the results in a CSV file.
+ * When a baseline CSV is given, the results are compared with it (see BaselineCompare).
+ *
+ * Usage: java -cp benchmarks.jar benchmarks.BenchmarkRunner results.csv [baseline.csv] [regex...]
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, java.io.IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: BenchmarkRunner results.csv [baseline.csv] [regex...]");
+            System.exit(2);
+        }
+        String results = args[0];
+        String baseline = (args.length > 1 && args[1].endsWith(".csv")) ? args[1] : null;
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.CSV)
+            .result(results);
+        for (int i = (baseline == null) ? 1 : 2; i < args.length; i++) {
+            options.include(args[i]);
+        }
+        new Runner(options.build()).run();
+
+        if (baseline != null) {
+            int regressions = BaselineCompare.compare(baseline, results, BaselineCompare.DEFAULT_THRESHOLD, System.out);
+            System.exit(regressions == 0 ? 0 : 1);
+        }
+    }
+}
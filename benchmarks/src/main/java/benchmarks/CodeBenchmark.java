@@ -0,0 +1,44 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import standards.*;
+
+/**
+ * Benchmarks of the update of the code parameters for a fck (BrazilianCode and EuropeanCode).
+ * The integer fck are prebuilt, the other values go through the cache of snapshots.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CodeBenchmark {
+
+    @Param({"NBR6118", "EUROCODE2"})
+    public String code;
+
+    @Param({"30", "70", "32.5"})
+    public double fck;
+
+    private Code design;
+
+    @Setup
+    public void setup() {
+        design = Codes.of(code);
+    }
+
+    @Benchmark
+    public Code setFck() {
+        design.setFck(fck);
+        return design;
+    }
+
+    @Benchmark
+    public CodeParameters getParameters() {
+        return design.getParameters(fck);
+    }
+}
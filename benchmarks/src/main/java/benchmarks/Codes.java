@@ -0,0 +1,23 @@
+package benchmarks;
+
+import standards.*;
+
+/**
+ * Creates the codes used as parameters of the benchmarks.
+ */
+final class Codes {
+
+    private Codes() {
+    }
+
+    static Code of(String name) {
+        switch (name) {
+            case "NBR6118":
+                return new BrazilianCode();
+            case "EUROCODE2":
+                return new EuropeanCode();
+            default:
+                throw new IllegalArgumentException("Unknown code: " + name);
+        }
+    }
+}
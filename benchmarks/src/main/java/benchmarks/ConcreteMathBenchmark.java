@@ -0,0 +1,70 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import enums.GRADES;
+import standards.BrazilianParameters;
+import utils.ConcreteMath;
+import utils.StressBlock;
+
+/**
+ * Benchmarks of the Compression Concrete diagram of the NBR 6118 (ConcreteMath and StressBlock).
+ * PARABOLA evaluates a strain below ec2 (domain 2), CONSTANT a strain at ecu (domain 3).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConcreteMathBenchmark {
+
+    @Param({"C10", "C30", "C50", "C70", "C90"})
+    public String concrete;
+
+    @Param({"PARABOLA", "CONSTANT"})
+    public String strain;
+
+    private double ec, e1, e2, ec2, n, ecu, xk, d, esu;
+    private StressBlock block;
+    private final double[] result = new double[2];
+
+    @Setup
+    public void setup() {
+        BrazilianParameters parameters = BrazilianParameters.of(GRADES.Concrete.valueOf(concrete).getFck());
+        ec2 = parameters.getec2();
+        n = parameters.getN();
+        ecu = parameters.getecu();
+        block = parameters.getStressBlock();
+        ec = strain.equals("PARABOLA") ? 0.5*ec2 : ecu;
+        e1 = Math.min(ec, ec2);
+        e2 = (e1 < ec2) ? 0 : ec - ec2;
+        // Neutral axis that produces the strain
+        esu = 1.0/100;
+        d = 500;
+        xk = ec*d/(esu + ec);
+    }
+
+    @Benchmark
+    public double obtainArea() {
+        return ConcreteMath.obtainArea(e1, e2, ec2, n);
+    }
+
+    @Benchmark
+    public double obtainCG() {
+        return ConcreteMath.obtainCG(ec, e1, e2, ec2, n);
+    }
+
+    @Benchmark
+    public double[] defineStrain() {
+        return ConcreteMath.defineStrain(xk, d, ecu, ec2, esu);
+    }
+
+    @Benchmark
+    public double stressBlockEvaluate() {
+        block.evaluate(ec, result);
+        return result[0] + result[1];
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import calculations.DesignTable;
+import calculations.FlexuralResult;
+import calculations.Resistance;
+import enums.GRADES;
+import sections.*;
+import standards.*;
+
+/**
+ * Benchmarks of the flexural design of a single section, through Resistance.Flexural
+ * and through the FlexuralResistance method of the Beam and Slab.
+ * The moment is chosen from the limit of the simple reinforcement of each concrete class,
+ * so the SINGLE cases are singly reinforced and the DOUBLE cases need compression steel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FlexuralBenchmark {
+
+    @Param({"NBR6118", "EUROCODE2"})
+    public String code;
+
+    @Param({"C10", "C30", "C50", "C70", "C90"})
+    public String concrete;
+
+    @Param({"BEAM", "SLAB"})
+    public String element;
+
+    @Param({"SINGLE", "DOUBLE"})
+    public String reinforcement;
+
+    private Code design;
+    private ConcreteSection section;
+    private Steel steel;
+    private double mk;
+    private final FlexuralResult result = new FlexuralResult();
+
+    @Setup
+    public void setup() {
+        design = Codes.of(code);
+        GRADES.Concrete grade = GRADES.Concrete.valueOf(concrete);
+        steel = new Steel(GRADES.Grade.CA50);
+        section = element.equals("BEAM") ? new Beam(200, 500, grade, steel) : new Slab(150, grade, steel);
+        // Moment as a fraction of the limit of the simple reinforcement (mu = Md/(b*d²*fcd))
+        double muLim = DesignTable.of(design, grade, GRADES.Grade.CA50).getMuLimit();
+        double mu = reinforcement.equals("SINGLE") ? 0.6*muLim : 1.5*muLim;
+        double fcd = grade.getFck()/design.getGc();
+        mk = mu*section.getWidth()*section.getHeight()*section.getHeight()*fcd/design.getGf();
+    }
+
+    @Benchmark
+    public ArrayList<Double> resistanceFlexural() {
+        return Resistance.Flexural(mk, section, design, steel);
+    }
+
+    @Benchmark
+    public double sectionFlexuralResistance() {
+        if (section instanceof Beam) {
+            ((Beam) section).FlexuralResistance(mk, design);
+        } else {
+            ((Slab) section).FlexuralResistance(mk, design);
+        }
+        return section.getAs() + section.getAs2();
+    }
+
+    @Benchmark
+    public double resultHolder() {
+        section.FlexuralResistance(mk, design, result);
+        return result.getAs() + result.getAs2();
+    }
+}
@@ -0,0 +1,178 @@
+package benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import cli.DesignServer;
+import utils.NeutralAxisSolver;
+
+/**
+ * Load generator of the design service (cli.DesignServer) on the localhost.
+ * Many clients send small requests at the same time, each one waiting for its response before the next,
+ * and the throughput, the latency seen by the clients (percentiles) and the mean size of the batches are reported.
+ * When no URL is given, the service is started in this JVM, on a free port.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar benchmarks.ServiceLoad [http://localhost:8080]
+ *        [--clients 64] [--sections 4] [--seconds 10] [--code NBR6118|EUROCODE2] [--max-wait 200]
+ */
+public class ServiceLoad {
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int clients = 64, sections = 4, seconds = 10;
+        long maxWait = 200;
+        String code = "NBR6118";
+        int first = 0;
+        if (args.length > 0 && !args[0].startsWith("--")) {
+            url = args[0];
+            first = 1;
+        }
+        for (int i = first; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--clients":
+                    clients = Integer.parseInt(args[i+1]);
+                    break;
+                case "--sections":
+                    sections = Integer.parseInt(args[i+1]);
+                    break;
+                case "--seconds":
+                    seconds = Integer.parseInt(args[i+1]);
+                    break;
+                case "--code":
+                    code = args[i+1].toUpperCase();
+                    break;
+                case "--max-wait":
+                    maxWait = Long.parseLong(args[i+1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        DesignServer server = null;
+        if (url == null) {
+            server = new DesignServer(0, maxWait, 1024, Runtime.getRuntime().availableProcessors(),
+                                      NeutralAxisSolver.DEFAULT);
+            server.start();
+            // The service listens only on the loopback address
+            String host = server.getAddress().getAddress().getHostAddress();
+            url = "http://" + (host.contains(":") ? "[" + host + "]" : host) + ":" + server.getPort();
+        }
+        URI uri = URI.create(url + "/flexural?code=" + code);
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        // Warm up of the clients and of the service
+        run(http, uri, clients, sections, 2);
+        Result result = run(http, uri, clients, sections, seconds);
+        if (server != null) {
+            server.stop();
+        }
+
+        long[] latency = result.latency;
+        Arrays.sort(latency);
+        int count = latency.length;
+        System.out.printf(Locale.ROOT, "%d clients, %d sections per request, %d s: %d requests (%d failed)%n",
+                          clients, sections, seconds, count, result.failed);
+        if (count > 0) {
+            System.out.printf(Locale.ROOT, "throughput: %.0f requests/s, %.0f sections/s%n",
+                              count/(double) seconds, (double) count*sections/seconds);
+            System.out.printf(Locale.ROOT, "latency [ms]: p50 %.3f, p90 %.3f, p99 %.3f, max %.3f%n",
+                              latency[count/2]/1e6, latency[(int) (count*0.9)]/1e6,
+                              latency[Math.min((int) (count*0.99), count - 1)]/1e6, latency[count - 1]/1e6);
+            System.out.printf(Locale.ROOT, "mean batch: %.1f sections, mean server time [ms]: %.3f%n",
+                              result.batch/(double) count, result.server/count);
+        }
+    }
+
+
+
+    // Requests and latencies of a run
+    private static class Result {
+        long[] latency = new long[0];
+        long failed, batch;
+        double server;
+    }
+
+
+    private static Result run(HttpClient http, URI uri, int clients, int sections, int seconds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Future<?>[] futures = new Future<?>[clients];
+        Result[] results = new Result[clients];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            results[c] = new Result();
+            futures[c] = pool.submit(() -> {
+                Result result = results[client];
+                SplittableRandom random = new SplittableRandom(client);
+                long[] latency = new long[1 << 12];
+                int count = 0;
+                while (System.nanoTime() < end) {
+                    HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(body(random, sections))).build();
+                    long start = System.nanoTime();
+                    HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                    long elapsed = System.nanoTime() - start;
+                    if (response.statusCode() != 200) {
+                        result.failed++;
+                        continue;
+                    }
+                    if (count == latency.length) {
+                        latency = Arrays.copyOf(latency, 2*count);
+                    }
+                    latency[count++] = elapsed;
+                    result.batch += Long.parseLong(response.headers().firstValue("X-Batch-Size").orElse("0"));
+                    result.server += total(response.headers().firstValue("Server-Timing").orElse(""));
+                }
+                result.latency = Arrays.copyOf(latency, count);
+                return null;
+            });
+        }
+        Result total = new Result();
+        for (int c = 0; c < clients; c++) {
+            futures[c].get();
+            int size = total.latency.length;
+            total.latency = Arrays.copyOf(total.latency, size + results[c].latency.length);
+            System.arraycopy(results[c].latency, 0, total.latency, size, results[c].latency.length);
+            total.failed += results[c].failed;
+            total.batch += results[c].batch;
+            total.server += results[c].server;
+        }
+        pool.shutdown();
+        return total;
+    }
+
+
+    // Sections of a request (NDJSON), with the ranges of the usual beams
+    private static String body(SplittableRandom random, int sections){
+        StringBuilder body = new StringBuilder(sections*80);
+        for (int i = 0; i < sections; i++) {
+            double b = 120 + 10*random.nextInt(30);
+            double d = 250 + 10*random.nextInt(50);
+            body.append("{\"id\":").append(i)
+                .append(",\"type\":\"beam\",\"b\":").append(b)
+                .append(",\"d\":").append(d)
+                .append(",\"fck\":").append(20 + 5*random.nextInt(15))
+                .append(",\"grade\":\"CA50\",\"mk\":").append(Math.round(0.3*random.nextDouble()*b*d*d))
+                .append("}\n");
+        }
+        return body.toString();
+    }
+
+
+    // Total time of the request in the service, from the header Server-Timing [milliseconds]
+    private static double total(String timing){
+        int index = timing.indexOf("total;dur=");
+        return (index < 0) ? 0 : Double.parseDouble(timing.substring(index + 10));
+    }
+}
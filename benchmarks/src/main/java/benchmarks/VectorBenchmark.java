@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import calculations.BatchResistance;
+import calculations.VectorResistance;
+import standards.Code;
+
+/**
+ * Benchmarks of the Eurocode 2 design of many sections: scalar (BatchResistance) and SIMD (VectorResistance),
+ * over sections with random dimensions, concrete classes and moments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class VectorBenchmark {
+
+    @Param({"10000"})
+    public int sections;
+
+    private Code design;
+    private double[] mk, b, d, fck, fyk, As, As2;
+
+    @Setup
+    public void setup() {
+        design = Codes.of("EUROCODE2");
+        mk = new double[sections];
+        b = new double[sections];
+        d = new double[sections];
+        fck = new double[sections];
+        fyk = new double[sections];
+        As = new double[sections];
+        As2 = new double[sections];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < sections; i++) {
+            b[i] = 120 + 10*random.nextInt(30);
+            d[i] = 300 + 10*random.nextInt(60);
+            fck[i] = 20 + 5*random.nextInt(15);
+            fyk[i] = 500;
+            double fcd = fck[i]/design.getGc();
+            mk[i] = random.nextDouble(0.02, 0.4)*b[i]*d[i]*d[i]*fcd/design.getGf();
+        }
+    }
+
+    @Benchmark
+    public double[] scalar() {
+        BatchResistance.Flexural(design, mk, b, d, fck, fyk, As, As2);
+        return As;
+    }
+
+    @Benchmark
+    public double[] vector() {
+        VectorResistance.Flexural(design, mk, b, d, fck, fyk, As, As2);
+        return As;
+    }
+}
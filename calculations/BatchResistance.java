@@ -0,0 +1,148 @@
+package calculations;
+
+import sections.Steel;
+import standards.Code;
+import standards.CodeParameters;
+import utils.BatchEvent;
+import utils.DesignMetrics;
+import utils.NeutralAxisSolver;
+
+/**
+ * Class that performs the flexural design of many sections at once.
+ * The sections are given as parallel arrays of primitives (one index per section),
+ * and the results are written in arrays supplied by the caller, avoiding
+ * the creation of Beams, Slabs and Lists for each section designed.
+ */
+public class BatchResistance {
+
+    // Reference steel used for the properties that do not depend on the grade (Es and esu)
+    private static final Steel REFERENCE = new Steel(enums.GRADES.Grade.CA50);
+
+
+
+    /**
+     * Designs all the sections with the same routine of Resistance.Flexural.
+     * @param code Code     - Defines the code parameters and coeficients (NBR 6118 or Eurocode 2).
+     * @param mk   double[] - Characteristic bending moment applied in each section [N.mm].
+     * @param b    double[] - Width of each section [millimeter].
+     * @param d    double[] - Effective height of each section [millimeter].
+     * @param fck  double[] - Concrete compressive strength of each section [MPa].
+     * @param fyk  double[] - Steel characteristic resistance of each section [MPa].
+     * @param As   double[] - Output: area of steel reinforcement in tension [mm²].
+     * @param As2  double[] - Output: area of steel reinforcement in compression [mm²].
+     */
+    public static void Flexural(Code code, double[] mk, double[] b, double[] d, double[] fck, double[] fyk,
+                                double[] As, double[] As2) {
+        Flexural(code, NeutralAxisSolver.DEFAULT, mk, b, d, fck, fyk, As, As2, null);
+    }
+
+
+
+    /**
+     * Designs all the sections, with the solver used to find the Neutral Axis (NBR 6118).
+     * @param code   Code     - Defines the code parameters and coeficients (NBR 6118 or Eurocode 2).
+     * @param solver NeutralAxisSolver - Method and tolerance used to converge the Neutral Axis.
+     * @param mk     double[] - Characteristic bending moment applied in each section [N.mm].
+     * @param b      double[] - Width of each section [millimeter].
+     * @param d      double[] - Effective height of each section [millimeter].
+     * @param fck    double[] - Concrete compressive strength of each section [MPa].
+     * @param fyk    double[] - Steel characteristic resistance of each section [MPa].
+     * @param As     double[] - Output: area of steel reinforcement in tension [mm²].
+     * @param As2    double[] - Output: area of steel reinforcement in compression [mm²].
+     * @param iterations int[] - Output (optional, may be null): passes used to converge each section.
+     */
+    public static void Flexural(Code code, NeutralAxisSolver solver, double[] mk, double[] b, double[] d,
+                                double[] fck, double[] fyk, double[] As, double[] As2, int[] iterations) {
+        int size = mk.length;
+        if (b.length != size || d.length != size || fck.length != size || fyk.length != size
+            || As.length < size || As2.length < size || (iterations != null && iterations.length < size)) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+
+        BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+        double Es  = REFERENCE.getEs();
+        double esu = REFERENCE.getesu();
+        NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+        long passes = 0;
+
+        // The kernel of the code is resolved once, and the parameters are only looked up
+        // when the fck changes between consecutive sections
+        FlexuralKernel kernel = FlexuralKernel.of(code);
+        double lastFck = Double.NaN;
+        CodeParameters parameters = null;
+        for (int i = 0; i < size; i++) {
+            if (b[i] <= 0 || d[i] <= 0 || fck[i] <= 0 || fyk[i] <= 0) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+            if (fck[i] != lastFck) {
+                parameters = code.getParameters(fck[i]);
+                lastFck = fck[i];
+            }
+            Resistance.flexural(mk[i], b[i], d[i], fck[i], fyk[i], Es, esu, code, kernel, parameters, solver, Double.NaN,
+                                solution, As, As2, i);
+            passes += solution.getIterations();
+            if (iterations != null) {
+                iterations[i] = solution.getIterations();
+            }
+        }
+        if (event != null) {
+            DesignMetrics.endBatch(event, "BatchResistance", kernel.name(), size, passes);
+        }
+    }
+
+
+
+    /**
+     * Designs the flexure and the shear of all the sections in a single pass,
+     * reading the section and the parameters of the code once (NBR 6118 Model I, or Eurocode 2 variable strut).
+     * The stirrups have the same steel of the longitudinal reinforcement.
+     * @param code Code     - Defines the code parameters and coeficients (NBR 6118 or Eurocode 2).
+     * @param mk   double[] - Characteristic bending moment applied in each section [N.mm].
+     * @param vk   double[] - Characteristic shear force applied in each section [N].
+     * @param b    double[] - Width of each section [millimeter].
+     * @param d    double[] - Effective height of each section [millimeter].
+     * @param fck  double[] - Concrete compressive strength of each section [MPa].
+     * @param fyk  double[] - Steel characteristic resistance of each section [MPa].
+     * @param As   double[] - Output: area of steel reinforcement in tension [mm²].
+     * @param As2  double[] - Output: area of steel reinforcement in compression [mm²].
+     * @param Asw  double[] - Output: area of stirrups per length [mm²/m] (NaN when the struts are crushed).
+     */
+    public static void FlexuralShear(Code code, double[] mk, double[] vk, double[] b, double[] d, double[] fck,
+                                     double[] fyk, double[] As, double[] As2, double[] Asw) {
+        int size = mk.length;
+        if (vk.length != size || b.length != size || d.length != size || fck.length != size || fyk.length != size
+            || As.length < size || As2.length < size || Asw.length < size) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+
+        BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+        double Es  = REFERENCE.getEs();
+        double esu = REFERENCE.getesu();
+        NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+        long passes = 0;
+
+        // The kernels of the code are resolved once, and the parameters are only looked up
+        // when the fck changes between consecutive sections
+        FlexuralKernel kernel = FlexuralKernel.of(code);
+        MemberKernel member = MemberKernel.of(code);
+        double lastFck = Double.NaN;
+        CodeParameters parameters = null;
+        for (int i = 0; i < size; i++) {
+            if (b[i] <= 0 || d[i] <= 0 || fck[i] <= 0 || fyk[i] <= 0) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+            if (fck[i] != lastFck) {
+                parameters = code.getParameters(fck[i]);
+                lastFck = fck[i];
+            }
+            Resistance.flexural(mk[i], b[i], d[i], fck[i], fyk[i], Es, esu, code, kernel, parameters,
+                                NeutralAxisSolver.DEFAULT, Double.NaN, solution, As, As2, i);
+            // The tension reinforcement just designed is used by the concrete contribution of the Eurocode 2
+            Asw[i] = Resistance.shear(vk[i], b[i], d[i], fck[i], fyk[i], As[i], code, member, parameters, Double.NaN);
+            passes += solution.getIterations();
+        }
+        if (event != null) {
+            DesignMetrics.endBatch(event, "BatchResistance", kernel.name(), size, passes);
+        }
+    }
+}
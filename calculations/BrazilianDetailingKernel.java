@@ -0,0 +1,35 @@
+package calculations;
+
+import standards.BrazilianCode;
+import standards.Code;
+
+/**
+ * Detailing rules of the Brazilian Code - NBR 6118:2014 (18.3.2.2).
+ */
+public final class BrazilianDetailingKernel implements DetailingKernel {
+
+    @Override
+    public Class<? extends Code> code() {
+        return BrazilianCode.class;
+    }
+
+
+    @Override
+    public String name() {
+        return "NBR6118";
+    }
+
+
+    // NBR 6118 - 18.3.2.2: max(20 mm, diameter, 1.2 aggregate)
+    @Override
+    public double horizontalSpacing(double diameter, double aggregate) {
+        return Math.max(20, Math.max(diameter, 1.2*aggregate));
+    }
+
+
+    // NBR 6118 - 18.3.2.2: max(20 mm, diameter, 0.5 aggregate)
+    @Override
+    public double verticalSpacing(double diameter, double aggregate) {
+        return Math.max(20, Math.max(diameter, 0.5*aggregate));
+    }
+}
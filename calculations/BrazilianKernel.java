@@ -0,0 +1,47 @@
+package calculations;
+
+import standards.BrazilianCode;
+import standards.BrazilianParameters;
+import standards.Code;
+import standards.CodeParameters;
+import utils.NeutralAxisSolver;
+import utils.StressBlock;
+
+/**
+ * Flexural kernel of the Brazilian Code - NBR 6118:2014.
+ * Parabola-rectangle diagram of the concrete, with the Neutral Axis converged by the solver.
+ */
+public final class BrazilianKernel implements FlexuralKernel {
+
+    @Override
+    public Class<? extends Code> code() {
+        return BrazilianCode.class;
+    }
+
+
+    @Override
+    public String name() {
+        return "NBR6118";
+    }
+
+
+    @Override
+    public void compression(double Msd, double bw, double d, double fcd, double esu, CodeParameters parameters,
+                            NeutralAxisSolver solver, double guess, NeutralAxisSolver.Solution solution) {
+        BrazilianParameters brazilian = (BrazilianParameters) parameters;
+        // Loop that calculates section forces for given Neutral Axis and converges new values to equilibrium.
+        solver.solve(Msd, bw, d, fcd, brazilian.getecu(), esu, brazilian.getLN(), brazilian.getStressBlock(),
+                     guess, solution);
+    }
+
+
+    // Parabola-rectangle diagram, with the stress 0.85 fcd (17.2.2)
+    @Override
+    public double concrete(double xk, double ec, double bw, double fcd, CodeParameters parameters, double[] block) {
+        StressBlock diagram = ((BrazilianParameters) parameters).getStressBlock();
+        diagram.evaluate(ec, block);
+        double Fc = 0.85*fcd*bw*(block[0]/ec)*xk;
+        block[1] = block[1]/ec*xk;
+        return Fc;
+    }
+}
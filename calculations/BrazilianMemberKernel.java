@@ -0,0 +1,89 @@
+package calculations;
+
+import standards.BrazilianCode;
+import standards.BrazilianParameters;
+import standards.Code;
+import standards.CodeParameters;
+
+/**
+ * Rules of the Brazilian Code - NBR 6118:2014 beyond the flexure.
+ * Shear by the Models I and II (17.4.2), cracking moment with a = 1.5 (17.3.1),
+ * long-term deflection by the factor af (17.3.2.1.2), crack width by 17.3.3.2, and slabs by Marcus.
+ */
+public final class BrazilianMemberKernel implements MemberKernel {
+
+    @Override
+    public Class<? extends Code> code() {
+        return BrazilianCode.class;
+    }
+
+
+    @Override
+    public String name() {
+        return "NBR6118";
+    }
+
+
+    @Override
+    public double shear(double Vsd, double bw, double d, double fcd, double fywk, double As, Code code,
+                        CodeParameters parameters, double theta) {
+        BrazilianParameters brazilian = (BrazilianParameters) parameters;
+        double fywd = Math.min(fywk / code.getGs(), 435); // Limit of the stirrups (17.4.2.2)
+        double av2 = 1 - parameters.getFck()/250;
+        double fctd = brazilian.getFctkinf() / code.getGc();
+        double Vc0 = 0.6*fctd*bw*d; // Concrete contribution in simple flexion
+        double Asw;
+        if (Double.isNaN(theta)) {
+            // Model I: struts at 45°
+            double VRd2 = 0.27*av2*fcd*bw*d;
+            if (Vsd > VRd2) {
+                return Double.NaN;
+            }
+            Asw = Math.max(Vsd - Vc0, 0)/(0.9*d*fywd);
+        } else {
+            // Model II: struts at theta, the concrete contribution decreases up to the crushing
+            if (theta < 30 || theta > 45) {
+                throw new IllegalArgumentException("The NBR 6118 struts must be between 30 and 45 degrees");
+            }
+            double angle = Math.toRadians(theta);
+            double cot = 1/Math.tan(angle);
+            double VRd2 = 0.54*av2*fcd*bw*d*Math.sin(angle)*Math.sin(angle)*cot;
+            if (Vsd > VRd2) {
+                return Double.NaN;
+            }
+            double Vc1 = (Vsd <= Vc0) ? Vc0 : Vc0*(VRd2 - Vsd)/(VRd2 - Vc0);
+            Asw = Math.max(Vsd - Vc1, 0)/(0.9*d*fywd*cot);
+        }
+        // Minimum reinforcement (17.4.1.1.1): 0.2*fctm/fywk
+        return Math.max(Asw, 0.2*brazilian.getFctm()/fywk*bw);
+    }
+
+
+    @Override
+    public double crackingFactor() {
+        return 1.5;
+    }
+
+
+    // af = dxi/(1 + 50*p'), dxi = 2 - 0.68*0.996*1^0.32 (loading at 1 month, t >= 70 months)
+    @Override
+    public double longTerm(double immediate, double b, double d, double As, double As2, double Ma, double stiffness,
+                           double Mr, double Ic, double Es, double Ecs, double[] stage) {
+        double dxi = 2 - 0.68*0.996; // xi(70 months) - xi(1 month)
+        return immediate*(1 + dxi/(1 + 50*As2/(b*d)));
+    }
+
+
+    // The lowest of phi/(12.5*n1)*ss/Es*3*ss/fctm and phi/(12.5*n1)*ss/Es*(4/pr + 45), n1 = 2.25
+    @Override
+    public double crackWidth(double phi, double ss, double pr, double h, double d, double fctm, double Es, double Ecs) {
+        double factor = phi/(12.5*2.25)*ss/Es;
+        return Math.min(factor*3*ss/fctm, factor*(4/pr + 45));
+    }
+
+
+    @Override
+    public SlabMoments.Method slabMethod() {
+        return SlabMoments.Method.MARCUS;
+    }
+}
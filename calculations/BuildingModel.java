@@ -0,0 +1,386 @@
+package calculations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import sections.Beam;
+import sections.ConcreteSection;
+import sections.Slab;
+import standards.Code;
+
+/**
+ * Structural model of a building: slabs carry their load onto beams, and beams carry their load onto other beams.
+ * The members and their supports form a dependency graph (DAG), the load flows from each member to its supports.
+ * Each member is a simply supported span, with up to two supports (the start and the end of the span);
+ * a member without supports rests on columns or walls.
+ *   Slab - Strip of 1 meter, with a uniform load [kN/m²]. Each reaction is a uniform line load on the beam below,
+ *          along the whole beam (the slab continues along the beam).
+ *   Beam - Uniform line load [kN/m], plus the line loads of the slabs and the point loads of the beams it supports.
+ *          Each reaction is a point load on the supporting beam, at the position given by the support.
+ * The self-weight is not added, it is part of the loads given.
+ *
+ * The members are designed level by level: a level only has members whose loads come from the levels before it,
+ * so the members of a level are independent and designed in parallel (fork/join, work-stealing).
+ * After the first design, only the members changed (load, section, code) and the members downstream of them
+ * whose loads changed are designed again, so a change in a slab only reaches the beams below it.
+ */
+public class BuildingModel {
+
+    // Members designed by each task
+    private static final int THRESHOLD = 32;
+
+    private final List<Member> members = new ArrayList<>();
+
+    // Members of each level (null when the supports changed)
+    private int[][] levels;
+
+    // Code of the last design, and the version of its coefficients
+    private Code code;
+    private int codeVersion;
+
+
+
+    // Member of the model, and its state in the last design
+    private static class Member {
+        final ConcreteSection section;
+        final boolean slab;
+        final double span;   // Span between the supports [millimeter]
+        double load;         // Uniform load of the member [N/mm, or N/mm² for slabs]
+        final List<Integer> supports = new ArrayList<>(); // Members below, in the order of the span (start, end)
+        final List<Double> positions = new ArrayList<>(); // Position of each support along the member below [millimeter]
+        final List<Integer> carried = new ArrayList<>();  // Members supported by this member
+        boolean changed = true; // Changed after the last design
+        double mk = Double.NaN; // Maximum moment of the last design [N.mm]
+        final double[] reactions = new double[2]; // Reactions at the start and at the end [N, or N/mm for slabs]
+        boolean reactionsChanged; // The reactions changed in the last design
+
+        Member(ConcreteSection section, boolean slab, double span, double load){
+            this.section = section;
+            this.slab = slab;
+            this.span = span;
+            this.load = load;
+        }
+    }
+
+
+
+    /**
+     * Adds a slab to the model.
+     * @param strip Slab   - Section of the slab (strip of 1 meter).
+     * @param span  double - Span of the slab between its supports [millimeter].
+     * @param load  double - Uniform characteristic load on the slab [kN/m²].
+     * @return int - Index of the member.
+     */
+    public int addSlab(Slab strip, double span, double load){
+        return add(new Member(strip, true, span, load/1000), span, load);
+    }
+
+
+
+    /**
+     * Adds a beam to the model.
+     * @param beam Beam   - Section of the beam.
+     * @param span double - Span of the beam between its supports [millimeter].
+     * @param load double - Uniform characteristic load on the beam, besides the members it supports [kN/m].
+     * @return int - Index of the member.
+     */
+    public int addBeam(Beam beam, double span, double load){
+        return add(new Member(beam, false, span, load), span, load);
+    }
+
+
+    private int add(Member member, double span, double load){
+        if (span <= 0 || load < 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        members.add(member);
+        levels = null;
+        return members.size() - 1;
+    }
+
+
+
+    /**
+     * Supports a member on a beam: the first support is the start of the span, the second its end.
+     * @param member   int    - Index of the member supported (slab or beam).
+     * @param beam     int    - Index of the beam below.
+     * @param position double - Position of the support along the beam below [millimeter] (not used by slabs).
+     */
+    public void support(int member, int beam, double position){
+        Member supported = members.get(member);
+        Member below = members.get(beam);
+        if (below.slab) {
+            throw new IllegalArgumentException("Members are only supported by beams");
+        }
+        if (member == beam || supported.supports.size() == 2 || supported.supports.contains(beam)) {
+            throw new IllegalArgumentException("A member has up to two supports, on two other members");
+        }
+        if (!supported.slab && !(position >= 0 && position <= below.span)) {
+            throw new IllegalArgumentException("The position must be inside the span of the beam");
+        }
+        if (reaches(beam, member)) {
+            throw new IllegalArgumentException("The support would close a cycle of loads");
+        }
+        supported.supports.add(beam);
+        supported.positions.add(supported.slab ? 0 : position);
+        below.carried.add(member);
+        supported.changed = true;
+        below.changed = true;
+        levels = null;
+    }
+
+
+    // The load of the member reaches the target (through its supports)
+    private boolean reaches(int member, int target){
+        if (member == target) {
+            return true;
+        }
+        for (int support : members.get(member).supports) {
+            if (reaches(support, target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+    /**
+     * Changes the load of a member, the member and the members below it are designed again at the next design.
+     * @param member int    - Index of the member.
+     * @param load   double - Uniform characteristic load [kN/m² for slabs, kN/m for beams].
+     */
+    public void setLoad(int member, double load){
+        if (load < 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        Member changed = members.get(member);
+        double value = changed.slab ? load/1000 : load;
+        if (value != changed.load) {
+            changed.load = value;
+            changed.changed = true;
+        }
+    }
+
+
+
+    /**
+     * Designs the model level by level, only the members that changed and the members whose loads changed.
+     * The sections of the members can be changed directly (setHeight, setFck...), they are designed again.
+     * @param code Code - Defines the code parameters and coeficients.
+     * @return int - Number of members designed.
+     */
+    public int design(Code code){
+        boolean all = code != this.code || code.getVersion() != codeVersion;
+        if (levels == null) {
+            levels = levels();
+        }
+        int designed = 0;
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int[] level : levels) {
+            // Members of the level to design: changed, or loaded by a member whose reactions changed
+            int[] stale = new int[level.length];
+            int count = 0;
+            for (int i : level) {
+                Member member = members.get(i);
+                boolean loaded = false;
+                for (int j : member.carried) {
+                    loaded |= members.get(j).reactionsChanged;
+                }
+                member.reactionsChanged = false;
+                if (all || loaded || member.changed || member.section.isDirty() || member.section.getCode() != code) {
+                    stale[count++] = i;
+                }
+            }
+            if (count > 0) {
+                pool.invoke(new Task(code, stale, 0, count));
+                designed += count;
+            }
+        }
+        this.code = code;
+        this.codeVersion = code.getVersion();
+        return designed;
+    }
+
+
+
+    // Orders the members in levels: each member after all the members it supports
+    private int[][] levels(){
+        int size = members.size();
+        int[] level = new int[size];
+        int[] pending = new int[size]; // Members supported not yet leveled
+        int[] queue = new int[size];
+        int head = 0, tail = 0;
+        for (int i = 0; i < size; i++) {
+            pending[i] = members.get(i).carried.size();
+            if (pending[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        int depth = 0;
+        while (head < tail) {
+            int i = queue[head++];
+            for (int below : members.get(i).supports) {
+                level[below] = Math.max(level[below], level[i] + 1);
+                if (--pending[below] == 0) {
+                    queue[tail++] = below;
+                }
+            }
+            depth = Math.max(depth, level[i] + 1);
+        }
+        int[] counts = new int[depth];
+        for (int i = 0; i < size; i++) {
+            counts[level[i]]++;
+        }
+        int[][] levels = new int[depth][];
+        for (int k = 0; k < depth; k++) {
+            levels[k] = new int[counts[k]];
+            counts[k] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            levels[level[i]][counts[level[i]]++] = i;
+        }
+        return levels;
+    }
+
+
+
+    // Designs the members [from, to) of a level
+    private class Task extends RecursiveAction {
+        private final Code code;
+        private final int[] stale;
+        private final int from, to;
+
+        Task(Code code, int[] stale, int from, int to){
+            this.code = code;
+            this.stale = stale;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(code, stale, from, middle), new Task(code, stale, middle, to));
+                return;
+            }
+            FlexuralResult result = new FlexuralResult();
+            for (int k = from; k < to; k++) {
+                design(members.get(stale[k]), code, result);
+            }
+        }
+    }
+
+
+
+    // Loads, moment and reactions of the member, and its design. The members it supports were already designed
+    private void design(Member member, Code code, FlexuralResult result){
+        double L = member.span;
+        double q = member.slab ? member.load*1000 : member.load; // Strip of 1 meter [N/mm]
+        // Line loads of the slabs, and point loads of the beams
+        int points = 0;
+        double[] P = new double[member.carried.size()];
+        double[] a = new double[member.carried.size()];
+        for (int j : member.carried) {
+            Member carried = members.get(j);
+            for (int s = 0; s < carried.supports.size(); s++) {
+                if (members.get(carried.supports.get(s)) != member) {
+                    continue;
+                }
+                if (carried.slab) {
+                    q += carried.reactions[s];
+                } else {
+                    P[points] = carried.reactions[s];
+                    a[points++] = carried.positions.get(s);
+                }
+            }
+        }
+
+        // Reactions of the simply supported span
+        double Ra = q*L/2, Rb = q*L/2;
+        for (int k = 0; k < points; k++) {
+            Ra += P[k]*(L - a[k])/L;
+            Rb += P[k]*a[k]/L;
+        }
+        double mk = maximumMoment(q, L, Ra, P, a, points);
+
+        // Reactions delivered to the supports (slabs: per millimeter of the beam)
+        double scale = member.slab ? 1.0/1000 : 1;
+        double start = Ra*scale, end = Rb*scale;
+        member.reactionsChanged = start != member.reactions[0] || end != member.reactions[1];
+        member.reactions[0] = start;
+        member.reactions[1] = end;
+
+        member.mk = mk;
+        member.section.FlexuralResistance(mk, code, result);
+        member.changed = false;
+    }
+
+
+
+    // Maximum moment of the simply supported span, where the shear changes its sign
+    private static double maximumMoment(double q, double L, double Ra, double[] P, double[] a, int points){
+        // Point loads in the order of the span
+        Integer[] order = new Integer[points];
+        for (int k = 0; k < points; k++) {
+            order[k] = k;
+        }
+        Arrays.sort(order, (i, j) -> Double.compare(a[i], a[j]));
+
+        double maximum = 0;
+        double x0 = 0, M0 = 0, V0 = Ra;
+        for (int k = 0; k <= points; k++) {
+            double x1 = (k < points) ? a[order[k]] : L;
+            // Moment along the segment: M0 + V0*(x - x0) - q*(x - x0)²/2
+            if (q > 0 && V0 > 0 && V0/q < x1 - x0) {
+                maximum = Math.max(maximum, M0 + V0*V0/(2*q));
+            }
+            double length = x1 - x0;
+            M0 += V0*length - q*length*length/2;
+            V0 -= q*length;
+            maximum = Math.max(maximum, M0);
+            if (k < points) {
+                V0 -= P[order[k]];
+            }
+            x0 = x1;
+        }
+        return maximum;
+    }
+
+
+
+    /** @return int return the number of members of the model */
+    public int size() {
+        return members.size();
+    }
+
+    /** @return ConcreteSection return the section of the member */
+    public ConcreteSection getSection(int member) {
+        return members.get(member).section;
+    }
+
+    /** @return double return the maximum moment of the member in the last design [N.mm] */
+    public double getMoment(int member) {
+        return members.get(member).mk;
+    }
+
+    /**
+     * @return double return the reaction of the member at a support in the last design
+     * (index of the support: 0 start, 1 end) [N for beams, N/mm along the beam below for slabs]
+     */
+    public double getReaction(int member, int support) {
+        return members.get(member).reactions[support];
+    }
+
+    /** @return int return the number of levels of the model (members designed one level after the other) */
+    public int getLevels() {
+        if (levels == null) {
+            levels = levels();
+        }
+        return levels.length;
+    }
+}
@@ -0,0 +1,226 @@
+package calculations;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import sections.ConcreteSection;
+import sections.Steel;
+import standards.*;
+
+/**
+ * Class that performs the check of existing sections:
+ * the design resisting moment MRd of a rectangular section with the given reinforcements.
+ *
+ * The neutral axis is found by the equilibrium of forces, Fc(x) + As2*fs2(x) = As*fs(x),
+ * with the same strains of the design (ec = min(esu*x/(d-x), ecu)) and the closed form of the concrete diagram of the code (FlexuralKernel.concrete),
+ * so the section designed by Resistance.Flexural for a moment resists it again (MRd = Msd, apart from the rounding of As).
+ * The neutral axis is not limited to the ductility limit of the code, an over-reinforced section
+ * has its resistance obtained with the steel below the yielding.
+ */
+public class Capacity {
+
+    // Reference steel used for the properties that do not depend on the grade (Es and esu)
+    private static final Steel REFERENCE = new Steel(enums.GRADES.Grade.CA50);
+
+    // Pre-estabeleced position of the compression reinforcement [millimeter]
+    private static final double D2 = 50;
+
+    // Sections checked by each task
+    private static final int THRESHOLD = 4096;
+
+    // Relative tolerance of the neutral axis (x/d) and maximum passes of the solver
+    private static final double TOLERANCE = 1.0e-10;
+    private static final int MAX_ITERATIONS = 100;
+
+
+
+    /**
+     * Resisting moment of the section with its reinforcements.
+     * @param section ConcreteSection - Section checked.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @param As      double - Area of steel reinforcement in tension [mm²].
+     * @param As2     double - Area of steel reinforcement in compression [mm²].
+     * @return double - Design resisting moment MRd [N.mm] (compare with Msd = gf*Mk).
+     */
+    public static double Flexural(ConcreteSection section, Code code, Steel steel, double As, double As2) {
+        if (As < 0 || As2 < 0) {
+            throw new IllegalArgumentException("Input values must be >= 0");
+        }
+        return flexural(section.getWidth(), section.getHeight(), section.getFck(), steel.getfyk(), steel.getEs(),
+                        steel.getesu(), As, As2, code, FlexuralKernel.of(code), code.getParameters(section.getFck()),
+                        new double[2]);
+    }
+
+
+
+    /**
+     * Resisting moments of all the sections, checked in parallel.
+     * @param code Code     - Defines the code parameters and coeficients (NBR 6118 or Eurocode 2).
+     * @param b    double[] - Width of each section [millimeter].
+     * @param d    double[] - Effective height of each section [millimeter].
+     * @param fck  double[] - Concrete compressive strength of each section [MPa].
+     * @param fyk  double[] - Steel characteristic resistance of each section [MPa].
+     * @param As   double[] - Area of steel reinforcement in tension of each section [mm²].
+     * @param As2  double[] - Area of steel reinforcement in compression of each section [mm²].
+     * @param MRd  double[] - Output: design resisting moment of each section [N.mm].
+     */
+    public static void Flexural(Code code, double[] b, double[] d, double[] fck, double[] fyk,
+                                double[] As, double[] As2, double[] MRd) {
+        int size = b.length;
+        if (d.length != size || fck.length != size || fyk.length != size
+            || As.length != size || As2.length != size || MRd.length < size) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        for (int i = 0; i < size; i++) {
+            if (b[i] <= 0 || d[i] <= 0 || fck[i] <= 0 || fyk[i] <= 0) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+            if (As[i] < 0 || As2[i] < 0) {
+                throw new IllegalArgumentException("Input values must be >= 0");
+            }
+        }
+        ForkJoinPool.commonPool().invoke(new Check(code, b, d, fck, fyk, As, As2, MRd, 0, size));
+    }
+
+
+
+    // Checks the sections [from, to)
+    private static class Check extends RecursiveAction {
+        private final Code code;
+        private final double[] b, d, fck, fyk, As, As2, MRd;
+        private final int from, to;
+
+        Check(Code code, double[] b, double[] d, double[] fck, double[] fyk, double[] As, double[] As2,
+              double[] MRd, int from, int to){
+            this.code = code;
+            this.b = b;
+            this.d = d;
+            this.fck = fck;
+            this.fyk = fyk;
+            this.As = As;
+            this.As2 = As2;
+            this.MRd = MRd;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Check(code, b, d, fck, fyk, As, As2, MRd, from, middle),
+                          new Check(code, b, d, fck, fyk, As, As2, MRd, middle, to));
+                return;
+            }
+            double Es  = REFERENCE.getEs();
+            double esu = REFERENCE.getesu();
+            double[] block = new double[2];
+            FlexuralKernel kernel = FlexuralKernel.of(code);
+            // The parameters are only looked up when the fck changes between consecutive sections
+            double lastFck = Double.NaN;
+            CodeParameters parameters = null;
+            for (int i = from; i < to; i++) {
+                if (fck[i] != lastFck) {
+                    parameters = code.getParameters(fck[i]);
+                    lastFck = fck[i];
+                }
+                MRd[i] = flexural(b[i], d[i], fck[i], fyk[i], Es, esu, As[i], As2[i], code, kernel, parameters, block);
+            }
+        }
+    }
+
+
+
+    /**
+     * Resisting moment of a single section over primitive values.
+     * @param kernel FlexuralKernel - Kernel of the code, with its diagram of the concrete.
+     * @param block double[2] - Holder reused by the evaluations of the concrete diagram.
+     * @return double - Design resisting moment MRd [N.mm].
+     */
+    static double flexural(double bw, double d, double fck, double fyk, double Es, double esu,
+                           double As, double As2, Code code, FlexuralKernel kernel, CodeParameters parameters,
+                           double[] block) {
+        if (As == 0) {
+            return 0;
+        }
+        double fcd = fck / code.getGc(); // Design Concrete Strength.
+        double fyd = fyk / code.getGs(); // Design Steel Strength.
+        return resisting(bw, d, fcd, fyd, Es, esu, As, As2, kernel, parameters, block);
+    }
+
+
+
+    /**
+     * Resisting moment of a single section for the strengths given, without the safety factors of the code.
+     * @param fcd   double - Strength of the concrete [MPa] (design or sampled value).
+     * @param fyd   double - Strength of the steel [MPa] (design or sampled value).
+     * @param kernel FlexuralKernel - Kernel of the code, with its diagram of the concrete.
+     * @param block double[2] - Holder reused by the evaluations of the concrete diagram.
+     * @return double - Resisting moment [N.mm].
+     */
+    static double resisting(double bw, double d, double fcd, double fyd, double Es, double esu,
+                            double As, double As2, FlexuralKernel kernel, CodeParameters parameters, double[] block) {
+        if (As == 0) {
+            return 0;
+        }
+        double ecu = parameters.getecu();
+
+        // Equilibrium of forces, bracketed in (0, d): the residual grows with the neutral axis.
+        // At x = 0 the concrete force vanishes, with the strains of the steel pivoting on esu (limit of the residual)
+        double xi = 0, ri = As2*stress(-esu*D2/d, Es, fyd) - As*stress(esu, Es, fyd);
+        double xf = d*(1 - TOLERANCE);
+        double rf = residual(xf, bw, d, fcd, fyd, Es, esu, ecu, As, As2, kernel, parameters, block);
+        double xk = xf;
+        if (rf > 0) {
+            // Illinois false position
+            int side = 0;
+            for (int iterations = 0; iterations < MAX_ITERATIONS && xf - xi > TOLERANCE*d; iterations++) {
+                xk = xi - ri*(xf - xi)/(rf - ri);
+                if (!(xk > xi && xk < xf)) {
+                    xk = (xi + xf)/2;
+                }
+                double r = residual(xk, bw, d, fcd, fyd, Es, esu, ecu, As, As2, kernel, parameters, block);
+                if (r == 0) {
+                    break;
+                }
+                if (r > 0) {
+                    xf = xk; rf = r;
+                    if (side == 1) { ri /= 2; }
+                    side = 1;
+                } else {
+                    xi = xk; ri = r;
+                    if (side == -1) { rf /= 2; }
+                    side = -1;
+                }
+            }
+        }
+
+        // Section forces at the neutral axis found
+        double ec = Math.min(esu*xk/(d-xk), ecu);
+        double Fc = kernel.concrete(xk, ec, bw, fcd, parameters, block);
+        double CG = block[1];
+        double fs2 = stress(ec*(xk - D2)/xk, Es, fyd);
+        return Fc*(d - CG) + As2*fs2*(d - D2);
+    }
+
+
+
+    // Fc + As2*fs2 - As*fs for the neutral axis
+    private static double residual(double xk, double bw, double d, double fcd, double fyd, double Es, double esu,
+                                   double ecu, double As, double As2, FlexuralKernel kernel, CodeParameters parameters,
+                                   double[] block){
+        double ec = Math.min(esu*xk/(d-xk), ecu);
+        double Fc = kernel.concrete(xk, ec, bw, fcd, parameters, block);
+        double fs = stress(ec*(d - xk)/xk, Es, fyd);
+        double fs2 = stress(ec*(xk - D2)/xk, Es, fyd);
+        return Fc + As2*fs2 - As*fs;
+    }
+
+
+
+    // Stress of the steel for the strain, limited to the design strength in tension and compression
+    private static double stress(double strain, double Es, double fyd){
+        return Math.max(-fyd, Math.min(fyd, Es*strain));
+    }
+}
@@ -0,0 +1,333 @@
+package calculations;
+
+import java.util.Arrays;
+
+import enums.SUPPORTS.Support;
+import sections.Beam;
+import standards.Code;
+import utils.BandedSolver;
+
+/**
+ * Analysis of continuous beams: spans with their own stiffness (EI), on supports that restrain the deflection,
+ * with the ends simply supported or fixed. The beam is discretized in Euler-Bernoulli elements, and the stiffness
+ * matrix (half bandwidth of 3) is assembled and factored once, by the BandedSolver.
+ *
+ * Pattern loading: the permanent load (g) is applied on all spans, and the variable load (q) of each span is
+ * solved alone with the same factorization. As the response is linear, the envelope of the moments is the
+ * permanent moment plus the positive (or the negative) moments of the variable load of each span, which is
+ * the most unfavorable arrangement of the loaded spans, for each station.
+ * Positive moments put the bottom of the section in tension (as SpanDesign), the loads act downwards.
+ */
+public class ContinuousBeam {
+
+    // Elements of each span used by default
+    private static final int DIVISIONS = 10;
+
+    private final double[] spans; // Length of each span [millimeter]
+    private final double[] EI;    // Stiffness of each span [N.mm²]
+    private final int divisions;  // Elements of each span
+
+    // Equation of each degree of freedom of the nodes: 2*node (deflection), 2*node + 1 (rotation), -1 if restrained
+    private final int[] equations;
+    private final BandedSolver solver;
+
+
+
+    /**
+     * Constructor with 10 elements in each span.
+     * @param spans double[] - Length of each span [millimeter].
+     * @param EI    double[] - Stiffness of each span [N.mm²].
+     * @param start Support  - Support at the start of the beam (SIMPLE or FIXED).
+     * @param end   Support  - Support at the end of the beam (SIMPLE or FIXED).
+     */
+    public ContinuousBeam(double[] spans, double[] EI, Support start, Support end){
+        this(spans, EI, start, end, DIVISIONS);
+    }
+
+
+
+    /**
+     * Constructor of the beam, its stiffness matrix is assembled and factored.
+     * @param spans     double[] - Length of each span [millimeter].
+     * @param EI        double[] - Stiffness of each span [N.mm²].
+     * @param start     Support  - Support at the start of the beam (SIMPLE or FIXED).
+     * @param end       Support  - Support at the end of the beam (SIMPLE or FIXED).
+     * @param divisions int      - Elements of each span (stations of the moment diagram).
+     */
+    public ContinuousBeam(double[] spans, double[] EI, Support start, Support end, int divisions){
+        if (spans.length == 0 || spans.length != EI.length) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        if (divisions <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        for (int i = 0; i < spans.length; i++) {
+            if (spans[i] <= 0 || EI[i] <= 0) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+        }
+        this.spans = spans.clone();
+        this.EI = EI.clone();
+        this.divisions = divisions;
+
+        // Restraints: deflection at the supports, rotation at the fixed ends
+        int nodes = spans.length*divisions + 1;
+        this.equations = new int[2*nodes];
+        int count = 0;
+        for (int node = 0; node < nodes; node++) {
+            boolean support = node % divisions == 0;
+            boolean fixed = (node == 0 && start == Support.FIXED) || (node == nodes - 1 && end == Support.FIXED);
+            equations[2*node] = support ? -1 : count++;
+            equations[2*node + 1] = fixed ? -1 : count++;
+        }
+
+        // Stiffness of the elements (the equations of two nodes are at most 3 apart)
+        this.solver = new BandedSolver(count, 3);
+        for (int span = 0; span < spans.length; span++) {
+            double h = spans[span]/divisions;
+            double k = EI[span]/(h*h*h);
+            double[] ke = {
+                12*k,  6*h*k,   -12*k,  6*h*k,
+                6*h*k, 4*h*h*k, -6*h*k, 2*h*h*k,
+                -12*k, -6*h*k,  12*k,   -6*h*k,
+                6*h*k, 2*h*h*k, -6*h*k, 4*h*h*k
+            };
+            for (int e = 0; e < divisions; e++) {
+                int first = 2*(span*divisions + e);
+                for (int a = 0; a < 4; a++) {
+                    int i = equations[first + a];
+                    if (i < 0) {
+                        continue;
+                    }
+                    for (int b = a; b < 4; b++) {
+                        int j = equations[first + b];
+                        if (j >= 0) {
+                            solver.add(i, j, ke[4*a + b]);
+                        }
+                    }
+                }
+            }
+        }
+        solver.factor();
+    }
+
+
+
+    /**
+     * Stiffness of the gross section of the beam, EI = Ecs*b*h³/12 (h = d + 50 mm, as the design).
+     * @param beam Beam - Section of the span.
+     * @param code Code - Defines the modulus of elasticity of the concrete (Ecs).
+     * @return double - Stiffness of the span [N.mm²].
+     */
+    public static double Stiffness(Beam beam, Code code){
+        double h = beam.getHeight() + 50;
+        return code.getParameters(beam.getFck()).getEcs()*beam.getWidth()*h*h*h/12;
+    }
+
+
+
+    /**
+     * Moments of the stations for a load on each span, with the factorization of the beam.
+     * @param loads double[] - Uniform characteristic load on each span [kN/m].
+     * @return double[] - Moment at each station of the beam [N.mm].
+     */
+    public double[] Moments(double[] loads){
+        if (loads.length != spans.length) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        double[] moments = new double[getStations()];
+        double[] f = new double[solver.size()];
+        double[] u = new double[2*(spans.length*divisions + 1)];
+        solve(loads, f, u, moments);
+        return moments;
+    }
+
+
+
+    /**
+     * Envelope of the moments with pattern loading: g on all spans, q on the spans that increase each moment.
+     * @param g double[] - Uniform permanent load on each span [kN/m].
+     * @param q double[] - Uniform variable load on each span [kN/m].
+     * @return Envelope - Maximum and minimum moments of each station.
+     */
+    public Envelope Analyze(double[] g, double[] q){
+        if (g.length != spans.length || q.length != spans.length) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        int stations = getStations();
+        Envelope envelope = new Envelope(this, stations);
+        double[] f = new double[solver.size()];
+        double[] u = new double[2*(spans.length*divisions + 1)];
+        double[] moments = new double[stations];
+
+        // Permanent load on all spans
+        solve(g, f, u, moments);
+        System.arraycopy(moments, 0, envelope.max, 0, stations);
+        System.arraycopy(moments, 0, envelope.min, 0, stations);
+
+        // Variable load of each span, added where it is unfavorable
+        double[] loads = new double[spans.length];
+        for (int span = 0; span < spans.length; span++) {
+            if (q[span] == 0) {
+                continue;
+            }
+            loads[span] = q[span];
+            solve(loads, f, u, moments);
+            loads[span] = 0;
+            for (int i = 0; i < stations; i++) {
+                if (moments[i] > 0) {
+                    envelope.max[i] += moments[i];
+                } else {
+                    envelope.min[i] += moments[i];
+                }
+            }
+        }
+        return envelope;
+    }
+
+
+
+    // Solves the beam for the loads of the spans [N/mm], and obtains the moments of the stations
+    private void solve(double[] loads, double[] f, double[] u, double[] moments){
+        Arrays.fill(f, 0);
+        // Equivalent nodal loads (upward deflection and counterclockwise rotation are positive)
+        for (int span = 0; span < spans.length; span++) {
+            double w = loads[span];
+            double h = spans[span]/divisions;
+            for (int e = 0; e < divisions; e++) {
+                int first = 2*(span*divisions + e);
+                load(f, first, -w*h/2);
+                load(f, first + 1, -w*h*h/12);
+                load(f, first + 2, -w*h/2);
+                load(f, first + 3, w*h*h/12);
+            }
+        }
+        solver.solve(f);
+        for (int dof = 0; dof < u.length; dof++) {
+            u[dof] = (equations[dof] < 0) ? 0 : f[equations[dof]];
+        }
+
+        // Moment at the start of each element, from its end forces: M(x) = V1*x - M1 - w*x²/2
+        int station = 0;
+        for (int span = 0; span < spans.length; span++) {
+            double w = loads[span];
+            double h = spans[span]/divisions;
+            double k = EI[span]/(h*h*h);
+            for (int e = 0; e < divisions; e++) {
+                int first = 2*(span*divisions + e);
+                double v1 = u[first], r1 = u[first + 1], v2 = u[first + 2], r2 = u[first + 3];
+                double V1 = k*(12*v1 + 6*h*r1 - 12*v2 + 6*h*r2) + w*h/2;
+                double M1 = k*(6*h*v1 + 4*h*h*r1 - 6*h*v2 + 2*h*h*r2) + w*h*h/12;
+                moments[station++] = -M1;
+                // End of the beam (the end of the other spans is the start of the next one)
+                if (span == spans.length - 1 && e == divisions - 1) {
+                    moments[station] = V1*h - M1 - w*h*h/2;
+                }
+            }
+        }
+    }
+
+
+    // Adds the load to the equation of the degree of freedom (restrained ones are skipped)
+    private void load(double[] f, int dof, double value){
+        if (equations[dof] >= 0) {
+            f[equations[dof]] += value;
+        }
+    }
+
+
+
+    /**
+     * Envelope of the moments along the beam, and the design of the spans.
+     */
+    public static class Envelope {
+        private final ContinuousBeam beam;
+        final double[] max; // Maximum moment of each station [N.mm]
+        final double[] min; // Minimum moment of each station [N.mm]
+
+        Envelope(ContinuousBeam beam, int stations){
+            this.beam = beam;
+            this.max = new double[stations];
+            this.min = new double[stations];
+        }
+
+        /** @return double[] return the maximum moment of each station [N.mm] */
+        public double[] getMax() {
+            return max.clone();
+        }
+
+        /** @return double[] return the minimum moment of each station [N.mm] */
+        public double[] getMin() {
+            return min.clone();
+        }
+
+        /**
+         * @param support int - Index of the support (0 at the start, the number of spans at the end).
+         * @return double return the minimum (negative) moment at the support [N.mm]
+         */
+        public double getSupportMoment(int support) {
+            return min[support*beam.divisions];
+        }
+
+        /**
+         * @param span int - Index of the span.
+         * @return double return the maximum (positive) moment along the span [N.mm]
+         */
+        public double getSpanMoment(int span) {
+            double moment = Double.NEGATIVE_INFINITY;
+            for (int i = span*beam.divisions; i <= (span + 1)*beam.divisions; i++) {
+                moment = Math.max(moment, max[i]);
+            }
+            return moment;
+        }
+
+        /**
+         * Designs the stations of each span with its section (SpanDesign), at the bottom for the maximum moments
+         * and at the top for the minimum moments.
+         * @param sections Beam[] - Section of each span.
+         * @param code     Code   - Defines the code parameters and coeficients.
+         * @return SpanDesign.Envelope[] - Reinforcement areas of the stations of each span.
+         */
+        public SpanDesign.Envelope[] Design(Beam[] sections, Code code) {
+            if (sections.length != beam.spans.length) {
+                throw new IllegalArgumentException("Input arrays must have the same length");
+            }
+            SpanDesign.Envelope[] design = new SpanDesign.Envelope[sections.length];
+            for (int span = 0; span < sections.length; span++) {
+                int from = span*beam.divisions;
+                int to = from + beam.divisions + 1;
+                design[span] = SpanDesign.Flexural(Arrays.copyOfRange(max, from, to),
+                                                   Arrays.copyOfRange(min, from, to),
+                                                   sections[span], code, sections[span].getSteel());
+            }
+            return design;
+        }
+    }
+
+
+
+    /** @return int return the number of stations along the beam (supports included) */
+    public int getStations() {
+        return spans.length*divisions + 1;
+    }
+
+    /** @return double[] return the position of each station from the start of the beam [millimeter] */
+    public double[] getPositions() {
+        double[] positions = new double[getStations()];
+        double x = 0;
+        int station = 0;
+        for (double span : spans) {
+            for (int e = 0; e < divisions; e++) {
+                positions[station++] = x + span*e/divisions;
+            }
+            x += span;
+        }
+        positions[station] = x;
+        return positions;
+    }
+
+    /** @return int return the number of spans */
+    public int getSpans() {
+        return spans.length;
+    }
+}
@@ -0,0 +1,310 @@
+package calculations;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import sections.ConcreteSection;
+import sections.Steel;
+import standards.*;
+import utils.BatchEvent;
+import utils.DesignMetrics;
+import utils.NeutralAxisSolver;
+
+/**
+ * Optional cache of flexural designs, in front of Resistance.Flexural.
+ * The designs are keyed by the type and safety coefficients of the code, b, d, fck, fyk and the quantized moment,
+ * so repeated sections (typical floors, slab strips) are designed only once.
+ *
+ * The moment is rounded to a multiple of the quantum before the design, so a hit returns exactly
+ * the design of the rounded moment. With a quantum up to safeQuantum, the tension reinforcement
+ * differs from the design of the exact moment by at most the rounding already applied to As.
+ *
+ * The entries are split in segments by the hash of the key, each one a LRU map with its own lock,
+ * so many threads can use the cache with little contention. The capacity is divided among the segments.
+ */
+public final class DesignCache {
+
+    // Pre-estabeleced position of the compression reinforcement [millimeter]
+    private static final double D2 = 50;
+
+    private final Segment[] segments;
+    private final double quantum;
+    private final NeutralAxisSolver solver;
+
+    // Statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+
+
+    /**
+     * Constructor of the cache, without quantization of the moments.
+     * @param capacity int - Maximum number of designs kept.
+     */
+    public DesignCache(int capacity){
+        this(capacity, 0, NeutralAxisSolver.DEFAULT);
+    }
+
+
+
+    /**
+     * Constructor of the cache.
+     * @param capacity int    - Maximum number of designs kept.
+     * @param quantum  double - Step of the quantization of the moments [N.mm] (0 to use the exact moments).
+     * @param solver   NeutralAxisSolver - Method and tolerance used to converge the Neutral Axis.
+     */
+    public DesignCache(int capacity, double quantum, NeutralAxisSolver solver){
+        if (capacity <= 0 || quantum < 0 || solver == null) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        // Segments in a power of 2, with at least 16 entries each
+        int count = Integer.highestOneBit(Math.max(1, Math.min(64, capacity/16)));
+        this.segments = new Segment[count];
+        int remaining = capacity;
+        for (int s = 0; s < count; s++) {
+            int size = remaining/(count - s);
+            segments[s] = new Segment(size);
+            remaining -= size;
+        }
+        this.quantum = quantum;
+        this.solver = solver;
+    }
+
+
+
+    /**
+     * Largest quantum of the moments for which the tension reinforcement changes at most the rounding of As (1 mm²).
+     * Assumes the yielded steel of the simple reinforcement (lever arm above 0.8 d) or of the compression
+     * reinforcement (lever arm d - d2). The compression reinforcement is not bounded, since it grows without limit
+     * when the neutral axis gets close to it, and neither is the jump of Resistance.Flexural where
+     * the compression reinforcement starts (Md2 > 50000 N.mm).
+     * @param d    double - Section effective height [millimeter].
+     * @param fyk  double - Steel characteristic resistance [MPa].
+     * @param code Code   - Code safety coeficients.
+     * @return double - Quantum of the moments [N.mm] (0 if the section is not higher than d2).
+     */
+    public static double safeQuantum(double d, double fyk, Code code){
+        double lever = Math.min(0.8*d, d - D2);
+        if (lever <= 0) {
+            return 0;
+        }
+        // Rounding of the moment to the nearest multiple changes it by at most quantum/2 (0.5 mm² of As)
+        double fyd = fyk/code.getGs();
+        return fyd*lever/code.getGf();
+    }
+
+
+
+    /**
+     * Flexural design of the section with the cache (same result of Resistance.Flexural for the quantized moment).
+     * @param mk      double - Characteristic bending moment applied [N.mm].
+     * @param section ConcreteSection - Section designed.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @return ArrayList - Reinforcement areas [As, As2] in mm².
+     */
+    public ArrayList<Double> Flexural(double mk, ConcreteSection section, Code code, Steel steel){
+        double[] As  = new double[1];
+        double[] As2 = new double[1];
+        Flexural(mk, section.getWidth(), section.getHeight(), section.getFck(), steel, code, As, As2, 0);
+        ArrayList<Double> reinforcementsArea = new ArrayList<Double>();
+        reinforcementsArea.add(As[0]);
+        reinforcementsArea.add(As2[0]);
+        return reinforcementsArea;
+    }
+
+
+
+    /**
+     * Flexural design of a section over primitive values, with the cache.
+     * @param mk    double - Characteristic bending moment applied [N.mm].
+     * @param b     double - Section Width [millimeter].
+     * @param d     double - Section effective height [millimeter].
+     * @param fck   double - Concrete compressive Strength [MPa].
+     * @param steel Steel  - Steel used as reinforcement.
+     * @param code  Code   - Defines the code parameters and coeficients.
+     * @param As    double[] - Output of the reinforcement area in tension [mm²], written at index i.
+     * @param As2   double[] - Output of the reinforcement area in compression [mm²], written at index i.
+     * @param i     int    - Index of the outputs where the areas are stored.
+     */
+    public void Flexural(double mk, double b, double d, double fck, Steel steel, Code code,
+                         double[] As, double[] As2, int i){
+        if (b <= 0 || d <= 0 || fck <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        double moment = (quantum > 0) ? Math.rint(mk/quantum)*quantum : mk;
+        Key key = new Key(code, b, d, fck, steel.getfyk(), moment);
+        Segment segment = segments[key.hash & (segments.length - 1)];
+
+        double[] design = segment.get(key);
+        if (design != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+            // Designed outside the lock, two threads may design the same key at once
+            double[] tension = new double[1];
+            double[] compression = new double[1];
+            NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+            Resistance.flexural(moment, b, d, fck, steel.getfyk(), steel.getEs(), steel.getesu(), code,
+                                code.getParameters(fck), solver, solution, tension, compression, 0);
+            if (event != null) {
+                DesignMetrics.endBatch(event, "DesignCache", FlexuralKernel.of(code).name(), 1, solution.getIterations());
+            }
+            design = new double[] {tension[0], compression[0]};
+            segment.put(key, design);
+        }
+        As[i] = design[0];
+        As2[i] = design[1];
+    }
+
+
+
+    /** Removes all designs of the cache (the statistics are kept). */
+    public void clear(){
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.map.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+
+    /** @return int return the number of designs kept */
+    public int size(){
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+
+    /** @return long return the number of designs found in the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+
+    /** @return long return the number of designs calculated */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+
+    /** @return long return the number of designs removed to respect the capacity */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+
+    /** @return double return the fraction of designs found in the cache */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return (total == 0) ? 0 : (double) hits/total;
+    }
+
+
+    /** @return double return the step of the quantization of the moments [N.mm] */
+    public double getQuantum() {
+        return quantum;
+    }
+
+
+
+    // LRU map of a segment of the cache
+    private final class Segment {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Key, double[]> map;
+
+        Segment(int capacity){
+            this.map = new LinkedHashMap<Key, double[]>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest){
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        double[] get(Key key){
+            lock.lock();
+            try {
+                return map.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void put(Key key, double[] design){
+            lock.lock();
+            try {
+                map.put(key, design);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+
+
+    // Key of a design: code type, safety coefficients, section, materials and moment
+    private static final class Key {
+        final Class<?> type;
+        final double gc, gs, gf, b, d, fck, fyk, mk;
+        final int hash;
+
+        Key(Code code, double b, double d, double fck, double fyk, double mk){
+            this.type = code.getClass();
+            this.gc = code.getGc();
+            this.gs = code.getGs();
+            this.gf = code.getGf();
+            this.b = b;
+            this.d = d;
+            this.fck = fck;
+            this.fyk = fyk;
+            this.mk = mk;
+            int h = type.hashCode();
+            h = 31*h + Double.hashCode(gc);
+            h = 31*h + Double.hashCode(gs);
+            h = 31*h + Double.hashCode(gf);
+            h = 31*h + Double.hashCode(b);
+            h = 31*h + Double.hashCode(d);
+            h = 31*h + Double.hashCode(fck);
+            h = 31*h + Double.hashCode(fyk);
+            h = 31*h + Double.hashCode(mk);
+            this.hash = h ^ (h >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object object){
+            if (!(object instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) object;
+            return type == other.type && gc == other.gc && gs == other.gs && gf == other.gf && b == other.b
+                && d == other.d && fck == other.fck && fyk == other.fyk && mk == other.mk;
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,653 @@
+package calculations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+import sections.ConcreteSection;
+import sections.Steel;
+import standards.Code;
+import utils.NeutralAxisSolver;
+
+/**
+ * Persistent store of flexural designs, kept in a memory-mapped file between runs.
+ * A design found in the store costs the read of a record (from the page cache), instead of a new design.
+ *
+ * The file is a hash table of fixed-width records with open addressing (linear probing):
+ *   header [64 bytes]: magic, format, record size, stamp, slots, count, run, open;
+ *   record [104 bytes]: state, code, gc, gs, gf, b, d, fck, fyk, mk, As, As2, run of the last use.
+ * The state of a record is 0 (empty), LOCKED (being written) or the hash of its key. A record is claimed
+ * with a compare-and-set of its state, written, and published with a release store of the hash, so many threads
+ * can look up and append at the same time without locks. The records are never changed after published,
+ * and the whole key is compared, so a collision of the hashes never returns the design of another key.
+ * The file is used by one store at a time: the store holds an exclusive lock of the header (FileChannel.tryLock)
+ * until it is closed, and a file locked by another store (of this or another process) is refused with an IOException.
+ * The header is also marked open until the store is closed: a store found open with the lock acquired was not closed
+ * (the process stopped), and it is recovered. The records left LOCKED by its writers are released and the designs are
+ * counted again, so no lookup waits for a writer that does not exist anymore.
+ *
+ * The stamp of the file identifies the version of the calculations (stamp): a store of another version (or format)
+ * is discarded when opened, so designs of an older calculation are never reused. A file that is not a store
+ * (another magic) is never discarded, it is refused with an IOException. The code of each record is identified
+ * by the class of the code and of its FlexuralKernel, and the designs use the default solver.
+ * The table is not resized: when 3/4 of the slots are used, new designs are not stored anymore (getRejected),
+ * and the store is rebuilt with more slots by compact (cli.CompactStore), which also removes the designs
+ * not used in the last runs. The file is limited to 2 GB (about 20 million designs).
+ */
+public final class DesignStore implements AutoCloseable {
+
+    // Version of the calculations: changed whenever a change of the library changes any design
+    public static final long CALCULATION = 1;
+
+    // Version of the library (META-INF/library.properties, written by the build), null when not packaged
+    private static final String VERSION = version();
+
+    // Layout of the file
+    private static final long MAGIC = 0x45524f5453445342L; // "BSDSTORE"
+    private static final int FORMAT = 2;
+    private static final int HEADER = 64;
+    private static final int RECORD = 104;
+
+    // Offsets of the header
+    private static final int H_MAGIC = 0, H_FORMAT = 8, H_RECORD = 12, H_STAMP = 16, H_SLOTS = 24, H_COUNT = 32, H_RUN = 40;
+    private static final int H_OPEN = 44;
+
+    // Offsets of the records
+    private static final int R_STATE = 0, R_CODE = 8, R_GC = 16, R_GS = 24, R_GF = 32, R_B = 40, R_D = 48;
+    private static final int R_FCK = 56, R_FYK = 64, R_MK = 72, R_AS = 80, R_AS2 = 88, R_RUN = 96;
+
+    // States of a record
+    private static final long EMPTY = 0;
+    private static final long LOCKED = Long.MIN_VALUE;
+
+    // Views of the mapped file (little endian, atomic on the aligned positions)
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle DOUBLE = MethodHandles.byteBufferViewVarHandle(double[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final long limit;
+    private final int run;
+
+    // Statistics of this run
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+
+
+    private DesignStore(Path file, FileChannel channel, MappedByteBuffer buffer, int slots, int run){
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.slots = slots;
+        this.limit = slots/4L*3;
+        this.run = run;
+    }
+
+
+
+    /**
+     * Opens the store of the file, or creates it. A store of another version of the calculations is discarded.
+     * @param file     Path - File of the store (empty, or a store: other files are refused with an IOException).
+     * @param capacity int  - Number of designs of a new store (an existing store keeps its own capacity).
+     * @return DesignStore - Store opened, that must be closed after the run.
+     */
+    public static DesignStore open(Path file, int capacity) throws IOException {
+        return open(file, capacity, true);
+    }
+
+
+    // Opens the store, starting a new run or not (compaction)
+    private static DesignStore open(Path file, int capacity, boolean start) throws IOException {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        return open(file, locked(file), capacity, start);
+    }
+
+
+    // Opens the store in the channel, already locked (closed when the store is not opened)
+    private static DesignStore open(Path file, FileChannel channel, int capacity, boolean start) throws IOException {
+        try {
+            if (foreign(channel)) {
+                throw new IOException("The file is not a design store: " + file);
+            }
+            int slots = 0;
+            int run = 0;
+            boolean recover = false;
+            if (channel.size() >= HEADER) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER);
+                long existing = (long) LONG.get(header, H_SLOTS);
+                if ((int) INT.get(header, H_FORMAT) == FORMAT && (int) INT.get(header, H_RECORD) == RECORD
+                    && (long) LONG.get(header, H_STAMP) == stamp(VERSION)
+                    && existing > 0 && Long.bitCount(existing) == 1 && channel.size() == size(existing)) {
+                    slots = (int) existing;
+                    run = (int) INT.get(header, H_RUN) + (start ? 1 : 0);
+                    // Open with the lock acquired: the store that opened it stopped without closing it
+                    recover = (int) INT.get(header, H_OPEN) != 0;
+                }
+            }
+            if (slots == 0) {
+                // New store, or a store of another version of the calculations (or format)
+                slots = slots(capacity);
+                channel.truncate(0);
+                MappedByteBuffer created = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(slots));
+                LONG.set(created, H_MAGIC, MAGIC);
+                INT.set(created, H_FORMAT, FORMAT);
+                INT.set(created, H_RECORD, RECORD);
+                LONG.set(created, H_STAMP, stamp(VERSION));
+                LONG.set(created, H_SLOTS, (long) slots);
+                LONG.set(created, H_COUNT, 0L);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size(slots));
+            if (recover) {
+                recover(buffer, slots);
+            }
+            INT.setVolatile(buffer, H_RUN, run);
+            INT.setVolatile(buffer, H_OPEN, 1);
+            return new DesignStore(file, channel, buffer, slots, run);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+
+    // Opens the file with the exclusive lock of its header, held until the channel is closed
+    private static FileChannel locked(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock(0, HEADER, false);
+        } catch (OverlappingFileLockException e) {
+            lock = null; // Held by another store of this process
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IOException("The design store is in use by another store or process: " + file);
+        }
+        return channel;
+    }
+
+
+    // The file is not empty and is not a store (another magic)
+    private static boolean foreign(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return false;
+        }
+        if (channel.size() < H_FORMAT) {
+            return true;
+        }
+        MappedByteBuffer magic = channel.map(FileChannel.MapMode.READ_ONLY, 0, H_FORMAT);
+        return (long) LONG.get(magic, H_MAGIC) != MAGIC;
+    }
+
+
+    // Releases the records left LOCKED by a store not closed, and counts the designs again
+    private static void recover(MappedByteBuffer buffer, int slots){
+        long count = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = HEADER + slot*RECORD;
+            long state = (long) LONG.get(buffer, offset + R_STATE);
+            if (state == LOCKED) {
+                // No record was probed past it: the lookups waited for it to be published
+                LONG.set(buffer, offset + R_STATE, EMPTY);
+            } else if (state != EMPTY) {
+                count++;
+            }
+        }
+        LONG.set(buffer, H_COUNT, count);
+    }
+
+
+
+    /**
+     * Stamp of the version of the calculations: CALCULATION, the format of the file, the default solver
+     * and the version of the library (written by the build).
+     * @return long - Stamp written in the stores.
+     */
+    public static long stamp(){
+        return stamp(VERSION);
+    }
+
+
+    // Stamp for the version of the library (null when unknown)
+    static long stamp(String version){
+        long h = mix(CALCULATION);
+        h = mix(h ^ FORMAT);
+        h = mix(h ^ NeutralAxisSolver.DEFAULT.getMethod().ordinal());
+        h = mix(h ^ Double.doubleToLongBits(NeutralAxisSolver.DEFAULT.getTolerance()));
+        h = mix(h ^ ((version == null) ? 0 : version.hashCode()));
+        return h;
+    }
+
+
+
+    /** @return String return the version of the library in the stamp (null when not built by Maven) */
+    public static String getVersion(){
+        return VERSION;
+    }
+
+
+    // Version of the library: the resource written by the build, or the manifest of the jar
+    private static String version(){
+        try (InputStream in = DesignStore.class.getResourceAsStream("/META-INF/library.properties")) {
+            if (in != null) {
+                Properties properties = new Properties();
+                properties.load(in);
+                String version = properties.getProperty("version");
+                if (version != null && !version.startsWith("${")) {
+                    return version;
+                }
+            }
+        } catch (IOException e) {
+            // The manifest is used instead
+        }
+        return DesignStore.class.getPackage().getImplementationVersion();
+    }
+
+
+
+    /**
+     * Flexural design of the section with the store (same result of Resistance.Flexural).
+     * @param mk      double - Characteristic bending moment applied [N.mm].
+     * @param section ConcreteSection - Section designed.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @return ArrayList - Reinforcement areas [As, As2] in mm².
+     */
+    public ArrayList<Double> Flexural(double mk, ConcreteSection section, Code code, Steel steel){
+        double[] As  = new double[1];
+        double[] As2 = new double[1];
+        Flexural(mk, section.getWidth(), section.getHeight(), section.getFck(), steel, code, As, As2, 0);
+        ArrayList<Double> reinforcementsArea = new ArrayList<Double>();
+        reinforcementsArea.add(As[0]);
+        reinforcementsArea.add(As2[0]);
+        return reinforcementsArea;
+    }
+
+
+
+    /**
+     * Flexural design of a section over primitive values, with the store.
+     * @param mk    double - Characteristic bending moment applied [N.mm].
+     * @param b     double - Section Width [millimeter].
+     * @param d     double - Section effective height [millimeter].
+     * @param fck   double - Concrete compressive Strength [MPa].
+     * @param steel Steel  - Steel used as reinforcement.
+     * @param code  Code   - Defines the code parameters and coeficients.
+     * @param As    double[] - Output of the reinforcement area in tension [mm²], written at index i.
+     * @param As2   double[] - Output of the reinforcement area in compression [mm²], written at index i.
+     * @param i     int    - Index of the outputs where the areas are stored.
+     */
+    public void Flexural(double mk, double b, double d, double fck, Steel steel, Code code,
+                         double[] As, double[] As2, int i){
+        if (b <= 0 || d <= 0 || fck <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        long type = type(code);
+        if (get(type, code, b, d, fck, steel.getfyk(), mk, As, As2, i)) {
+            hits.increment();
+            return;
+        }
+        misses.increment();
+        Resistance.flexural(mk, b, d, fck, steel.getfyk(), steel.getEs(), steel.getesu(), code, FlexuralKernel.of(code),
+                            code.getParameters(fck), NeutralAxisSolver.DEFAULT, Double.NaN,
+                            new NeutralAxisSolver.Solution(), As, As2, i);
+        put(type, code, b, d, fck, steel.getfyk(), mk, As[i], As2[i]);
+    }
+
+
+
+    /**
+     * Designs all the sections with the store, as BatchResistance.Flexural:
+     * the designs found are read, and only the others are designed (and stored).
+     * @param code Code     - Defines the code parameters and coeficients (NBR 6118 or Eurocode 2).
+     * @param mk   double[] - Characteristic bending moment applied in each section [N.mm].
+     * @param b    double[] - Width of each section [millimeter].
+     * @param d    double[] - Effective height of each section [millimeter].
+     * @param fck  double[] - Concrete compressive strength of each section [MPa].
+     * @param fyk  double[] - Steel characteristic resistance of each section [MPa].
+     * @param As   double[] - Output: area of steel reinforcement in tension [mm²].
+     * @param As2  double[] - Output: area of steel reinforcement in compression [mm²].
+     */
+    public void Flexural(Code code, double[] mk, double[] b, double[] d, double[] fck, double[] fyk,
+                         double[] As, double[] As2){
+        int size = mk.length;
+        if (b.length != size || d.length != size || fck.length != size || fyk.length != size
+            || As.length < size || As2.length < size) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        long type = type(code);
+        int[] missing = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (get(type, code, b[i], d[i], fck[i], fyk[i], mk[i], As, As2, i)) {
+                hits.increment();
+            } else {
+                missing[count++] = i;
+            }
+        }
+        misses.add(count);
+        if (count == 0) {
+            return;
+        }
+        double[] mkMissing = new double[count], bMissing = new double[count], dMissing = new double[count];
+        double[] fckMissing = new double[count], fykMissing = new double[count];
+        for (int j = 0; j < count; j++) {
+            int i = missing[j];
+            mkMissing[j] = mk[i]; bMissing[j] = b[i]; dMissing[j] = d[i]; fckMissing[j] = fck[i]; fykMissing[j] = fyk[i];
+        }
+        double[] AsMissing = new double[count], As2Missing = new double[count];
+        BatchResistance.Flexural(code, mkMissing, bMissing, dMissing, fckMissing, fykMissing, AsMissing, As2Missing);
+        for (int j = 0; j < count; j++) {
+            int i = missing[j];
+            As[i] = AsMissing[j];
+            As2[i] = As2Missing[j];
+            put(type, code, b[i], d[i], fck[i], fyk[i], mk[i], As[i], As2[i]);
+        }
+    }
+
+
+
+    // Reads the design of the key, returns false when it is not stored
+    private boolean get(long type, Code code, double b, double d, double fck, double fyk, double mk,
+                        double[] As, double[] As2, int i){
+        double gc = code.getGc(), gs = code.getGs(), gf = code.getGf();
+        long hash = hash(type, gc, gs, gf, b, d, fck, fyk, mk);
+        int mask = slots - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        for (int probe = 0; probe < slots; probe++, slot = (slot + 1) & mask) {
+            int offset = HEADER + slot*RECORD;
+            long state = published(offset);
+            if (state == EMPTY) {
+                return false;
+            }
+            if (state == hash && matches(offset, type, gc, gs, gf, b, d, fck, fyk, mk)) {
+                As[i] = (double) DOUBLE.get(buffer, offset + R_AS);
+                As2[i] = (double) DOUBLE.get(buffer, offset + R_AS2);
+                // The run of the last use is only written once per run, the pages of the hits are usually only read
+                if ((int) INT.get(buffer, offset + R_RUN) != run) {
+                    INT.set(buffer, offset + R_RUN, run);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+    // Appends the design of the key, returns false when the store is full
+    private boolean put(long type, Code code, double b, double d, double fck, double fyk, double mk,
+                        double As, double As2){
+        double gc = code.getGc(), gs = code.getGs(), gf = code.getGf();
+        long hash = hash(type, gc, gs, gf, b, d, fck, fyk, mk);
+        int mask = slots - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        for (int probe = 0; probe < slots; probe++, slot = (slot + 1) & mask) {
+            int offset = HEADER + slot*RECORD;
+            long state = published(offset);
+            if (state == EMPTY) {
+                if ((long) LONG.getVolatile(buffer, H_COUNT) >= limit) {
+                    rejected.increment();
+                    return false;
+                }
+                if (!LONG.compareAndSet(buffer, offset + R_STATE, EMPTY, LOCKED)) {
+                    // Claimed by another thread, checked again
+                    slot = (slot - 1) & mask;
+                    probe--;
+                    continue;
+                }
+                LONG.getAndAdd(buffer, H_COUNT, 1L);
+                LONG.set(buffer, offset + R_CODE, type);
+                DOUBLE.set(buffer, offset + R_GC, gc);
+                DOUBLE.set(buffer, offset + R_GS, gs);
+                DOUBLE.set(buffer, offset + R_GF, gf);
+                DOUBLE.set(buffer, offset + R_B, b);
+                DOUBLE.set(buffer, offset + R_D, d);
+                DOUBLE.set(buffer, offset + R_FCK, fck);
+                DOUBLE.set(buffer, offset + R_FYK, fyk);
+                DOUBLE.set(buffer, offset + R_MK, mk);
+                DOUBLE.set(buffer, offset + R_AS, As);
+                DOUBLE.set(buffer, offset + R_AS2, As2);
+                INT.set(buffer, offset + R_RUN, run);
+                LONG.setRelease(buffer, offset + R_STATE, hash);
+                return true;
+            }
+            if (state == hash && matches(offset, type, gc, gs, gf, b, d, fck, fyk, mk)) {
+                // Stored by another thread
+                return true;
+            }
+        }
+        rejected.increment();
+        return false;
+    }
+
+
+
+    // State of the record, waiting while another thread writes it
+    private long published(int offset){
+        long state = (long) LONG.getAcquire(buffer, offset + R_STATE);
+        while (state == LOCKED) {
+            Thread.onSpinWait();
+            state = (long) LONG.getAcquire(buffer, offset + R_STATE);
+        }
+        return state;
+    }
+
+
+    // Compares the key of the record
+    private boolean matches(int offset, long type, double gc, double gs, double gf, double b, double d,
+                            double fck, double fyk, double mk){
+        return (long) LONG.get(buffer, offset + R_CODE) == type
+            && (double) DOUBLE.get(buffer, offset + R_MK) == mk
+            && (double) DOUBLE.get(buffer, offset + R_B) == b
+            && (double) DOUBLE.get(buffer, offset + R_D) == d
+            && (double) DOUBLE.get(buffer, offset + R_FCK) == fck
+            && (double) DOUBLE.get(buffer, offset + R_FYK) == fyk
+            && (double) DOUBLE.get(buffer, offset + R_GC) == gc
+            && (double) DOUBLE.get(buffer, offset + R_GS) == gs
+            && (double) DOUBLE.get(buffer, offset + R_GF) == gf;
+    }
+
+
+
+    /**
+     * Rebuilds a store in a new file, with the designs used in the last runs.
+     * @param source   Path - File of the store (refused with an IOException while it is in use).
+     * @param target   Path - New file of the store (a store is replaced if it exists, other files are refused,
+     *                        both while it is in use).
+     * @param capacity int  - Number of designs of the new store (0 for twice the designs kept).
+     * @param keepRuns int  - Runs in which a design must have been used to be kept (0 keeps all the designs).
+     * @return long - Number of designs kept.
+     */
+    public static long compact(Path source, Path target, int capacity, int keepRuns) throws IOException {
+        if (capacity < 0 || keepRuns < 0) {
+            throw new IllegalArgumentException("Input values must be >= 0");
+        }
+        if (!Files.exists(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+        if (Files.exists(target) && Files.isSameFile(source, target)) {
+            throw new IllegalArgumentException("The target of the compaction must be another file");
+        }
+        // Opened without a new run, to validate the stamp (a store of another version is empty)
+        try (DesignStore from = open(source, 1, false)) {
+            int oldest = (keepRuns == 0) ? Integer.MIN_VALUE : from.run - keepRuns + 1;
+            ArrayList<Integer> kept = new ArrayList<>();
+            for (int slot = 0; slot < from.slots; slot++) {
+                int offset = HEADER + slot*RECORD;
+                long state = (long) LONG.getAcquire(from.buffer, offset + R_STATE);
+                if (state != EMPTY && state != LOCKED && (int) INT.get(from.buffer, offset + R_RUN) >= oldest) {
+                    kept.add(offset);
+                }
+            }
+            int size = (capacity > 0) ? capacity : Math.max(2*kept.size(), 1024);
+            if (size < kept.size()) {
+                throw new IllegalArgumentException("The capacity is lower than the " + kept.size() + " designs kept");
+            }
+            // The target is locked before it is emptied, a store in use is never replaced
+            FileChannel channel = locked(target);
+            try {
+                if (foreign(channel)) {
+                    throw new IOException("The target is not a design store: " + target);
+                }
+                channel.truncate(0);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            try (DesignStore to = open(target, channel, size, false)) {
+                INT.setVolatile(to.buffer, H_RUN, from.run);
+                for (int offset : kept) {
+                    to.copy(from.buffer, offset);
+                }
+                to.buffer.force();
+            }
+            return kept.size();
+        }
+    }
+
+
+    // Copies a record of another store, with its run
+    private void copy(MappedByteBuffer from, int source){
+        long hash = (long) LONG.get(from, source + R_STATE);
+        int mask = slots - 1;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        int offset = HEADER + slot*RECORD;
+        while ((long) LONG.get(buffer, offset + R_STATE) != EMPTY) {
+            slot = (slot + 1) & mask;
+            offset = HEADER + slot*RECORD;
+        }
+        for (int field = R_CODE; field < RECORD; field += 8) {
+            LONG.set(buffer, offset + field, (long) LONG.get(from, source + field));
+        }
+        LONG.set(buffer, offset + R_STATE, hash);
+        LONG.getAndAdd(buffer, H_COUNT, 1L);
+    }
+
+
+
+    /** Writes the changes of the store to the file. */
+    public void force(){
+        buffer.force();
+    }
+
+
+    /** Writes the changes and closes the file (the mapping is released by the garbage collector). */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        INT.setVolatile(buffer, H_OPEN, 0);
+        buffer.force();
+        channel.close();
+    }
+
+
+    /** @return Path return the file of the store */
+    public Path getFile() {
+        return file;
+    }
+
+    /** @return long return the number of designs stored */
+    public long size() {
+        return (long) LONG.getVolatile(buffer, H_COUNT);
+    }
+
+    /** @return long return the maximum number of designs stored (3/4 of the slots) */
+    public long getCapacity() {
+        return limit;
+    }
+
+    /** @return int return the number of the run, incremented each time the store is opened */
+    public int getRun() {
+        return run;
+    }
+
+    /** @return long return the number of designs found in the store in this run */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** @return long return the number of designs calculated in this run */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** @return long return the number of designs not stored because the store is full */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+
+
+    // Slots of a new store: power of 2 with the capacity at 3/4 of the slots
+    private static int slots(int capacity){
+        long needed = Math.max(16, (capacity*4L + 2)/3);
+        long slots = Long.highestOneBit(needed - 1) << 1;
+        if (size(slots) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The capacity exceeds the limit of 2 GB of the file");
+        }
+        return (int) slots;
+    }
+
+
+    // Size of the file [bytes]
+    private static long size(long slots){
+        return HEADER + slots*RECORD;
+    }
+
+
+    // Identifier of the code: its class and the class of its kernel
+    private static long type(Code code){
+        long h = mix(code.getClass().getName().hashCode());
+        return mix(h ^ FlexuralKernel.of(code).getClass().getName().hashCode());
+    }
+
+
+    // Hash of the key, never EMPTY or LOCKED
+    private static long hash(long type, double gc, double gs, double gf, double b, double d,
+                             double fck, double fyk, double mk){
+        long h = mix(type);
+        h = mix(h ^ Double.doubleToLongBits(gc));
+        h = mix(h ^ Double.doubleToLongBits(gs));
+        h = mix(h ^ Double.doubleToLongBits(gf));
+        h = mix(h ^ Double.doubleToLongBits(b));
+        h = mix(h ^ Double.doubleToLongBits(d));
+        h = mix(h ^ Double.doubleToLongBits(fck));
+        h = mix(h ^ Double.doubleToLongBits(fyk));
+        h = mix(h ^ Double.doubleToLongBits(mk));
+        return (h == EMPTY || h == LOCKED) ? 1 : h;
+    }
+
+
+    // Finalizer of SplitMix64
+    private static long mix(long z){
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,361 @@
+package calculations;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import enums.GRADES;
+import sections.Steel;
+import standards.*;
+import utils.BatchEvent;
+import utils.DesignMetrics;
+
+/**
+ * Dimensionless design table of a concrete class and steel grade, for a Code.
+ * The design of a rectangular section depends only on mu = Md/(b*d²*fcd), so the curve
+ * mu -> neutral axis ratio (x/d), lever arm (z/d) and concrete strain is built once,
+ * and each design is then obtained by interpolation instead of converging the neutral axis.
+ *
+ * The nodes are uniform in sqrt(mu/muLim), since x/d grows with sqrt(mu) for small moments (NBR 6118),
+ * in two ranges split at the change of domain 2 to 3 (ec = ecu), where the curves have a kink.
+ * The table is refined until the interpolation error, sampled at the quarters of all cells, is below the tolerance
+ * (up to MAX_CELLS). The error is sampled, not a bound: isWithinTolerance tells if the tolerance was met,
+ * and getSampledError gives the largest error found.
+ */
+public final class DesignTable {
+
+    // Tables already built, keyed by code, safety coefficients, concrete and steel
+    private static final ConcurrentHashMap<String, DesignTable> TABLES = new ConcurrentHashMap<>();
+
+    // Reference steel used for the properties that do not depend on the grade (Es and esu)
+    private static final Steel REFERENCE = new Steel(GRADES.Grade.CA50);
+
+    // Maximum error admitted for the neutral axis ratio and lever arm ratio (sampled)
+    private static final double TOLERANCE = 1.0e-6;
+    private static final int MAX_CELLS = 1 << 16;
+
+    // Pre-estabeleced position of the compression reinforcement [millimeter]
+    private static final double D2 = 50;
+
+    // Kernel of the code, with its diagram of the concrete
+    private final FlexuralKernel kernel;
+
+    // Name of the code of the table, recorded by the metrics
+    private final String name;
+
+    // Material and code values captured when the table is built
+    private final double fcd;
+    private final double fyd;
+    private final double gf;
+    private final double Es;
+    private final double esu;
+    private final double ecu;
+
+    // Limit of the simple reinforcement: neutral axis ratio and mu
+    private final double xiLim;
+    private final double muLim;
+
+    // Change of domain 2 to 3, in sqrt(mu/muLim)
+    private final double s23;
+
+    // Tables with the values at each node (uniform in sqrt(mu/muLim) in each range)
+    private final int cells; // Cells of each range
+    private final double[] xi;   // Neutral axis ratio x/d
+    private final double[] zeta; // Lever arm ratio z/d
+    private final double[] ec;   // Strain of the concrete at the top
+
+    // Maximum interpolation error of x/d and z/d, sampled at the quarters of the cells
+    private final double sampledError;
+
+
+
+    // Builds the table, refining the nodes until the tolerance is reached
+    private DesignTable(Code code, GRADES.Concrete concrete, GRADES.Grade grade){
+        CodeParameters parameters = code.getParameters(concrete.getFck());
+        this.kernel = FlexuralKernel.of(code);
+        this.name = kernel.name();
+        this.fcd = concrete.getFck() / code.getGc();
+        this.fyd = grade.getFyk() / code.getGs();
+        this.gf  = code.getGf();
+        this.Es  = REFERENCE.getEs();
+        this.esu = REFERENCE.getesu();
+        this.ecu = parameters.getecu();
+        this.xiLim = Math.min(parameters.getLN(), 1);
+
+        double[] node = new double[3];
+        double[] block = new double[2];
+        section(xiLim, parameters, node, block);
+        this.muLim = node[0];
+        section(Math.min(ecu/(ecu + esu), xiLim), parameters, node, block);
+        this.s23 = Math.sqrt(node[0]/muLim);
+
+        int cells = 32;
+        double[] xi, zeta, ec;
+        double error;
+        while (true) {
+            xi = new double[2*cells + 1];
+            zeta = new double[2*cells + 1];
+            ec = new double[2*cells + 1];
+            for (int j = 0; j <= 2*cells; j++) {
+                double s = nodePosition(j, cells);
+                solve(s*s*muLim, parameters, node, block);
+                xi[j] = node[0];
+                zeta[j] = node[1];
+                ec[j] = node[2];
+            }
+            // Error measured at the middle and quarters of each cell
+            error = 0;
+            for (int j = 0; j < 2*cells; j++) {
+                for (int q = 1; q <= 3; q++) {
+                    double t = q/4.0;
+                    double s = nodePosition(j, cells) + t*(nodePosition(j + 1, cells) - nodePosition(j, cells));
+                    solve(s*s*muLim, parameters, node, block);
+                    error = Math.max(error, Math.abs(xi[j] + t*(xi[j+1] - xi[j]) - node[0]));
+                    error = Math.max(error, Math.abs(zeta[j] + t*(zeta[j+1] - zeta[j]) - node[1]));
+                }
+            }
+            if (error <= TOLERANCE || cells >= MAX_CELLS) {
+                break;
+            }
+            cells *= 2;
+        }
+        this.cells = cells;
+        this.xi = xi;
+        this.zeta = zeta;
+        this.ec = ec;
+        this.sampledError = error;
+    }
+
+
+
+    /**
+     * Obtains the (shared) design table, building it in the first use.
+     * The safety coefficients of the code are captured when the table is built.
+     * @param code     Code - Defines the code parameters and coeficients.
+     * @param concrete GRADES.Concrete - Class of the concrete.
+     * @param grade    GRADES.Grade - Grade of the steel.
+     * @return DesignTable - Table of the concrete and steel for the code.
+     */
+    public static DesignTable of(Code code, GRADES.Concrete concrete, GRADES.Grade grade){
+        String key = code.getClass().getName() + ":" + code.getGc() + ":" + code.getGs() + ":" + code.getGf()
+                   + ":" + concrete + ":" + grade;
+        return TABLES.computeIfAbsent(key, k -> new DesignTable(code, concrete, grade));
+    }
+
+
+
+    // Position sqrt(mu/muLim) of the node j, with the given cells in each range
+    private double nodePosition(int j, int cells){
+        if (j <= cells) {
+            return s23*j/cells;
+        }
+        return s23 + (1 - s23)*(j - cells)/cells;
+    }
+
+
+
+    // Position of mu in the table: index of the cell + fraction inside the cell
+    private double position(double mu){
+        double s = Math.sqrt(Math.max(mu, 0)/muLim);
+        if (s < s23) {
+            return s/s23*cells;
+        }
+        return cells + (s - s23)/(1 - s23)*cells;
+    }
+
+
+
+    // Dimensionless section for the neutral axis ratio (b = d = fcd = 1): [mu, z/d, ec]
+    private void section(double ratio, CodeParameters parameters, double[] node, double[] block){
+        double strain = Math.min(esu*ratio/(1-ratio), ecu);
+        double force = kernel.concrete(ratio, strain, 1, 1, parameters, block);
+        double lever = 1 - block[1];
+        node[0] = force*lever;
+        node[1] = lever;
+        node[2] = strain;
+    }
+
+
+
+    // Neutral axis ratio for mu (bisection to the precision of the doubles): [x/d, z/d, ec]
+    private void solve(double mu, CodeParameters parameters, double[] node, double[] block){
+        // Limit without moment (avoids the evaluation of the diagram for a null strain)
+        if (mu <= 0) {
+            node[0] = 0;
+            node[1] = 1;
+            node[2] = 0;
+            return;
+        }
+        double xi = 0;
+        double xf = xiLim;
+        double ratio = 0;
+        while (xf - xi > 1e-14) {
+            ratio = (xi + xf)/2;
+            section(ratio, parameters, node, block);
+            if (node[0] > mu) {
+                xf = ratio;
+            } else {
+                xi = ratio;
+            }
+        }
+        ratio = (xi + xf)/2;
+        section(ratio, parameters, node, block);
+        node[0] = ratio;
+    }
+
+
+
+    /**
+     * Designs a section with the table, with the same routine of Resistance.Flexural.
+     * @param mk  double - Characteristic bending moment applied [N.mm].
+     * @param b   double - Section Width [millimeter].
+     * @param d   double - Section effective height [millimeter].
+     * @param As  double[] - Output of the reinforcement area in tension [mm²], written at index i.
+     * @param As2 double[] - Output of the reinforcement area in compression [mm²], written at index i.
+     * @param i   int    - Index of the outputs where the areas are stored.
+     */
+    public void Flexural(double mk, double b, double d, double[] As, double[] As2, int i){
+        BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+        design(mk, b, d, As, As2, i);
+        if (event != null) {
+            DesignMetrics.endBatch(event, "DesignTable", name, 1, 0);
+        }
+    }
+
+
+
+    // Interpolation of the design of a single section
+    private void design(double mk, double b, double d, double[] As, double[] As2, int i){
+        double Msd = mk * gf;
+        double mu = Msd/(b*d*d*fcd);
+
+        // Interpolation of the table (or the limit of the simple reinforcement)
+        double xk, lever, strain;
+        if (mu >= muLim) {
+            xk = xi[2*cells]; lever = zeta[2*cells]; strain = ec[2*cells];
+        } else {
+            double position = position(mu);
+            int j = Math.min((int) position, 2*cells - 1);
+            double t = position - j;
+            xk = xi[j] + t*(xi[j+1] - xi[j]);
+            lever = zeta[j] + t*(zeta[j+1] - zeta[j]);
+            strain = ec[j] + t*(ec[j+1] - ec[j]);
+        }
+        double Md = Math.min(mu, muLim)*b*d*d*fcd;
+        xk = xk*d;
+
+        // Obtain Reinforcements Strains and Stress
+        double es = strain*d/xk - strain;
+        double es2 = strain*(xk - D2)/xk;
+        double fs = Math.min(fyd, Es*es);
+        double fs2 = Math.min(fyd, Es*es2);
+
+        double Md2 = Msd - Md;
+        // Avoid numerical errors
+        if (Md2 <= 50000){
+            Md2 = 0;
+        }
+
+        // Obtain reinforcements area
+        double as2 = Md2/(fs2*(d-D2));
+        double as  = Md/(fs*lever*d) + Md2/(fs*(d-D2));
+
+        // Round value to avoid Numerical Computacional errors
+        As[i]  = Math.round(as*10000)/10000;
+        As2[i] = Math.round(as2*10000)/10000;
+    }
+
+
+
+    /**
+     * Designs all the sections with the table.
+     * @param mk  double[] - Characteristic bending moment applied in each section [N.mm].
+     * @param b   double[] - Width of each section [millimeter].
+     * @param d   double[] - Effective height of each section [millimeter].
+     * @param As  double[] - Output: area of steel reinforcement in tension [mm²].
+     * @param As2 double[] - Output: area of steel reinforcement in compression [mm²].
+     */
+    public void Flexural(double[] mk, double[] b, double[] d, double[] As, double[] As2){
+        int size = mk.length;
+        if (b.length != size || d.length != size || As.length < size || As2.length < size) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+        for (int i = 0; i < size; i++) {
+            design(mk[i], b[i], d[i], As, As2, i);
+        }
+        if (event != null) {
+            DesignMetrics.endBatch(event, "DesignTable", name, size, 0);
+        }
+    }
+
+
+
+    /**
+     * Obtains the neutral axis ratio x/d for mu (limited to the simple reinforcement).
+     * @param mu double - Reduced moment Md/(b*d²*fcd).
+     * @return double - Neutral axis ratio x/d.
+     */
+    public double getNeutralAxis(double mu){
+        return interpolate(xi, mu);
+    }
+
+
+    /**
+     * Obtains the lever arm ratio z/d for mu (limited to the simple reinforcement).
+     * @param mu double - Reduced moment Md/(b*d²*fcd).
+     * @return double - Lever arm ratio z/d.
+     */
+    public double getLeverArm(double mu){
+        return interpolate(zeta, mu);
+    }
+
+
+    /**
+     * Obtains the strain of the steel in tension for mu (limited to the simple reinforcement).
+     * @param mu double - Reduced moment Md/(b*d²*fcd).
+     * @return double - Strain of the steel reinforcement under tension.
+     */
+    public double getSteelStrain(double mu){
+        double ratio = interpolate(xi, mu);
+        // Without moment the neutral axis tends to the top, in the domain 2 (steel at esu)
+        if (ratio <= 0) {
+            return esu;
+        }
+        return interpolate(ec, mu)*(1 - ratio)/ratio;
+    }
+
+
+    // Linear interpolation in the nodes of the table
+    private double interpolate(double[] table, double mu){
+        if (mu >= muLim) {
+            return table[2*cells];
+        }
+        double position = position(mu);
+        int j = Math.min((int) position, 2*cells - 1);
+        double t = position - j;
+        return table[j] + t*(table[j+1] - table[j]);
+    }
+
+
+    /** @return double return the mu from which compression reinforcement is needed */
+    public double getMuLimit() {
+        return muLim;
+    }
+
+
+    /** @return double return the maximum interpolation error of x/d and z/d, sampled at the quarters of the cells */
+    public double getSampledError() {
+        return sampledError;
+    }
+
+
+    /** @return boolean return true if the sampled error is below the tolerance (false if the refinement stopped at MAX_CELLS) */
+    public boolean isWithinTolerance() {
+        return sampledError <= TOLERANCE;
+    }
+
+
+    /** @return int return the number of cells of the table */
+    public int getCells() {
+        return 2*cells;
+    }
+}
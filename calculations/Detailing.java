@@ -0,0 +1,393 @@
+package calculations;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import enums.BARS;
+import sections.Beam;
+import standards.Code;
+import standards.CodeParameters;
+import utils.NeutralAxisSolver;
+
+/**
+ * Detailing of the reinforcement of beams: turns the areas of the design (As, As2) into bars,
+ * with the cheapest arrangement (diameter x number of bars x layers) that respects the cover
+ * and the clear spacing between the bars in the width of the beam.
+ *   Clear spacing - NBR 6118 - 18.3.2.2: horizontal >= max(20 mm, diameter, 1.2 aggregate),
+ *                                        vertical >= max(20 mm, diameter, 0.5 aggregate);
+ *                   Eurocode 2 - 8.2: max(diameter, aggregate + 5 mm, 20 mm) in both directions.
+ * The clear spacing is a rule of the code, given by its DetailingKernel: codes without one are refused by the detailing.
+ * The cheapest arrangement is the one with the lowest area of steel (weight), then with the fewest bars.
+ * Each layer has at least 2 bars (the corners of the stirrups).
+ *
+ * The effective height of the beam is the depth of the first layer. When more layers are needed,
+ * the depth of the resultant of the bars is lower, so the section is designed again with it,
+ * and the number of bars is increased until the bars resist the new area.
+ * The area and the spacing of each diameter are tabulated once by the detailing, so each beam only
+ * divides its width, and the beams of a building are detailed in parallel (fork/join).
+ */
+public class Detailing {
+
+    // Beams detailed by each task
+    private static final int THRESHOLD = 64;
+
+    // Default diameters of the longitudinal bars of beams
+    private static final BARS.Diameter[] BEAM_BARS = {
+        BARS.Diameter.D10, BARS.Diameter.D12_5, BARS.Diameter.D16,
+        BARS.Diameter.D20, BARS.Diameter.D25, BARS.Diameter.D32
+    };
+
+    private final Code code;
+    private final double cover;    // Cover of the stirrups [millimeter]
+    private final double stirrup;  // Diameter of the stirrups [millimeter]
+    private final int maxLayers;   // Maximum number of layers of bars
+
+    // Tables of the diameters
+    private final BARS.Diameter[] diameters;
+    private final double[] area;       // Area of a bar [mm²]
+    private final double[] horizontal; // Horizontal clear spacing [millimeter]
+    private final double[] vertical;   // Vertical clear spacing [millimeter]
+
+
+
+    /**
+     * Constructor with stirrups of 6.3 mm, aggregate of 19 mm, the usual diameters of beams (10 mm to 32 mm) and 2 layers.
+     * @param code  Code   - Defines the code parameters and coeficients.
+     * @param cover double - Cover of the stirrups [millimeter].
+     */
+    public Detailing(Code code, double cover){
+        this(code, cover, 6.3, 19, BEAM_BARS, 2);
+    }
+
+
+
+    /**
+     * Constructor of the detailing.
+     * @param code      Code   - Defines the code parameters and coeficients.
+     * @param cover     double - Cover of the stirrups [millimeter].
+     * @param stirrup   double - Diameter of the stirrups [millimeter].
+     * @param aggregate double - Maximum size of the coarse aggregate [millimeter].
+     * @param diameters BARS.Diameter[] - Diameters that can be used.
+     * @param maxLayers int    - Maximum number of layers of bars.
+     */
+    public Detailing(Code code, double cover, double stirrup, double aggregate, BARS.Diameter[] diameters, int maxLayers){
+        if (cover <= 0 || stirrup <= 0 || aggregate <= 0 || maxLayers <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        if (diameters.length == 0) {
+            throw new IllegalArgumentException("The diameters must not be empty");
+        }
+        this.code = code;
+        this.cover = cover;
+        this.stirrup = stirrup;
+        this.maxLayers = maxLayers;
+        this.diameters = diameters.clone();
+        this.area = new double[diameters.length];
+        this.horizontal = new double[diameters.length];
+        this.vertical = new double[diameters.length];
+
+        // The spacing depends on the code (its kernel), not on its fck
+        DetailingKernel kernel = DetailingKernel.of(code);
+        for (int k = 0; k < diameters.length; k++) {
+            double diameter = diameters[k].getDiameter();
+            area[k] = diameters[k].getArea();
+            horizontal[k] = kernel.horizontalSpacing(diameter, aggregate);
+            vertical[k] = kernel.verticalSpacing(diameter, aggregate);
+        }
+    }
+
+
+
+    /**
+     * Bars of the reinforcement of a beam.
+     */
+    public static class Detail {
+        private double As;  // Area required in tension, for the effective height of the bars [mm²]
+        private double As2; // Area required in compression [mm²]
+        private double d;   // Effective height of the bars in tension [millimeter]
+        private BARS.Diameter diameter;  // Bars in tension (null when there is no arrangement)
+        private int[] layers = new int[0]; // Bars in tension in each layer, from the bottom
+        private BARS.Diameter compression; // Bars in compression (null without compression reinforcement)
+        private int compressionBars;
+
+        /** @return boolean return true when the bars fit in the beam */
+        public boolean isValid() {
+            return diameter != null && (As2 <= 0 || compression != null);
+        }
+
+        /** @return double return the area required in tension for the effective height of the bars [mm²] */
+        public double getAs() {
+            return As;
+        }
+
+        /** @return double return the area required in compression [mm²] */
+        public double getAs2() {
+            return As2;
+        }
+
+        /** @return double return the effective height of the bars in tension [millimeter] */
+        public double getD() {
+            return d;
+        }
+
+        /** @return BARS.Diameter return the diameter of the bars in tension (null if they do not fit) */
+        public BARS.Diameter getDiameter() {
+            return diameter;
+        }
+
+        /** @return int return the number of bars in tension */
+        public int getBars() {
+            int bars = 0;
+            for (int layer : layers) {
+                bars += layer;
+            }
+            return bars;
+        }
+
+        /** @return int[] return the number of bars in tension of each layer, from the bottom */
+        public int[] getLayers() {
+            return layers.clone();
+        }
+
+        /** @return double return the area of the bars in tension [mm²] */
+        public double getArea() {
+            return (diameter == null) ? 0 : getBars()*diameter.getArea();
+        }
+
+        /** @return BARS.Diameter return the diameter of the bars in compression (null without them) */
+        public BARS.Diameter getCompressionDiameter() {
+            return compression;
+        }
+
+        /** @return int return the number of bars in compression */
+        public int getCompressionBars() {
+            return compressionBars;
+        }
+
+        /** @return double return the area of the bars in compression [mm²] */
+        public double getCompressionArea() {
+            return (compression == null) ? 0 : compressionBars*compression.getArea();
+        }
+
+        @Override
+        public String toString() {
+            if (!isValid()) {
+                return "  No arrangement of bars fits the beam.\n";
+            }
+            String str =
+            "  Tension =    \t" + getBars() + " bars of " + diameter.getDiameter() + "mm in " + layers.length
+                                + " layer(s), " + Math.round(getArea()) + "mm² (d = " + Math.round(d*10)/10.0 + "mm), \n";
+            if (compression != null) {
+                str += "  Compression =\t" + compressionBars + " bars of " + compression.getDiameter() + "mm, "
+                                + Math.round(getCompressionArea()) + "mm². \n";
+            }
+            return str;
+        }
+    }
+
+
+
+    /**
+     * Designs and details a beam (its reinforcement areas are not changed).
+     * @param beam Beam   - Beam detailed, with the effective height of the first layer of bars.
+     * @param mk   double - Characteristic bending moment applied [N.mm].
+     * @return Detail - Bars of the beam.
+     */
+    public Detail Arrange(Beam beam, double mk){
+        return arrange(beam, mk, new NeutralAxisSolver.Solution(), new double[1], new double[1]);
+    }
+
+
+
+    /**
+     * Designs and details, in parallel, the beams of a building.
+     * @param beams List     - Beams detailed, with the effective height of the first layer of bars.
+     * @param mk    double[] - Characteristic bending moment applied in each beam [N.mm].
+     * @return Detail[] - Bars of each beam, in the same order.
+     */
+    public Detail[] Arrange(List<? extends Beam> beams, double[] mk){
+        if (beams.size() != mk.length) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        Beam[] array = beams.toArray(new Beam[0]);
+        Detail[] details = new Detail[array.length];
+        if (array.length > 0) {
+            ForkJoinPool.commonPool().invoke(new Task(array, mk, details, 0, array.length));
+        }
+        return details;
+    }
+
+
+
+    // Details the beams [from, to)
+    private class Task extends RecursiveAction {
+        private final Beam[] beams;
+        private final double[] mk;
+        private final Detail[] details;
+        private final int from, to;
+
+        Task(Beam[] beams, double[] mk, Detail[] details, int from, int to){
+            this.beams = beams;
+            this.mk = mk;
+            this.details = details;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(beams, mk, details, from, middle), new Task(beams, mk, details, middle, to));
+                return;
+            }
+            NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+            double[] As = new double[1], As2 = new double[1];
+            for (int i = from; i < to; i++) {
+                details[i] = arrange(beams[i], mk[i], solution, As, As2);
+            }
+        }
+    }
+
+
+
+    // Searches the cheapest arrangement of the beam among the diameters
+    private Detail arrange(Beam beam, double mk, NeutralAxisSolver.Solution solution, double[] As, double[] As2){
+        double b = beam.getWidth();
+        double d = beam.getHeight();
+        CodeParameters parameters = code.getParameters(beam.getFck());
+        FlexuralKernel kernel = FlexuralKernel.of(code);
+
+        // Design with all the bars in the first layer
+        design(mk, b, d, beam, parameters, kernel, solution, As, As2);
+        double As0 = As[0], As20 = As2[0];
+
+        Detail best = new Detail();
+        best.As = As0;
+        best.As2 = As20;
+        best.d = d;
+        double bestArea = Double.POSITIVE_INFINITY;
+        int bestBars = Integer.MAX_VALUE;
+        if (Double.isNaN(As0)) {
+            return best;
+        }
+
+        for (int k = 0; k < diameters.length; k++) {
+            int perLayer = perLayer(k, b);
+            if (perLayer < 2) {
+                continue;
+            }
+            int bars = Math.max(2, (int) Math.ceil(As0/area[k]));
+            double required = As0, required2 = As20, dk = d;
+            while (true) {
+                int layers = layers(bars, perLayer);
+                if (layers > maxLayers) {
+                    bars = -1;
+                    break;
+                }
+                if (layers == 1) {
+                    required = As0; required2 = As20; dk = d;
+                } else {
+                    // Designed again with the resultant of the layers
+                    dk = d - centroid(bars, perLayer, k);
+                    design(mk, b, dk, beam, parameters, kernel, solution, As, As2);
+                    required = As[0]; required2 = As2[0];
+                }
+                if (bars*area[k] >= required) {
+                    break;
+                }
+                bars = Math.max(bars + 1, (int) Math.ceil(required/area[k]));
+            }
+            if (bars < 0) {
+                continue;
+            }
+            double provided = bars*area[k];
+            if (provided < bestArea || (provided == bestArea && bars < bestBars)) {
+                bestArea = provided;
+                bestBars = bars;
+                best.diameter = diameters[k];
+                best.layers = split(bars, perLayer);
+                best.As = required;
+                best.As2 = required2;
+                best.d = dk;
+            }
+        }
+
+        // Bars in compression, at the top of the beam (their depth is fixed by the design)
+        if (best.diameter != null && best.As2 > 0) {
+            double compressionArea = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < diameters.length; k++) {
+                int perLayer = perLayer(k, b);
+                int bars = Math.max(2, (int) Math.ceil(best.As2/area[k]));
+                if (perLayer < 2 || layers(bars, perLayer) > maxLayers) {
+                    continue;
+                }
+                double provided = bars*area[k];
+                if (provided < compressionArea || (provided == compressionArea && bars < best.compressionBars)) {
+                    compressionArea = provided;
+                    best.compression = diameters[k];
+                    best.compressionBars = bars;
+                }
+            }
+        }
+        return best;
+    }
+
+
+
+    // Flexural design of the beam with the effective height
+    private void design(double mk, double b, double d, Beam beam, CodeParameters parameters, FlexuralKernel kernel,
+                        NeutralAxisSolver.Solution solution, double[] As, double[] As2){
+        Resistance.flexural(mk, b, d, beam.getFck(), beam.getSteel().getfyk(), beam.getSteel().getEs(),
+                            beam.getSteel().getesu(), code, kernel, parameters, NeutralAxisSolver.DEFAULT, Double.NaN,
+                            solution, As, As2, 0);
+    }
+
+
+
+    // Number of bars of the diameter in a layer of the width
+    private int perLayer(int k, double b){
+        double free = b - 2*(cover + stirrup);
+        return (int) Math.floor((free + horizontal[k])/(diameters[k].getDiameter() + horizontal[k]));
+    }
+
+
+    // Number of layers of the bars
+    private static int layers(int bars, int perLayer){
+        return (bars + perLayer - 1)/perLayer;
+    }
+
+
+    // Bars of each layer: full layers from the bottom, the rest in the last one
+    private static int[] split(int bars, int perLayer){
+        int[] layers = new int[layers(bars, perLayer)];
+        for (int j = 0; j < layers.length; j++) {
+            layers[j] = Math.min(perLayer, bars - j*perLayer);
+        }
+        return layers;
+    }
+
+
+    // Height of the resultant of the bars above the first layer [millimeter]
+    private double centroid(int bars, int perLayer, int k){
+        double spacing = diameters[k].getDiameter() + vertical[k];
+        double moment = 0;
+        int[] layers = split(bars, perLayer);
+        for (int j = 1; j < layers.length; j++) {
+            moment += layers[j]*j*spacing;
+        }
+        return moment/bars;
+    }
+
+
+    /** @return Code return the code of the design */
+    public Code getCode() {
+        return code;
+    }
+
+    /** @return double return the cover of the stirrups [millimeter] */
+    public double getCover() {
+        return cover;
+    }
+}
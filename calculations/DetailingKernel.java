@@ -0,0 +1,50 @@
+package calculations;
+
+import standards.Code;
+
+/**
+ * Service interface of the detailing rules of a code: the minimum clear spacing of the longitudinal bars.
+ * It is found like the other kernels of the code (META-INF/services/calculations.DetailingKernel),
+ * and a code without a DetailingKernel is refused by the detailing (DetailingKernel.of).
+ */
+public interface DetailingKernel {
+
+    /**
+     * @return Class - Code of the kernel (also its subclasses, unless they have a kernel of their own).
+     */
+    Class<? extends Code> code();
+
+
+    /**
+     * @return String - Name of the code (NBR6118, EUROCODE2).
+     */
+    String name();
+
+
+    /**
+     * Minimum horizontal clear spacing between the longitudinal bars of a layer.
+     * @param diameter  double - Diameter of the bars [millimeter].
+     * @param aggregate double - Maximum size of the coarse aggregate [millimeter].
+     * @return double - Horizontal clear spacing [millimeter].
+     */
+    double horizontalSpacing(double diameter, double aggregate);
+
+
+    /**
+     * Minimum vertical clear spacing between the layers of longitudinal bars.
+     * @param diameter  double - Diameter of the bars [millimeter].
+     * @param aggregate double - Maximum size of the coarse aggregate [millimeter].
+     * @return double - Vertical clear spacing [millimeter].
+     */
+    double verticalSpacing(double diameter, double aggregate);
+
+
+    /**
+     * Kernel of the code, resolved once for each class of code.
+     * @param code Code - Code of the design.
+     * @return DetailingKernel - Kernel of the most specific class of code it details.
+     */
+    static DetailingKernel of(Code code) {
+        return Kernels.DETAILING.get(code.getClass());
+    }
+}
@@ -0,0 +1,34 @@
+package calculations;
+
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * Detailing rules of the European Code - Eurocode 2 (8.2).
+ */
+public final class EuropeanDetailingKernel implements DetailingKernel {
+
+    @Override
+    public Class<? extends Code> code() {
+        return EuropeanCode.class;
+    }
+
+
+    @Override
+    public String name() {
+        return "EUROCODE2";
+    }
+
+
+    // Eurocode 2 - 8.2: max(diameter, aggregate + 5 mm, 20 mm), in both directions
+    @Override
+    public double horizontalSpacing(double diameter, double aggregate) {
+        return Math.max(20, Math.max(diameter, aggregate + 5));
+    }
+
+
+    @Override
+    public double verticalSpacing(double diameter, double aggregate) {
+        return horizontalSpacing(diameter, aggregate);
+    }
+}
@@ -0,0 +1,51 @@
+package calculations;
+
+import standards.Code;
+import standards.CodeParameters;
+import standards.EuropeanCode;
+import standards.EuropeanParameters;
+import utils.NeutralAxisSolver;
+
+/**
+ * Flexural kernel of the European Code - Eurocode 2.
+ * Rectangular stress block of the concrete, with the closed form of the Neutral Axis.
+ */
+public final class EuropeanKernel implements FlexuralKernel {
+
+    @Override
+    public Class<? extends Code> code() {
+        return EuropeanCode.class;
+    }
+
+
+    @Override
+    public String name() {
+        return "EUROCODE2";
+    }
+
+
+    @Override
+    public void compression(double Msd, double bw, double d, double fcd, double esu, CodeParameters parameters,
+                            NeutralAxisSolver solver, double guess, NeutralAxisSolver.Solution solution) {
+        EuropeanParameters european = (EuropeanParameters) parameters;
+        double ac = european.getAc(); // Parameter related to the parable
+        double LN = european.getLN(); // Neutral Axis limit
+        double lambda = european.getLambda(); // Depth factor of the rectangular block
+        // When the moment exceeds the simple reinforcement capacity the root is negative,
+        // and the Neutral axis is kept at its limit (compression reinforcement is needed).
+        double root = d*d - (2*Msd)/(ac*fcd*bw);
+        double xk = (root > 0) ? Math.min((d-Math.sqrt(root))/lambda,  LN*d) : LN*d;
+        double ec = Math.min(esu*xk/(d-xk), european.getecu());
+        solution.set(xk, ec, lambda/2*xk, ac*fcd*bw*lambda*xk*(d-lambda/2*xk));
+    }
+
+
+    // Rectangular block of depth lambda x and stress ac fcd (3.1.7)
+    @Override
+    public double concrete(double xk, double ec, double bw, double fcd, CodeParameters parameters, double[] block) {
+        EuropeanParameters european = (EuropeanParameters) parameters;
+        double lambda = european.getLambda();
+        block[1] = lambda/2*xk;
+        return european.getAc()*fcd*bw*lambda*xk;
+    }
+}
@@ -0,0 +1,97 @@
+package calculations;
+
+import standards.Code;
+import standards.CodeParameters;
+import standards.EuropeanCode;
+
+/**
+ * Rules of the European Code - Eurocode 2 beyond the flexure.
+ * Shear by the variable strut inclination (6.2.3), cracking moment with fctm (7.4.3),
+ * long-term deflection with the effective modulus (7.4.3), crack width by 7.3.4, and slabs by strips.
+ */
+public final class EuropeanMemberKernel implements MemberKernel {
+
+    // Creep coefficient of the long-term deflection
+    private static final double CREEP = 2.0;
+
+
+    @Override
+    public Class<? extends Code> code() {
+        return EuropeanCode.class;
+    }
+
+
+    @Override
+    public String name() {
+        return "EUROCODE2";
+    }
+
+
+    @Override
+    public double shear(double Vsd, double bw, double d, double fcd, double fywk, double As, Code code,
+                        CodeParameters parameters, double theta) {
+        double fywd = fywk / code.getGs(); // Design Stirrups Strength.
+        double limited = parameters.getFck(); // fck limited by the code
+        double z = 0.9*d;
+        double v1 = 0.6*(1 - limited/250);
+        double cot;
+        if (Double.isNaN(theta)) {
+            // Flattest strut that resists the shear: VRd,max = bw*z*v1*fcd*sin(2 theta)/2
+            double ratio = 2*Vsd/(bw*z*v1*fcd);
+            if (ratio > 1) {
+                return Double.NaN;
+            }
+            double angle = Math.asin(ratio)/2;
+            cot = (angle > 0) ? Math.max(1, Math.min(2.5, 1/Math.tan(angle))) : 2.5;
+        } else {
+            if (theta < Math.toDegrees(Math.atan(1/2.5)) - 1e-9 || theta > 45) {
+                throw new IllegalArgumentException("The Eurocode 2 struts must be between 21.8 and 45 degrees");
+            }
+            cot = 1/Math.tan(Math.toRadians(theta));
+        }
+        double VRdmax = bw*z*v1*fcd/(cot + 1/cot);
+        if (Vsd > VRdmax*(1 + 1e-12)) {
+            return Double.NaN;
+        }
+        // Members that do not require design shear reinforcement (6.2.2)
+        double k = Math.min(1 + Math.sqrt(200/d), 2);
+        double rho = Math.min(As/(bw*d), 0.02);
+        double vmin = 0.035*Math.pow(k, 1.5)*Math.sqrt(limited);
+        double VRdc = Math.max(0.18/code.getGc()*k*Math.cbrt(100*rho*limited), vmin)*bw*d;
+        double Asw = (Vsd <= VRdc) ? 0 : Vsd/(z*fywd*cot);
+        // Minimum reinforcement (9.2.2): 0.08*sqrt(fck)/fyk
+        return Math.max(Asw, 0.08*Math.sqrt(limited)/fywk*bw);
+    }
+
+
+    @Override
+    public double crackingFactor() {
+        return 1;
+    }
+
+
+    // Effective modulus Ecm/(1 + phi), with the Stage II of the section for its modular ratio
+    @Override
+    public double longTerm(double immediate, double b, double d, double As, double As2, double Ma, double stiffness,
+                           double Mr, double Ic, double Es, double Ecs, double[] stage) {
+        double Eeff = Ecs/(1 + CREEP);
+        Serviceability.cracked(b, d, As, As2, Es/Eeff, stage);
+        return stiffness/(Eeff*Serviceability.branson(Mr, Ma, Ic, stage[1]));
+    }
+
+
+    // sr,max*(esm - ecm), sr,max = 3.4*c + 0.425*k1*k2*phi/pr, k1 = 0.8, k2 = 0.5, kt = 0.4
+    @Override
+    public double crackWidth(double phi, double ss, double pr, double h, double d, double fctm, double Es, double Ecs) {
+        double cover = Math.max(h - d - phi/2, 0);
+        double srmax = 3.4*cover + 0.425*0.8*0.5*phi/pr;
+        double strain = Math.max((ss - 0.4*fctm/pr*(1 + (Es/Ecs)*pr))/Es, 0.6*ss/Es);
+        return srmax*strain;
+    }
+
+
+    @Override
+    public SlabMoments.Method slabMethod() {
+        return SlabMoments.Method.STRIP;
+    }
+}
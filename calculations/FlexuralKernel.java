@@ -0,0 +1,70 @@
+package calculations;
+
+import standards.Code;
+import standards.CodeParameters;
+import utils.NeutralAxisSolver;
+
+/**
+ * Service interface of the flexural design of a code: the compression zone of the concrete
+ * that resists the design moment. The steel part of the design is common to all the codes (Resistance).
+ *
+ * The kernels are found through the ServiceLoader (META-INF/services/calculations.FlexuralKernel),
+ * with the class loader of the code, so a new code (ACI 318, a national annex) is added with a subclass of Code
+ * and its kernel, without changes in the design routines. The kernel of each class of code is resolved once
+ * and kept by the class (FlexuralKernel.of), and the design loops resolve it once per batch,
+ * so each loop calls a single kernel.
+ */
+public interface FlexuralKernel {
+
+    /**
+     * @return Class - Code designed by the kernel (also its subclasses, unless they have a kernel of their own).
+     */
+    Class<? extends Code> code();
+
+
+    /**
+     * @return String - Name of the code, used by the metrics (NBR6118, EUROCODE2).
+     */
+    String name();
+
+
+    /**
+     * Finds the compression zone of the concrete that resists the design moment,
+     * limited by the neutral axis limit of the code.
+     * @param Msd        double - Design Bending Moment [N.mm].
+     * @param bw         double - Section Width [millimeter].
+     * @param d          double - Section effective height [millimeter].
+     * @param fcd        double - Design Concrete Strength [MPa].
+     * @param esu        double - Maximum admissible steel tension deformation.
+     * @param parameters CodeParameters - Parameters of the code for the section fck.
+     * @param solver     NeutralAxisSolver - Method used to converge the Neutral Axis (iterative kernels).
+     * @param guess      double - Estimative of the neutral axis [millimeter] (NaN without one).
+     * @param solution   NeutralAxisSolver.Solution - Output: xk, ec, CG and Md of the section.
+     */
+    void compression(double Msd, double bw, double d, double fcd, double esu, CodeParameters parameters,
+                     NeutralAxisSolver solver, double guess, NeutralAxisSolver.Solution solution);
+
+
+    /**
+     * Compression force of the concrete for a neutral axis and the strain at the top, with the diagram of the code.
+     * Used by the checks of the resisting moment (Capacity) and by the design tables (DesignTable).
+     * @param xk         double - Neutral axis [millimeter].
+     * @param ec         double - Strain of the concrete at the top.
+     * @param bw         double - Section Width [millimeter].
+     * @param fcd        double - Design Concrete Strength [MPa].
+     * @param parameters CodeParameters - Parameters of the code for the section fck.
+     * @param block      double[2] - Output: block[1] receives the depth of the resultant [millimeter].
+     * @return double - Compression force of the concrete [N].
+     */
+    double concrete(double xk, double ec, double bw, double fcd, CodeParameters parameters, double[] block);
+
+
+    /**
+     * Kernel of the code, resolved once for each class of code.
+     * @param code Code - Code of the design.
+     * @return FlexuralKernel - Kernel of the most specific class of code it designs.
+     */
+    static FlexuralKernel of(Code code) {
+        return Kernels.KERNELS.get(code.getClass());
+    }
+}
@@ -0,0 +1,58 @@
+package calculations;
+
+import standards.Code;
+import standards.CodeParameters;
+import utils.NeutralAxisSolver;
+
+/**
+ * Mutable holder of the flexural design of a section, reused between designs.
+ * Keeps the buffers used by the design (the solution of the neutral axis and the outputs)
+ * and the parameters of the last code and fck, so a design with the holder allocates nothing.
+ * A holder must not be shared among threads.
+ */
+public final class FlexuralResult {
+
+    // Outputs of the design
+    final double[] As  = new double[1];
+    final double[] As2 = new double[1];
+
+    // Buffers of the solver
+    final NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+
+    // Parameters and kernel of the last code and fck designed
+    private Code code;
+    private double fck = Double.NaN;
+    private CodeParameters parameters;
+    FlexuralKernel kernel;
+
+
+
+    // Parameters and kernel of the code for the fck, looked up only when the code or the fck change
+    CodeParameters parameters(Code code, double fck){
+        if (code != this.code || fck != this.fck) {
+            this.parameters = code.getParameters(fck);
+            this.kernel = FlexuralKernel.of(code);
+            this.code = code;
+            this.fck = fck;
+        }
+        return parameters;
+    }
+
+
+    /** @return double return the Reinforcement area in tension [mm²] */
+    public double getAs() {
+        return As[0];
+    }
+
+
+    /** @return double return the Reinforcement area in Compression [mm²] */
+    public double getAs2() {
+        return As2[0];
+    }
+
+
+    /** @return double return the Neutral Axis of the last design by the NBR 6118 [millimeter] */
+    public double getXk() {
+        return solution.getXk();
+    }
+}
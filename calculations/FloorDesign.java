@@ -0,0 +1,145 @@
+package calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import enums.SUPPORTS.Edge;
+import enums.SUPPORTS.Support;
+import sections.SlabPanel;
+import standards.Code;
+
+/**
+ * Design of the slab panels of a floor plate.
+ * The moments of each panel are obtained isolated, in parallel. The negative moments of the edges shared
+ * by two panels are then balanced in a single pass, and the strips of all panels are designed in parallel.
+ *
+ * Balance of a shared edge (usual practice with the NBR 6118): X = max(0.8*max(X1, X2), (X1 + X2)/2),
+ * and the panel whose negative moment is reduced has its positive moment increased by half of the reduction.
+ */
+public class FloorDesign {
+
+    // Panels designed by each task
+    private static final int THRESHOLD = 16;
+
+    private final List<SlabPanel> panels = new ArrayList<>();
+    // Shared edges: {panel, edge, other panel, other edge}
+    private final List<int[]> joints = new ArrayList<>();
+
+
+
+    /**
+     * Adds a panel to the floor.
+     * @param panel SlabPanel - Panel of the floor.
+     * @return int - Index of the panel, used to connect its edges.
+     */
+    public int add(SlabPanel panel){
+        panels.add(panel);
+        return panels.size() - 1;
+    }
+
+
+
+    /**
+     * Connects the edges shared by two panels (continuity of the slab), both edges must be fixed.
+     * @param a     int  - Index of the first panel.
+     * @param edgeA Edge - Edge of the first panel.
+     * @param b     int  - Index of the second panel.
+     * @param edgeB Edge - Edge of the second panel.
+     */
+    public void connect(int a, Edge edgeA, int b, Edge edgeB){
+        if (a == b || panels.get(a).getSupport(edgeA) != Support.FIXED || panels.get(b).getSupport(edgeB) != Support.FIXED) {
+            throw new IllegalArgumentException("The shared edges must be fixed edges of two panels");
+        }
+        for (int[] joint : joints) {
+            if ((joint[0] == a && joint[1] == edgeA.ordinal()) || (joint[2] == a && joint[3] == edgeA.ordinal())
+                || (joint[0] == b && joint[1] == edgeB.ordinal()) || (joint[2] == b && joint[3] == edgeB.ordinal())) {
+                throw new IllegalArgumentException("The edge is already connected");
+            }
+        }
+        joints.add(new int[] {a, edgeA.ordinal(), b, edgeB.ordinal()});
+    }
+
+
+
+    /**
+     * Designs the floor with the method usual for the code, given by its MemberKernel
+     * (Marcus for the NBR 6118, strips for the Eurocode 2).
+     * @param code Code - Defines the code parameters and coeficients.
+     */
+    public void design(Code code){
+        design(code, MemberKernel.of(code).slabMethod());
+    }
+
+
+
+    /**
+     * Designs the floor: moments of the panels, balance of the shared edges and design of the strips.
+     * @param code   Code - Defines the code parameters and coeficients.
+     * @param method SlabMoments.Method - Method used to obtain the moments of the panels.
+     */
+    public void design(Code code, SlabMoments.Method method){
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        pool.invoke(new Task(code, method, false, 0, panels.size()));
+        balance();
+        pool.invoke(new Task(code, method, true, 0, panels.size()));
+    }
+
+
+
+    // Balances the negative moments of the shared edges (each edge belongs to a single joint)
+    private void balance(){
+        Edge[] edges = Edge.values();
+        for (int[] joint : joints) {
+            SlabPanel first = panels.get(joint[0]);
+            SlabPanel second = panels.get(joint[2]);
+            double X1 = first.getX(edges[joint[1]]);
+            double X2 = second.getX(edges[joint[3]]);
+            double X = Math.max(0.8*Math.max(X1, X2), (X1 + X2)/2);
+            first.balanceEdge(edges[joint[1]], X);
+            second.balanceEdge(edges[joint[3]], X);
+        }
+    }
+
+
+
+    // Obtains the moments (or designs the strips) of the panels [from, to)
+    private class Task extends RecursiveAction {
+        private final Code code;
+        private final SlabMoments.Method method;
+        private final boolean design;
+        private final int from, to;
+
+        Task(Code code, SlabMoments.Method method, boolean design, int from, int to){
+            this.code = code;
+            this.method = method;
+            this.design = design;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(code, method, design, from, middle), new Task(code, method, design, middle, to));
+                return;
+            }
+            FlexuralResult result = new FlexuralResult();
+            for (int i = from; i < to; i++) {
+                if (design) {
+                    panels.get(i).FlexuralResistance(code, result);
+                } else {
+                    panels.get(i).PanelMoments(method);
+                }
+            }
+        }
+    }
+
+
+    /** @return List return the panels of the floor */
+    public List<SlabPanel> getPanels() {
+        return java.util.Collections.unmodifiableList(panels);
+    }
+}
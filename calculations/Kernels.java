@@ -0,0 +1,73 @@
+package calculations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
+/**
+ * Resolution of the kernels of each class of code (FlexuralKernel and its companions MemberKernel and DetailingKernel).
+ * The kernels of the ServiceLoader are searched once for each class (ClassValue), and the kernel of the most specific
+ * class of code is chosen. The kernels of the library are also used when the services are not found
+ * (classes compiled without the META-INF resources). A code without a kernel is refused.
+ */
+final class Kernels {
+
+    // Flexural kernel of each class of code
+    static final ClassValue<FlexuralKernel> KERNELS = new ClassValue<FlexuralKernel>() {
+        @Override
+        protected FlexuralKernel computeValue(Class<?> type) {
+            return resolve(FlexuralKernel.class, type, List.of(new BrazilianKernel(), new EuropeanKernel()),
+                           FlexuralKernel::code);
+        }
+    };
+
+    // Member kernel of each class of code
+    static final ClassValue<MemberKernel> MEMBERS = new ClassValue<MemberKernel>() {
+        @Override
+        protected MemberKernel computeValue(Class<?> type) {
+            return resolve(MemberKernel.class, type, List.of(new BrazilianMemberKernel(), new EuropeanMemberKernel()),
+                           MemberKernel::code);
+        }
+    };
+
+    // Detailing kernel of each class of code
+    static final ClassValue<DetailingKernel> DETAILING = new ClassValue<DetailingKernel>() {
+        @Override
+        protected DetailingKernel computeValue(Class<?> type) {
+            return resolve(DetailingKernel.class, type,
+                           List.of(new BrazilianDetailingKernel(), new EuropeanDetailingKernel()),
+                           DetailingKernel::code);
+        }
+    };
+
+
+
+    private Kernels(){
+    }
+
+
+
+    // Most specific kernel of the class of code
+    private static <T> T resolve(Class<T> service, Class<?> type, List<T> library, Function<T, Class<?>> code){
+        ArrayList<T> candidates = new ArrayList<>();
+        ClassLoader loader = (type.getClassLoader() != null) ? type.getClassLoader() : Kernels.class.getClassLoader();
+        for (T kernel : ServiceLoader.load(service, loader)) {
+            candidates.add(kernel);
+        }
+        candidates.addAll(library);
+
+        T found = null;
+        for (T kernel : candidates) {
+            Class<?> designed = code.apply(kernel);
+            if (designed.isAssignableFrom(type)
+                && (found == null || (code.apply(found) != designed && code.apply(found).isAssignableFrom(designed)))) {
+                found = kernel;
+            }
+        }
+        if (found == null) {
+            throw new IllegalArgumentException("No " + service.getSimpleName() + " found for the code " + type.getName());
+        }
+        return found;
+    }
+}
@@ -0,0 +1,98 @@
+package calculations;
+
+import standards.Code;
+import standards.CodeParameters;
+
+/**
+ * Service interface of the rules of a code beyond the flexure: the shear design, the serviceability checks
+ * and the method of the moments of the slabs. It is the companion of the FlexuralKernel of the code,
+ * found in the same way (META-INF/services/calculations.MemberKernel), so a new code is added with both kernels.
+ * A code without a MemberKernel is refused by the shear, the serviceability and the floor design (MemberKernel.of).
+ */
+public interface MemberKernel {
+
+    /**
+     * @return Class - Code of the kernel (also its subclasses, unless they have a kernel of their own).
+     */
+    Class<? extends Code> code();
+
+
+    /**
+     * @return String - Name of the code (NBR6118, EUROCODE2).
+     */
+    String name();
+
+
+    /**
+     * Shear design of a rectangular section with vertical stirrups.
+     * @param Vsd        double - Design shear force [N].
+     * @param bw         double - Section Width [millimeter].
+     * @param d          double - Section effective height [millimeter].
+     * @param fcd        double - Design Concrete Strength [MPa].
+     * @param fywk       double - Stirrups characteristic resistance [MPa].
+     * @param As         double - Longitudinal reinforcement in tension [mm²] (0 if unknown).
+     * @param code       Code   - Code safety coeficients.
+     * @param parameters CodeParameters - Parameters of the code for the section fck.
+     * @param theta      double - Inclination of the compression struts [degrees] (NaN to use the default model).
+     * @return double - Area of stirrups per length Asw/s [mm²/mm], NaN when the compression struts are crushed.
+     */
+    double shear(double Vsd, double bw, double d, double fcd, double fywk, double As, Code code,
+                 CodeParameters parameters, double theta);
+
+
+    /**
+     * @return double - Factor of the cracking moment of rectangular sections, Mr = factor*fctm*Ic/yt.
+     */
+    double crackingFactor();
+
+
+    /**
+     * Total (long-term) deflection of a section, from its immediate deflection.
+     * @param immediate double - Immediate deflection [millimeter].
+     * @param b         double - Width of the section [millimeter].
+     * @param d         double - Effective height of the section [millimeter].
+     * @param As        double - Reinforcement area in tension [mm²].
+     * @param As2       double - Reinforcement area in compression [mm²].
+     * @param Ma        double - Service bending moment [N.mm].
+     * @param stiffness double - Product Ma*l²*k of the deflection, a = stiffness/(E*I) [N.mm³].
+     * @param Mr        double - Cracking moment [N.mm].
+     * @param Ic        double - Inertia of the gross section [mm4].
+     * @param Es        double - Modulus of elasticity of the steel [MPa].
+     * @param Ecs       double - Secant modulus of elasticity of the concrete [MPa].
+     * @param stage     double[2] - Holder reused by the Stage II of the section.
+     * @return double - Total deflection [millimeter].
+     */
+    double longTerm(double immediate, double b, double d, double As, double As2, double Ma, double stiffness,
+                    double Mr, double Ic, double Es, double Ecs, double[] stage);
+
+
+    /**
+     * Characteristic crack width of a cracked section.
+     * @param phi  double - Diameter of the bars in tension [millimeter].
+     * @param ss   double - Stress of the steel in Stage II [MPa].
+     * @param pr   double - Ratio of the reinforcement on the effective area around the bars.
+     * @param h    double - Total height of the section [millimeter].
+     * @param d    double - Effective height of the section [millimeter].
+     * @param fctm double - Mean tensile strength of the concrete [MPa].
+     * @param Es   double - Modulus of elasticity of the steel [MPa].
+     * @param Ecs  double - Secant modulus of elasticity of the concrete [MPa].
+     * @return double - Crack width [millimeter].
+     */
+    double crackWidth(double phi, double ss, double pr, double h, double d, double fctm, double Es, double Ecs);
+
+
+    /**
+     * @return SlabMoments.Method - Method usual for the moments of the slab panels in the code.
+     */
+    SlabMoments.Method slabMethod();
+
+
+    /**
+     * Kernel of the code, resolved once for each class of code.
+     * @param code Code - Code of the design.
+     * @return MemberKernel - Kernel of the most specific class of code it designs.
+     */
+    static MemberKernel of(Code code) {
+        return Kernels.MEMBERS.get(code.getClass());
+    }
+}
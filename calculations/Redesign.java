@@ -0,0 +1,85 @@
+package calculations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import sections.ConcreteSection;
+
+/**
+ * Class that keeps collections of designed sections up to date.
+ * Only the dirty sections (changed after their last design) are designed again, with their last moment and code,
+ * so the iterations that change a few members of a large model only pay for those members.
+ */
+public class Redesign {
+
+    // Sections designed by each task
+    private static final int THRESHOLD = 256;
+
+
+
+    /**
+     * Designs again, in parallel, the dirty sections of the collection.
+     * Sections never designed are skipped, and a section repeated in the collection is designed once.
+     * @param sections Collection - Sections of the model.
+     * @return int - Number of sections designed again.
+     */
+    public static int Dirty(Collection<? extends ConcreteSection> sections) {
+        Set<ConcreteSection> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayList<ConcreteSection> dirty = new ArrayList<>();
+        for (ConcreteSection section : sections) {
+            if (section.isDirty() && found.add(section)) {
+                dirty.add(section);
+            }
+        }
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        ConcreteSection[] array = dirty.toArray(new ConcreteSection[0]);
+        ForkJoinPool.commonPool().invoke(new Task(array, 0, array.length));
+        return array.length;
+    }
+
+
+
+    /**
+     * Marks all the sections of the collection to be designed again.
+     * @param sections Collection - Sections of the model.
+     */
+    public static void Invalidate(Collection<? extends ConcreteSection> sections) {
+        for (ConcreteSection section : sections) {
+            section.invalidate();
+        }
+    }
+
+
+
+    // Designs the sections [from, to)
+    private static class Task extends RecursiveAction {
+        private final ConcreteSection[] sections;
+        private final int from, to;
+
+        Task(ConcreteSection[] sections, int from, int to){
+            this.sections = sections;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(sections, from, middle), new Task(sections, middle, to));
+                return;
+            }
+            FlexuralResult result = new FlexuralResult();
+            for (int i = from; i < to; i++) {
+                sections[i].redesign(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package calculations;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import sections.ConcreteSection;
+import standards.Code;
+import standards.CodeParameters;
+
+/**
+ * Class that estimates the probability of failure by flexure of designed sections, by the Monte Carlo method.
+ * For each sample the concrete strength, the steel strength, the effective height and the bending moment
+ * are drawn from their distributions, and the section fails when its resisting moment is lower than the moment:
+ *   g = MR(fc, fy, d) - M < 0,  Pf = failures/samples,  beta = -PHI^-1(Pf).
+ * The resisting moment is the one of Capacity, with the sampled strengths and without the safety factors,
+ * with the reinforcement already designed (As and As2). The shape of the concrete diagram is the one of the fck of the section.
+ *
+ * The samples are split in a fork/join tree with a fixed shape, and each task has its own stream of a SplittableRandom,
+ * split from the seed in the same order. So the result depends only on the seed and on the number of samples,
+ * not on the number of threads, and each sample allocates nothing.
+ */
+public class Reliability {
+
+    // Samples evaluated by each task
+    private static final int THRESHOLD = 1 << 15;
+
+    // Constant of Euler-Mascheroni (mean of the Gumbel distribution)
+    private static final double EULER = 0.5772156649015329;
+
+
+
+    /**
+     * Probability distribution of a random variable of the analysis.
+     */
+    public static final class Distribution {
+
+        /**
+         * Defines the types of distribution available.
+         */
+        public enum Type {
+            NORMAL,    // Dimensions
+            LOGNORMAL, // Strengths of the materials (always positive)
+            GUMBEL     // Maximum of the variable loads
+        }
+
+        private final Type type;
+        private final double mean;
+        private final double std;
+
+        // Parameters used by the samples
+        private final double location;
+        private final double scale;
+
+
+
+        /**
+         * Constructor of the distribution.
+         * @param type Type   - Type of the distribution.
+         * @param mean double - Mean value.
+         * @param std  double - Standard deviation (0 for a deterministic value).
+         */
+        public Distribution(Type type, double mean, double std){
+            if (std < 0 || (type == Type.LOGNORMAL && mean <= 0)) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+            this.type = type;
+            this.mean = mean;
+            this.std = std;
+            switch (type) {
+                case LOGNORMAL:
+                    double cov = std/mean;
+                    this.scale = Math.sqrt(Math.log(1 + cov*cov));
+                    this.location = Math.log(mean) - scale*scale/2;
+                    break;
+                case GUMBEL:
+                    this.scale = std*Math.sqrt(6)/Math.PI;
+                    this.location = mean - EULER*scale;
+                    break;
+                default:
+                    this.scale = std;
+                    this.location = mean;
+            }
+        }
+
+
+
+        /**
+         * Distribution with the characteristic value at the fractile given.
+         * @param type     Type   - Type of the distribution.
+         * @param xk       double - Characteristic value.
+         * @param cov      double - Coefficient of variation (std/mean).
+         * @param fractile double - Probability of a value lower than the characteristic (0.05 for strengths, 0.95 for loads).
+         * @return Distribution - Distribution with the mean and standard deviation of the characteristic value.
+         */
+        public static Distribution characteristic(Type type, double xk, double cov, double fractile){
+            if (xk <= 0 || cov < 0 || !(fractile > 0 && fractile < 1)) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+            double mean;
+            switch (type) {
+                case LOGNORMAL:
+                    double s = Math.sqrt(Math.log(1 + cov*cov));
+                    mean = Math.exp(Math.log(xk) - inverseNormal(fractile)*s + s*s/2);
+                    break;
+                case GUMBEL:
+                    mean = xk/(1 - cov*Math.sqrt(6)/Math.PI*(EULER + Math.log(-Math.log(fractile))));
+                    break;
+                default:
+                    mean = xk/(1 + inverseNormal(fractile)*cov);
+            }
+            if (!(mean > 0)) {
+                throw new IllegalArgumentException("Coefficient of variation too large for the fractile");
+            }
+            return new Distribution(type, mean, cov*mean);
+        }
+
+
+
+        // Draws a value of the distribution
+        double sample(SplittableRandom random){
+            switch (type) {
+                case LOGNORMAL:
+                    return Math.exp(location + scale*random.nextGaussian());
+                case GUMBEL:
+                    double u;
+                    do {
+                        u = random.nextDouble();
+                    } while (u == 0);
+                    return location - scale*Math.log(-Math.log(u));
+                default:
+                    return location + scale*random.nextGaussian();
+            }
+        }
+
+
+        /** @return Type return the type of the distribution */
+        public Type getType() {
+            return type;
+        }
+
+        /** @return double return the mean value */
+        public double getMean() {
+            return mean;
+        }
+
+        /** @return double return the standard deviation */
+        public double getStd() {
+            return std;
+        }
+
+        @Override
+        public String toString() {
+            return type + "(mean = " + mean + ", std = " + std + ")";
+        }
+    }
+
+
+
+    /**
+     * Result of the analysis: number of samples and of failures, probability of failure and reliability index.
+     */
+    public static final class Result {
+        private final long samples;
+        private final long failures;
+
+        Result(long samples, long failures){
+            this.samples = samples;
+            this.failures = failures;
+        }
+
+        /** @return long return the number of samples evaluated */
+        public long getSamples() {
+            return samples;
+        }
+
+        /** @return long return the number of samples that failed */
+        public long getFailures() {
+            return failures;
+        }
+
+        /** @return double return the probability of failure - Pf */
+        public double getPf() {
+            return (double) failures/samples;
+        }
+
+        /** @return double return the reliability index - beta = -PHI^-1(Pf) (infinite when no sample failed) */
+        public double getBeta() {
+            return -inverseNormal(getPf());
+        }
+
+        /** @return double return the coefficient of variation of the estimate of Pf - sqrt((1 - Pf)/(n*Pf)) */
+        public double getCoV() {
+            double pf = getPf();
+            return Math.sqrt((1 - pf)/(samples*pf));
+        }
+
+        @Override
+        public String toString() {
+            return "*Reliability: " + failures + " failures in " + samples + " samples \n" +
+                   "  Pf   =\t" + getPf() + " (CoV " + getCoV() + ") \n" +
+                   "  beta =\t" + getBeta() + "\n";
+        }
+    }
+
+
+
+    /**
+     * Reliability of the designed section, with the usual distributions of the variables:
+     *   fc - lognormal, CoV 0.15, fck at the fractile of 5%;
+     *   fy - lognormal, CoV 0.05, fyk at the fractile of 5%;
+     *   d  - normal, mean d, standard deviation 5 mm;
+     *   M  - Gumbel, CoV 0.20, mk at the fractile of 95%.
+     * @param section ConcreteSection - Section already designed (As and As2) for the moment.
+     * @param mk      double - Characteristic bending moment of the design [N.mm].
+     * @param code    Code   - Code of the design (shape of the concrete diagram).
+     * @param samples long   - Number of samples.
+     * @param seed    long   - Seed of the random numbers (the same seed gives the same result).
+     * @return Result - Probability of failure and reliability index.
+     */
+    public static Result Analyze(ConcreteSection section, double mk, Code code, long samples, long seed) {
+        if (mk == 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        Distribution fc = Distribution.characteristic(Distribution.Type.LOGNORMAL, section.getFck(), 0.15, 0.05);
+        Distribution fy = Distribution.characteristic(Distribution.Type.LOGNORMAL, section.getSteel().getfyk(), 0.05, 0.05);
+        Distribution d = new Distribution(Distribution.Type.NORMAL, section.getHeight(), 5);
+        Distribution load = Distribution.characteristic(Distribution.Type.GUMBEL, Math.abs(mk), 0.20, 0.95);
+        return Analyze(section, code, fc, fy, d, load, samples, seed);
+    }
+
+
+
+    /**
+     * Reliability of the designed section, with the distributions given.
+     * @param section ConcreteSection - Section already designed (As and As2).
+     * @param code    Code         - Code of the design (shape of the concrete diagram).
+     * @param fc      Distribution - Compressive strength of the concrete [MPa].
+     * @param fy      Distribution - Yield strength of the steel [MPa].
+     * @param d       Distribution - Effective height [millimeter].
+     * @param load    Distribution - Bending moment applied [N.mm].
+     * @param samples long         - Number of samples.
+     * @param seed    long         - Seed of the random numbers (the same seed gives the same result).
+     * @return Result - Probability of failure and reliability index.
+     */
+    public static Result Analyze(ConcreteSection section, Code code, Distribution fc, Distribution fy,
+                                 Distribution d, Distribution load, long samples, long seed) {
+        return analyze(section, code, fc, fy, d, load, samples, seed, ForkJoinPool.commonPool());
+    }
+
+
+
+    // Samples in the pool given (the result does not depend on its parallelism)
+    static Result analyze(ConcreteSection section, Code code, Distribution fc, Distribution fy,
+                          Distribution d, Distribution load, long samples, long seed, ForkJoinPool pool) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        Sampling sampling = new Sampling(section.getWidth(), section.getAs(), section.getAs2(),
+                                         section.getSteel().getEs(), section.getSteel().getesu(),
+                                         FlexuralKernel.of(code), code.getParameters(section.getFck()), fc, fy, d, load,
+                                         new SplittableRandom(seed), 0, samples);
+        long failures = pool.invoke(sampling);
+        return new Result(samples, failures);
+    }
+
+
+
+    // Counts the failures of the samples [from, to)
+    private static class Sampling extends RecursiveTask<Long> {
+        private final double bw, As, As2, Es, esu;
+        private final FlexuralKernel kernel;
+        private final CodeParameters parameters;
+        private final Distribution fc, fy, d, load;
+        private final SplittableRandom random;
+        private final long from, to;
+
+        Sampling(double bw, double As, double As2, double Es, double esu, FlexuralKernel kernel, CodeParameters parameters,
+                 Distribution fc, Distribution fy, Distribution d, Distribution load,
+                 SplittableRandom random, long from, long to){
+            this.bw = bw; this.As = As; this.As2 = As2; this.Es = Es; this.esu = esu;
+            this.kernel = kernel;
+            this.parameters = parameters;
+            this.fc = fc; this.fy = fy; this.d = d; this.load = load;
+            this.random = random;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute(){
+            if (to - from > THRESHOLD) {
+                long middle = (from + to) >>> 1;
+                // The stream of the left half is always split first, so the tree is the same for any scheduling
+                Sampling left = new Sampling(bw, As, As2, Es, esu, kernel, parameters, fc, fy, d, load,
+                                             random.split(), from, middle);
+                Sampling right = new Sampling(bw, As, As2, Es, esu, kernel, parameters, fc, fy, d, load,
+                                              random, middle, to);
+                left.fork();
+                long failures = right.compute();
+                return failures + left.join();
+            }
+            double[] block = new double[2];
+            long failures = 0;
+            for (long i = from; i < to; i++) {
+                double fcs = fc.sample(random);
+                double fys = fy.sample(random);
+                double ds = d.sample(random);
+                double M = Math.abs(load.sample(random));
+                if (fcs <= 0 || fys <= 0 || ds <= 0
+                    || Capacity.resisting(bw, ds, fcs, fys, Es, esu, As, As2, kernel, parameters, block) < M) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+    }
+
+
+
+    /**
+     * Inverse of the standard normal distribution, PHI^-1(p), by the rational approximations of Acklam
+     * (relative error lower than 1.2e-9).
+     * @param p double - Probability.
+     * @return double - Value with the probability p of a lower value (-infinity for 0 and +infinity for 1).
+     */
+    static double inverseNormal(double p){
+        if (p <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        } else if (p >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                            6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] e = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                            3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low || p > 1 - low) {
+            // Tails
+            double q = Math.sqrt(-2*Math.log(p < low ? p : 1 - p));
+            double x = (((((c[0]*q + c[1])*q + c[2])*q + c[3])*q + c[4])*q + c[5])
+                     / ((((e[0]*q + e[1])*q + e[2])*q + e[3])*q + 1);
+            return (p < low) ? x : -x;
+        }
+        // Central region
+        double q = p - 0.5;
+        double r = q*q;
+        return (((((a[0]*r + a[1])*r + a[2])*r + a[3])*r + a[4])*r + a[5])*q
+             / (((((b[0]*r + b[1])*r + b[2])*r + b[3])*r + b[4])*r + 1);
+    }
+}
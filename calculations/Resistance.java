@@ -1,4 +1,3 @@
-
 package calculations;
 
 import java.util.ArrayList;
@@ -6,7 +5,9 @@ import java.util.ArrayList;
 import sections.ConcreteSection;
 import sections.Steel;
 import standards.*;
-import utils.ConcreteMath;
+import utils.DesignMetrics;
+import utils.FlexuralEvent;
+import utils.NeutralAxisSolver;
 
 /**
  * Class that performs:
@@ -15,81 +16,148 @@ import utils.ConcreteMath;
 public class Resistance{
 
     public static ArrayList<Double> Flexural(double mk, ConcreteSection section, Code code, Steel steel) {
+        return Flexural(mk, section, code, steel, NeutralAxisSolver.DEFAULT);
+    }
+
+
+
+    /**
+     * Flexural design of the section, with the solver used to find the Neutral Axis (NBR 6118).
+     * @param mk      double - Characteristic bending moment applied [N.mm].
+     * @param section ConcreteSection - Section designed.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @param solver  NeutralAxisSolver - Method and tolerance used to converge the Neutral Axis.
+     * @return ArrayList - Reinforcement areas [As, As2] in mm².
+     */
+    public static ArrayList<Double> Flexural(double mk, ConcreteSection section, Code code, Steel steel, NeutralAxisSolver solver) {
         ArrayList<Double> reinforcementsArea = new ArrayList<Double>();
 
-        // Update all parameters for the code
-        code.setFck(section.getFck());
+        // Obtain the parameters of the code for the section (the code itself is not modified)
+        CodeParameters parameters = code.getParameters(section.getFck());
+
+        // Design the section and collects the reinforcement areas
+        FlexuralEvent event = DesignMetrics.active() ? DesignMetrics.begin() : null;
+        FlexuralKernel kernel = FlexuralKernel.of(code);
+        double[] As  = new double[1];
+        double[] As2 = new double[1];
+        NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+        flexural(mk, section.getWidth(), section.getHeight(), section.getFck(), steel.getfyk(), steel.getEs(), steel.getesu(),
+                 code, kernel, parameters, solver, Double.NaN, solution, As, As2, 0);
+        if (event != null) {
+            record(event, mk, section, kernel, solution, As[0], As2[0]);
+        }
+
+        // Arbitrary value of Neutral Axis
+        reinforcementsArea.add(As[0]);
+        reinforcementsArea.add(As2[0]);
+        return reinforcementsArea;
+    }
+
+
+
+    /**
+     * Flexural design of the section into a reusable result, without allocations.
+     * @param mk      double - Characteristic bending moment applied [N.mm].
+     * @param section ConcreteSection - Section designed.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @param result  FlexuralResult - Output with the reinforcement areas, reused between designs.
+     */
+    public static void Flexural(double mk, ConcreteSection section, Code code, Steel steel, FlexuralResult result) {
+        FlexuralEvent event = DesignMetrics.active() ? DesignMetrics.begin() : null;
+        CodeParameters parameters = result.parameters(code, section.getFck());
+        flexural(mk, section.getWidth(), section.getHeight(), section.getFck(), steel.getfyk(), steel.getEs(), steel.getesu(),
+                 code, result.kernel, parameters, NeutralAxisSolver.DEFAULT, Double.NaN, result.solution,
+                 result.As, result.As2, 0);
+        if (event != null) {
+            record(event, mk, section, result.kernel, result.solution, result.As[0], result.As2[0]);
+        }
+    }
+
+
+
+    // Records the metrics of a design (only while the metrics are enabled)
+    private static void record(FlexuralEvent event, double mk, ConcreteSection section, FlexuralKernel kernel,
+                               NeutralAxisSolver.Solution solution, double As, double As2) {
+        DesignMetrics.end(event, kernel.name(), section instanceof sections.Slab, mk, section.getFck(),
+                          solution.getIterations(), As, As2);
+    }
+
 
+
+    /**
+     * Flexural design of a single rectangular section over primitive values.
+     * The fck dependent parameters are read from the immutable snapshot, so the code is never modified.
+     * @param mk   double - Characteristic bending moment applied [N.mm].
+     * @param bw   double - Section Width [millimeter].
+     * @param d    double - Section effective height [millimeter].
+     * @param fck  double - Concrete compressive Strength [MPa].
+     * @param fyk  double - Steel characteristic resistance [MPa].
+     * @param Es   double - Steel resistance module [MPa].
+     * @param esu  double - Maximum admissible steel tension deformation.
+     * @param code Code   - Code safety coeficients.
+     * @param parameters CodeParameters - Parameters of the code for the section fck.
+     * @param solver   NeutralAxisSolver - Method used to converge the Neutral Axis.
+     * @param solution NeutralAxisSolver.Solution - Holder reused by the solver.
+     * @param As   double[] - Output of the reinforcement area in tension [mm²], written at index i.
+     * @param As2  double[] - Output of the reinforcement area in compression [mm²], written at index i.
+     * @param i    int    - Index of the outputs where the areas are stored.
+     */
+    static void flexural(double mk, double bw, double d, double fck, double fyk, double Es, double esu,
+                         Code code, CodeParameters parameters, NeutralAxisSolver solver,
+                         NeutralAxisSolver.Solution solution, double[] As, double[] As2, int i) {
+        flexural(mk, bw, d, fck, fyk, Es, esu, code, parameters, solver, Double.NaN, solution, As, As2, i);
+    }
+
+
+
+    /**
+     * Flexural design of a single rectangular section, with the neutral axis of a similar section
+     * as the start of the solver (NBR 6118). Without an estimative (NaN), the solver starts from its own interval.
+     * @param guess double - Estimative of the neutral axis [millimeter].
+     */
+    static void flexural(double mk, double bw, double d, double fck, double fyk, double Es, double esu,
+                         Code code, CodeParameters parameters, NeutralAxisSolver solver, double guess,
+                         NeutralAxisSolver.Solution solution, double[] As, double[] As2, int i) {
+        flexural(mk, bw, d, fck, fyk, Es, esu, code, FlexuralKernel.of(code), parameters, solver, guess,
+                 solution, As, As2, i);
+    }
+
+
+
+    /**
+     * Flexural design of a single rectangular section, with the kernel of the code already resolved
+     * (the loops resolve the kernel once, before the sections).
+     * @param kernel FlexuralKernel - Kernel of the code, that finds the compression zone of the concrete.
+     */
+    static void flexural(double mk, double bw, double d, double fck, double fyk, double Es, double esu,
+                         Code code, FlexuralKernel kernel, CodeParameters parameters, NeutralAxisSolver solver,
+                         double guess, NeutralAxisSolver.Solution solution, double[] As, double[] As2, int i) {
         // Beam Physical Characteristics
-        double bw = section.getWidth();  // Section Width
-        double d  = section.getHeight(); // Section effect height
         double d2 = 50; // Pre-estabeleced
 
         // Defines Mechanical Characteristics
-        double fcd = section.getFck()  / code.getGc(); // Design Concrete Strength.
-        double fyd = steel.getfyk() / code.getGs(); // Design Steel Strength.
-        double esu = steel.getesu(); // Maximum admissible steel tension deformation.
+        double fcd = fck / code.getGc(); // Design Concrete Strength.
+        double fyd = fyk / code.getGs(); // Design Steel Strength.
 
         // Define some others parameters
         double Msd = mk * code.getGf(); // Design Bending Moment applied on the Beam or Slab.
-        double Es = steel.getEs(); // Steel resistance module.
-        double Md = 0; // Effective bending moment that can be resisted with simple reinforcement.
-        double xk = 0; // Neutral axis of the section.
-        double CG = 0; // Resultant (CG) of the compression forces applied.
-        double es = 0; // Strain of the steel reinforcement under tension
-        double es2 = 0; // Strain  of the steel reinforcement under compression
-        double ecu = code.getecu();  // Concrete strain at the Ultimate Limit State of Rupture.
-
-
-        // Parameters used for calculations of the Concrete Diagram under compression according to code
-        double ec = 0; // Strain deformation of the concrete
-        double Ae = 0; // Specific area of the concrete under compression
-        double deformations[]; // array containing [e1-strain of the concrete at the parabola area, e2-strain at the constant area]
-
-        // Defines with Code is beign used:
-        if (code instanceof standards.BrazilianCode){
-            // Define some parameters specific for the Brazilian Code
-            double n = ((BrazilianCode) code).getN(); // Parameter related to the parable
-            double ec2 = ((BrazilianCode) code).getec2();  // Concrete strain at the rupture by compression.
-            // Defines possible limits for the neutral axis
-            double xi = 0;
-            double xf = Math.min(code.getLN()*d, section.getHeight());
-            // Loop that calculates section forces for given Neutral Axis and converges new values to equilibrium.
-            while(Math.abs(xi-xf) > 0.001){
-                xk = ConcreteMath.convergenceMethod(xi, xf);
-                deformations = ConcreteMath.defineStrain(xk, d, ecu, ec2, esu);
-                ec = deformations[0] + deformations[1];
-                Ae = ConcreteMath.obtainArea(deformations[0], deformations[1], ec2, n);
-                CG = ConcreteMath.obtainCG(ec, deformations[0], deformations[1], ec2, n);
-                Md = 0.85*fcd*bw*(Ae/ec)*xk*(d-(CG/ec)*xk);
-                if (Md > Msd) {
-                    xf = xk;
-                } else {
-                    xi = xk;
-                }
-                CG = CG/ec*xk;
-
-            }
-
-        } else 
-        if (code instanceof standards.EuropeanCode) {
-            // Define some parameters specific for the EuropeanCode - Eurocode2
-            double ac = ((EuropeanCode) code).getAc(); // Parameter related to the parable
-            double LN = ((EuropeanCode) code).getLN(); // Concrete strain at the Ultimate Limit State of Rupture.
-            double lambda = ((EuropeanCode) code).getLambda();  // Concrete strain at the rupture by compression.
-            // Calculation of the Retangular section
-            xk = Math.min((d-Math.sqrt(Math.pow(d,2)-(2*Msd)/(ac*fcd*bw)))/lambda,  LN*d);
-            ec = Math.min(esu*xk/(d-xk), ecu);
-            CG = lambda/2*xk;
-            Md = ac*fcd*bw*lambda*xk*(d-lambda/2*xk);
-        }
+
+        // Compression zone of the concrete, by the kernel of the code
+        kernel.compression(Msd, bw, d, fcd, esu, parameters, solver, guess, solution);
+        double xk = solution.getXk(); // Neutral axis of the section.
+        double ec = solution.getEc(); // Strain deformation of the concrete
+        double CG = solution.getCG(); // Resultant (CG) of the compression forces applied.
+        double Md = solution.getMd(); // Effective bending moment that can be resisted with simple reinforcement.
+
         // Obtain Reinforcements Strains
-        es = ec*d/xk - ec;
-        es2 = ec*(xk - d2)/xk;
+        double es = ec*d/xk - ec; // Strain of the steel reinforcement under tension
+        double es2 = ec*(xk - d2)/xk; // Strain  of the steel reinforcement under compression
         // Obtain Reinforcements Stress
         double fs = Math.min(fyd, Es*es);
         double fs2 = Math.min(fyd, Es*es2);
-        
+
         double Md2 = Msd - Md;
         // Avoid numerical errors
         if (Md2 <= 50000){
@@ -98,18 +166,67 @@ public class Resistance{
         }
 
         // Obtain reinforcements area
-        double As2 = Md2/(fs2*(d-d2));
-        double As = Md/(fs*(d-CG)) + Md2/(fs*(d-d2));
-
+        double as2 = Md2/(fs2*(d-d2));
+        double as  = Md/(fs*(d-CG)) + Md2/(fs*(d-d2));
 
         // Round value to avoid Numerical Computacional errors
-        As  = Math.round(As*10000)/10000;
-        As2 = Math.round(As2*10000)/10000;
+        As[i]  = Math.round(as*10000)/10000;
+        As2[i] = Math.round(as2*10000)/10000;
+    }
 
-        // Arbitrary value of Neutral Axis
-        reinforcementsArea.add(As);
-        reinforcementsArea.add(As2);
-        return reinforcementsArea;
+
+
+    public static double Shear(double vk, ConcreteSection section, Code code, Steel steel) {
+        return Shear(vk, section, code, steel, Double.NaN);
+    }
+
+
+
+    /**
+     * Shear design of the section with vertical stirrups.
+     * NBR 6118 - 17.4.2: Model I (theta = 45°, NaN), or Model II with the angle of the struts (30° to 45°).
+     * Eurocode 2 - 6.2.3: variable strut inclination, the flattest strut allowed (NaN) or the given angle (21.8° to 45°).
+     * The VRd,c of the Eurocode 2 uses the tension reinforcement of the section (0 when it was not designed).
+     * @param vk      double - Characteristic shear force applied [N].
+     * @param section ConcreteSection - Section designed.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as stirrups.
+     * @param theta   double - Inclination of the compression struts [degrees] (NaN to use the default model).
+     * @return double - Area of stirrups per length Asw/s [mm²/m], NaN when the compression struts are crushed.
+     */
+    public static double Shear(double vk, ConcreteSection section, Code code, Steel steel, double theta) {
+        return shear(vk, section.getWidth(), section.getHeight(), section.getFck(), steel.getfyk(), section.getAs(),
+                     code, code.getParameters(section.getFck()), theta);
+    }
+
+
+
+    /**
+     * Shear design of a single rectangular section over primitive values, with vertical stirrups.
+     * @param vk   double - Characteristic shear force applied [N].
+     * @param bw   double - Section Width [millimeter].
+     * @param d    double - Section effective height [millimeter].
+     * @param fck  double - Concrete compressive Strength [MPa].
+     * @param fywk double - Stirrups characteristic resistance [MPa].
+     * @param As   double - Longitudinal reinforcement in tension [mm²] (Eurocode 2 VRd,c, 0 if unknown).
+     * @param code Code   - Code safety coeficients.
+     * @param parameters CodeParameters - Parameters of the code for the section fck.
+     * @param theta double - Inclination of the compression struts [degrees] (NaN to use the default model).
+     * @return double - Area of stirrups per length Asw/s [mm²/m], NaN when the compression struts are crushed.
+     */
+    static double shear(double vk, double bw, double d, double fck, double fywk, double As,
+                        Code code, CodeParameters parameters, double theta) {
+        return shear(vk, bw, d, fck, fywk, As, code, MemberKernel.of(code), parameters, theta);
+    }
+
+
+
+    // Shear design with the member kernel of the code already resolved (design loops)
+    static double shear(double vk, double bw, double d, double fck, double fywk, double As,
+                        Code code, MemberKernel member, CodeParameters parameters, double theta) {
+        double Vsd = Math.abs(vk) * code.getGf(); // Design Shear Force.
+        double fcd = fck / code.getGc(); // Design Concrete Strength.
+        // Per meter of the element [mm²/m]
+        return member.shear(Vsd, bw, d, fcd, fywk, As, code, parameters, theta)*1000;
     }
-    
 }
@@ -0,0 +1,323 @@
+package calculations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import enums.GRADES;
+import sections.Steel;
+import standards.Code;
+import standards.CodeParameters;
+import utils.NeutralAxisSolver;
+
+/**
+ * Searches the cheapest rectangular sections (width, effective height, concrete and steel)
+ * that resist a bending moment, considering the costs of concrete, steel and formwork per meter of element.
+ *
+ * Each combination of width, concrete and steel is searched in parallel (fork/join), with the heights in ascending order.
+ * Since the cost of concrete and formwork grows with the height and the steel area falls with it,
+ * a combination stops as soon as its concrete and formwork alone exceed the designs already found,
+ * and a height is skipped when even the minimum steel (As >= Msd/(fyd*d)) can't beat them.
+ * The design table (DesignTable) only prunes the heights: its steel, less a margin for the interpolation error,
+ * must beat the designs found. The heights left are designed again with the routine of Resistance.Flexural,
+ * and only these areas are ranked and returned.
+ */
+public class SectionOptimizer {
+
+    // Specific weight of the steel [kg/m³]
+    private static final double STEEL_DENSITY = 7850;
+
+    // Maximum reinforcement ratio (As + As2)/Ac, NBR 6118 - 17.3.5.2.4 and Eurocode 2 - 9.2.1.1
+    private static final double MAX_REINFORCEMENT = 0.04;
+
+    // Combinations of width, concrete and steel searched by each task
+    private static final int THRESHOLD = 4;
+
+    // Margin of the steel of the design table when it prunes a height: relative, and the rounding of the areas [mm²]
+    private static final double TABLE_MARGIN = 0.01;
+    private static final double ROUNDING = 1;
+
+    private final Code code;
+    private final double[] widths;
+    private final double[] heights;
+    private final GRADES.Concrete[] concretes;
+    private final GRADES.Grade[] grades;
+
+    // Costs
+    private final Map<GRADES.Concrete, Double> concreteCost;
+    private final double steelCost;
+    private final double formworkCost;
+
+    // Distance from the effective height to the bottom of the section [millimeter]
+    private final double cover;
+
+    // Allows doubly reinforced sections (compression steel past the neutral axis limit)
+    private final boolean compressionSteel;
+
+
+
+    /**
+     * Constructor with the search space and the costs.
+     * @param code         Code     - Defines the code parameters and coeficients.
+     * @param widths       double[] - Widths searched [millimeter].
+     * @param heights      double[] - Effective heights searched [millimeter].
+     * @param concretes    GRADES.Concrete[] - Classes of concrete searched.
+     * @param grades       GRADES.Grade[]    - Grades of steel searched.
+     * @param concreteCost Map - Cost of each class of concrete per cubic meter.
+     * @param steelCost    double - Cost of the steel per kilogram.
+     * @param formworkCost double - Cost of the formwork per square meter (bottom and both sides).
+     * @param cover        double - Distance from the effective height to the bottom of the section [millimeter].
+     * @param compressionSteel boolean - Allows designs with compression reinforcement.
+     */
+    public SectionOptimizer(Code code, double[] widths, double[] heights, GRADES.Concrete[] concretes, GRADES.Grade[] grades,
+                            Map<GRADES.Concrete, Double> concreteCost, double steelCost, double formworkCost,
+                            double cover, boolean compressionSteel){
+        if (widths.length == 0 || heights.length == 0 || concretes.length == 0 || grades.length == 0) {
+            throw new IllegalArgumentException("The search space must not be empty");
+        }
+        for (double value : widths) {
+            if (value <= 0) { throw new IllegalArgumentException("Input values must be > 0"); }
+        }
+        for (double value : heights) {
+            if (value <= 0) { throw new IllegalArgumentException("Input values must be > 0"); }
+        }
+        for (GRADES.Concrete concrete : concretes) {
+            if (concreteCost.get(concrete) == null) {
+                throw new IllegalArgumentException("Missing cost of the concrete " + concrete);
+            }
+        }
+        if (steelCost < 0 || formworkCost < 0 || cover < 0) {
+            throw new IllegalArgumentException("Input values must be >= 0");
+        }
+        this.code = code;
+        this.widths = widths.clone();
+        this.heights = heights.clone();
+        Arrays.sort(this.heights);
+        this.concretes = concretes.clone();
+        this.grades = grades.clone();
+        this.concreteCost = new EnumMap<>(concreteCost);
+        this.steelCost = steelCost;
+        this.formworkCost = formworkCost;
+        this.cover = cover;
+        this.compressionSteel = compressionSteel;
+    }
+
+
+
+    /**
+     * Searches the cheapest designs for the moment.
+     * @param mk    double - Characteristic bending moment applied [N.mm].
+     * @param count int    - Number of designs returned.
+     * @return List - The cheapest feasible designs, from the cheapest (empty if none is feasible).
+     */
+    public List<Design> optimize(double mk, int count){
+        if (count <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        Ranking ranking = new Ranking(count);
+        int combinations = widths.length*concretes.length*grades.length;
+        ForkJoinPool.commonPool().invoke(new Search(mk, ranking, 0, combinations));
+        return ranking.sorted();
+    }
+
+
+
+    // Searches the heights of the combinations [from, to) of width, concrete and steel
+    private class Search extends RecursiveAction {
+        private final double mk;
+        private final Ranking ranking;
+        private final int from, to;
+
+        Search(double mk, Ranking ranking, int from, int to){
+            this.mk = mk;
+            this.ranking = ranking;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Search(mk, ranking, from, middle), new Search(mk, ranking, middle, to));
+                return;
+            }
+            double[] As = new double[1];
+            double[] As2 = new double[1];
+            NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+            FlexuralKernel kernel = FlexuralKernel.of(code);
+            for (int combination = from; combination < to; combination++) {
+                double b = widths[combination % widths.length];
+                GRADES.Concrete concrete = concretes[(combination / widths.length) % concretes.length];
+                GRADES.Grade grade = grades[combination / (widths.length*concretes.length)];
+                search(mk, b, concrete, grade, ranking, kernel, solution, As, As2);
+            }
+        }
+    }
+
+
+
+    // Searches the heights (ascending) of a width, concrete and steel
+    private void search(double mk, double b, GRADES.Concrete concrete, GRADES.Grade grade, Ranking ranking,
+                        FlexuralKernel kernel, NeutralAxisSolver.Solution solution, double[] As, double[] As2){
+        DesignTable table = DesignTable.of(code, concrete, grade);
+        CodeParameters parameters = code.getParameters(concrete.getFck());
+        Steel steel = new Steel(grade);
+        boolean accurate = table.isWithinTolerance();
+        double Msd = mk*code.getGf();
+        double fcd = concrete.getFck()/code.getGc();
+        double fyd = grade.getFyk()/code.getGs();
+        double unitConcrete = concreteCost.get(concrete);
+        // Minimum height without compression reinforcement: mu = Msd/(b*d²*fcd) <= muLim
+        double dmin = compressionSteel ? 0 : Math.sqrt(Msd/(table.getMuLimit()*b*fcd));
+
+        for (double d : heights) {
+            if (d < dmin) {
+                continue;
+            }
+            double h = d + cover;
+            double fixed = unitConcrete*(b*h*1e-6) + formworkCost*((b + 2*h)*1e-3);
+            double limit = ranking.threshold();
+            // Concrete and formwork grow with the height: no taller section can be cheaper
+            if (fixed >= limit) {
+                break;
+            }
+            // The lever arm is below d, so As >= Msd/(fyd*d)
+            if (fixed + steel(Math.max(Msd, 0)/(fyd*d)) >= limit) {
+                continue;
+            }
+            // Pruned by the table, with a margin for its interpolation error (not used when its tolerance was not met)
+            if (accurate) {
+                table.Flexural(mk, b, d, As, As2, 0);
+                double estimate = Math.max((As[0] + As2[0])*(1 - TABLE_MARGIN) - ROUNDING, 0);
+                if (fixed + steel(estimate) >= limit) {
+                    continue;
+                }
+            }
+            // Exact design of the height left (Resistance.Flexural)
+            Resistance.flexural(mk, b, d, concrete.getFck(), grade.getFyk(), steel.getEs(), steel.getesu(), code, kernel,
+                                parameters, NeutralAxisSolver.DEFAULT, Double.NaN, solution, As, As2, 0);
+            double area = As[0] + As2[0];
+            if (!(As[0] >= 0 && As2[0] >= 0) || area > MAX_REINFORCEMENT*b*h) {
+                continue;
+            }
+            ranking.offer(new Design(b, d, concrete, grade, As[0], As2[0], fixed + steel(area)));
+        }
+    }
+
+
+    // Cost of the steel area per meter of element
+    private double steel(double area){
+        return steelCost*area*1e-6*STEEL_DENSITY;
+    }
+
+
+
+    // Cheapest designs found, shared by all the tasks
+    private static class Ranking {
+        private final int count;
+        private final PriorityQueue<Design> designs; // Most expensive at the head
+        private volatile double threshold = Double.POSITIVE_INFINITY;
+
+        Ranking(int count){
+            this.count = count;
+            this.designs = new PriorityQueue<>(count + 1, (a, b) -> Double.compare(b.cost, a.cost));
+        }
+
+        // Cost that a design must beat to enter the ranking
+        double threshold(){
+            return threshold;
+        }
+
+        synchronized void offer(Design design){
+            if (design.cost >= threshold) {
+                return;
+            }
+            designs.add(design);
+            if (designs.size() > count) {
+                designs.poll();
+            }
+            if (designs.size() == count) {
+                threshold = designs.peek().cost;
+            }
+        }
+
+        synchronized List<Design> sorted(){
+            List<Design> list = new ArrayList<>(designs);
+            Collections.sort(list, (a, b) -> Double.compare(a.cost, b.cost));
+            return list;
+        }
+    }
+
+
+
+    /**
+     * Section found by the optimizer.
+     */
+    public static class Design {
+        private final double b;
+        private final double d;
+        private final GRADES.Concrete concrete;
+        private final GRADES.Grade grade;
+        private final double As;
+        private final double As2;
+        private final double cost;
+
+        Design(double b, double d, GRADES.Concrete concrete, GRADES.Grade grade, double As, double As2, double cost){
+            this.b = b;
+            this.d = d;
+            this.concrete = concrete;
+            this.grade = grade;
+            this.As = As;
+            this.As2 = As2;
+            this.cost = cost;
+        }
+
+        /** @return double return the section width - b [millimeter] */
+        public double getWidth() {
+            return b;
+        }
+
+        /** @return double return the section eff. Height - d [millimeter] */
+        public double getHeight() {
+            return d;
+        }
+
+        /** @return GRADES.Concrete return the class of the concrete */
+        public GRADES.Concrete getConcrete() {
+            return concrete;
+        }
+
+        /** @return GRADES.Grade return the grade of the steel */
+        public GRADES.Grade getGrade() {
+            return grade;
+        }
+
+        /** @return double return the Reinforcement area in tension [mm²] */
+        public double getAs() {
+            return As;
+        }
+
+        /** @return double return the Reinforcement area in Compression [mm²] */
+        public double getAs2() {
+            return As2;
+        }
+
+        /** @return double return the cost per meter of element */
+        public double getCost() {
+            return cost;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s b=%.0fmm d=%.0fmm As=%.0fmm² As2=%.0fmm² cost=%.2f",
+                                 concrete, grade, b, d, As, As2, cost);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package calculations;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import sections.Steel;
+import standards.*;
+
+/**
+ * Class that performs the serviceability checks (SLS) of designed rectangular sections:
+ * cracking moment, crack width, and immediate and long-term deflection with the effective inertia of Branson.
+ * The reinforcement areas already designed (As and As2) are used, the section is not solved again.
+ *
+ * Cracking moment: Mr = a*fctm*Ic/yt, a = 1.5 for rectangular sections (NBR 6118 - 17.3.1), a = 1 (Eurocode 2 - 7.4.3).
+ * Stage II (cracked): neutral axis and inertia of the transformed section, with ae = Es/Ecs for As and (ae - 1) for As2
+ * (the compression bars replace the concrete of their area).
+ * Branson: Ieff = (Mr/Ma)³*Ic + (1 - (Mr/Ma)³)*III <= Ic.
+ * Long-term deflection:
+ *   NBR 6118 - 17.3.2.1.2: af = dxi/(1 + 50*p'), dxi = 2 - 0.68*0.996*1^0.32 (loading at 1 month, t >= 70 months).
+ *   Eurocode 2 - 7.4.3: effective modulus Ecm/(1 + phi), with the creep coefficient phi = 2.0.
+ * Crack width:
+ *   NBR 6118 - 17.3.3.2: the lowest of phi/(12.5*n1)*ss/Es*3*ss/fctm and phi/(12.5*n1)*ss/Es*(4/pr + 45), n1 = 2.25.
+ *   Eurocode 2 - 7.3.4: sr,max*(esm - ecm), sr,max = 3.4*c + 0.425*k1*k2*phi/pr, k1 = 0.8, k2 = 0.5, kt = 0.4.
+ * The ratio pr is taken on the effective area around the bars, b*min(2.5*(h - d), (h - x)/3, h/2) (Eurocode 2 - 7.3.2).
+ * The rules that depend on the code (a of Mr, long-term deflection and crack width) are given by its MemberKernel.
+ */
+public class Serviceability {
+
+    // Reference steel used for the properties that do not depend on the grade (Es)
+    private static final Steel REFERENCE = new Steel(enums.GRADES.Grade.CA50);
+
+    // Pre-estabeleced position of the compression reinforcement [millimeter]
+    private static final double D2 = 50;
+
+    // Sections checked by each task
+    private static final int THRESHOLD = 4096;
+
+
+
+    /**
+     * Checks the serviceability of all the sections, in parallel.
+     * @param code Code     - Defines the code parameters (NBR 6118 or Eurocode 2).
+     * @param b    double[] - Width of each section [millimeter].
+     * @param d    double[] - Effective height of each section [millimeter].
+     * @param h    double[] - Total height of each section [millimeter].
+     * @param fck  double[] - Concrete compressive strength of each section [MPa].
+     * @param As   double[] - Reinforcement area in tension of each section [mm²].
+     * @param As2  double[] - Reinforcement area in compression of each section [mm²].
+     * @param Ma   double[] - Service bending moment of each section (quasi-permanent combination) [N.mm].
+     * @param span double[] - Span of each element [millimeter].
+     * @param coefficient double - Coefficient of the deflection, a = k*Ma*l²/(E*I) (5/48 for simple supports and uniform load).
+     * @param phi  double   - Diameter of the bars in tension [millimeter].
+     * @param Mr        double[] - Output: cracking moment [N.mm].
+     * @param wk        double[] - Output: characteristic crack width [millimeter] (0 when not cracked).
+     * @param immediate double[] - Output: immediate deflection [millimeter].
+     * @param total     double[] - Output: total (long-term) deflection [millimeter].
+     */
+    public static void Check(Code code, double[] b, double[] d, double[] h, double[] fck, double[] As, double[] As2,
+                             double[] Ma, double[] span, double coefficient, double phi,
+                             double[] Mr, double[] wk, double[] immediate, double[] total) {
+        int size = b.length;
+        if (d.length != size || h.length != size || fck.length != size || As.length != size || As2.length != size
+            || Ma.length != size || span.length != size || Mr.length < size || wk.length < size
+            || immediate.length < size || total.length < size) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        if (!(coefficient > 0) || !(phi > 0)) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        for (int i = 0; i < size; i++) {
+            if (b[i] <= 0 || d[i] <= 0 || h[i] < d[i] || fck[i] <= 0 || span[i] <= 0 || As[i] < 0 || As2[i] < 0) {
+                throw new IllegalArgumentException("Input values must be > 0 (and h >= d)");
+            }
+        }
+        MemberKernel member = MemberKernel.of(code);
+        ForkJoinPool.commonPool().invoke(new Task(code, member, b, d, h, fck, As, As2, Ma, span, coefficient, phi,
+                                                  Mr, wk, immediate, total, 0, size));
+    }
+
+
+
+    // Checks the sections [from, to)
+    private static class Task extends RecursiveAction {
+        private final Code code;
+        private final MemberKernel member;
+        private final double[] b, d, h, fck, As, As2, Ma, span, Mr, wk, immediate, total;
+        private final double coefficient, phi;
+        private final int from, to;
+
+        Task(Code code, MemberKernel member, double[] b, double[] d, double[] h, double[] fck, double[] As, double[] As2, double[] Ma,
+             double[] span, double coefficient, double phi, double[] Mr, double[] wk, double[] immediate,
+             double[] total, int from, int to){
+            this.code = code;
+            this.member = member;
+            this.b = b; this.d = d; this.h = h; this.fck = fck;
+            this.As = As; this.As2 = As2; this.Ma = Ma; this.span = span;
+            this.coefficient = coefficient; this.phi = phi;
+            this.Mr = Mr; this.wk = wk; this.immediate = immediate; this.total = total;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Task(code, member, b, d, h, fck, As, As2, Ma, span, coefficient, phi, Mr, wk, immediate, total, from, middle),
+                          new Task(code, member, b, d, h, fck, As, As2, Ma, span, coefficient, phi, Mr, wk, immediate, total, middle, to));
+                return;
+            }
+            double[] out = new double[4];
+            double[] stage = new double[2];
+            double lastFck = Double.NaN;
+            CodeParameters parameters = null;
+            for (int i = from; i < to; i++) {
+                if (fck[i] != lastFck) {
+                    parameters = code.getParameters(fck[i]);
+                    lastFck = fck[i];
+                }
+                check(b[i], d[i], h[i], As[i], As2[i], Math.abs(Ma[i]), span[i], coefficient, phi, member, parameters,
+                      out, stage);
+                Mr[i] = out[0];
+                wk[i] = out[1];
+                immediate[i] = out[2];
+                total[i] = out[3];
+            }
+        }
+    }
+
+
+
+    /**
+     * Serviceability of a single section over primitive values.
+     * @param member MemberKernel - Rules of the code (a of Mr, long-term deflection and crack width).
+     * @param out   double[4] - Output: [Mr, wk, immediate deflection, total deflection].
+     * @param stage double[2] - Holder reused by the Stage II of the sections.
+     */
+    static void check(double b, double d, double h, double As, double As2, double Ma, double span,
+                      double coefficient, double phi, MemberKernel member, CodeParameters parameters,
+                      double[] out, double[] stage) {
+        double Es   = REFERENCE.getEs();
+        double Ecs  = parameters.getEcs();
+        double fctm = parameters.getFctm();
+
+        // Stage I: gross section
+        double Ic = b*h*h*h/12;
+        double Mr = member.crackingFactor()*fctm*Ic/(h/2);
+
+        // Stage II (cracked) and deflections
+        cracked(b, d, As, As2, Es/Ecs, stage);
+        double x = stage[0];
+        double III = stage[1];
+        double stiffness = coefficient*Ma*span*span;
+        double immediate = stiffness/(Ecs*branson(Mr, Ma, Ic, III));
+        double total = member.longTerm(immediate, b, d, As, As2, Ma, stiffness, Mr, Ic, Es, Ecs, stage);
+
+        // Crack width, with the stress of the steel in Stage II
+        double wk = 0;
+        if (Ma > Mr && As > 0) {
+            double ss = (Es/Ecs)*Ma*(d - x)/III;
+            double pr = As/(b*Math.min(Math.min(2.5*(h - d), (h - x)/3), h/2));
+            wk = member.crackWidth(phi, ss, pr, h, d, fctm, Es, Ecs);
+        }
+        out[0] = Mr;
+        out[1] = wk;
+        out[2] = immediate;
+        out[3] = total;
+    }
+
+
+
+    // Neutral axis and inertia of the cracked section: [xII, III]
+    static void cracked(double b, double d, double As, double As2, double ae, double[] stage){
+        // b*x²/2 + (ae - 1)*As2*(x - d2) - ae*As*(d - x) = 0
+        double A = b/2;
+        double B = ae*As + (ae - 1)*As2;
+        double C = -(ae*As*d + (ae - 1)*As2*D2);
+        double x = (As + As2 > 0) ? (-B + Math.sqrt(B*B - 4*A*C))/(2*A) : 0;
+        stage[0] = x;
+        stage[1] = b*x*x*x/3 + ae*As*(d - x)*(d - x) + (ae - 1)*As2*(x - D2)*(x - D2);
+    }
+
+
+    // Effective inertia of Branson
+    static double branson(double Mr, double Ma, double Ic, double III){
+        if (Ma <= Mr || III <= 0) {
+            return Ic;
+        }
+        double ratio = Mr/Ma;
+        ratio = ratio*ratio*ratio;
+        return Math.min(ratio*Ic + (1 - ratio)*III, Ic);
+    }
+}
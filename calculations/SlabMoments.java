@@ -0,0 +1,103 @@
+package calculations;
+
+import enums.SUPPORTS.Edge;
+import enums.SUPPORTS.Support;
+
+/**
+ * Class that calculates the bending moments of rectangular slab panels supported on the four edges,
+ * under a uniform load, by the division of the load in strips of the two directions.
+ *
+ * The load is divided so both strips have the same deflection at the center of the panel:
+ *   kx = ay*ly^4 / (ax*lx^4 + ay*ly^4), with a = 5 (simple-simple), 2 (fixed-simple) or 1 (fixed-fixed)
+ * Each strip is then a beam with its supports:
+ *   positive M = k*p*l²/m, with m = 8, 14.22 or 24, and negative X = k*p*l²/n, with n = 8 (fixed-simple) or 12.
+ *
+ * MARCUS - The positive moments are reduced by the torsion of the corners (usual with the NBR 6118):
+ *   v = 1 - (20/(3*m))*(l/l')²*k
+ * STRIP  - Strip method of Grashof-Rankine, without the reduction for the torsion (conservative).
+ *   A lower bound distribution of the moments, admitted by the Eurocode 2 - 5.6.
+ */
+public class SlabMoments {
+
+    /**
+     * Defines the methods available to obtain the moments of the panels.
+     */
+    public enum Method {
+        MARCUS, // Strips with the correction for the torsion of Marcus (NBR 6118)
+        STRIP   // Strips of Grashof-Rankine, without correction (Eurocode 2)
+    }
+
+    // Positions of the moments in the outputs
+    public static final int MX = 0; // Positive moment of the strips along x
+    public static final int MY = 1; // Positive moment of the strips along y
+    public static final int EDGES = 2; // Negative moment of the edge e at EDGES + e.ordinal()
+
+
+
+    /**
+     * Moments per meter of the panel (characteristic values, positive values for the negative moments).
+     * @param lx       double - Span of the panel along x [millimeter].
+     * @param ly       double - Span of the panel along y [millimeter].
+     * @param load     double - Uniform characteristic load on the panel [kN/m²].
+     * @param supports Support[] - Support of each edge (indexed by Edge.ordinal()).
+     * @param method   Method - Method used to obtain the moments.
+     * @param moments  double[6] - Output: [Mx, My, X left, X right, X bottom, X top] [N.mm/m].
+     */
+    public static void Moments(double lx, double ly, double load, Support[] supports, Method method, double[] moments){
+        if (lx <= 0 || ly <= 0 || load < 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        int fixedX = fixed(supports, Edge.LEFT, Edge.RIGHT);
+        int fixedY = fixed(supports, Edge.BOTTOM, Edge.TOP);
+
+        // Division of the load by the deflection of the strips
+        double ax = deflection(fixedX), ay = deflection(fixedY);
+        double kx = ay*Math.pow(ly, 4)/(ax*Math.pow(lx, 4) + ay*Math.pow(ly, 4));
+        double ky = 1 - kx;
+
+        // Load [kN/m² = 1e-3 N/mm²] on a strip of 1000 mm: p*l² [N.mm/m]
+        double mx = kx*load*lx*lx;
+        double my = ky*load*ly*ly;
+
+        // Positive moments, reduced by the torsion of the corners (Marcus)
+        double vx = 1, vy = 1;
+        if (method == Method.MARCUS) {
+            vx = Math.max(0, 1 - 20/(3*positive(fixedX))*(lx/ly)*(lx/ly)*kx);
+            vy = Math.max(0, 1 - 20/(3*positive(fixedY))*(ly/lx)*(ly/lx)*ky);
+        }
+        moments[MX] = vx*mx/positive(fixedX);
+        moments[MY] = vy*my/positive(fixedY);
+
+        // Negative moments at the fixed edges
+        for (Edge edge : Edge.values()) {
+            boolean isFixed = supports[edge.ordinal()] == Support.FIXED;
+            moments[EDGES + edge.ordinal()] = !isFixed ? 0
+                : edge.isX() ? mx/negative(fixedX) : my/negative(fixedY);
+        }
+    }
+
+
+    // Number of fixed edges of a direction
+    private static int fixed(Support[] supports, Edge first, Edge second){
+        return (supports[first.ordinal()] == Support.FIXED ? 1 : 0)
+             + (supports[second.ordinal()] == Support.FIXED ? 1 : 0);
+    }
+
+
+    // Coefficient of the deflection of the strip (x 1/384)
+    private static double deflection(int fixed){
+        return (fixed == 0) ? 5 : (fixed == 1) ? 2 : 1;
+    }
+
+
+    // Divisor of the positive moment of the strip
+    private static double positive(int fixed){
+        return (fixed == 0) ? 8 : (fixed == 1) ? 14.22 : 24;
+    }
+
+
+    // Divisor of the negative moment of the strip
+    private static double negative(int fixed){
+        return (fixed == 1) ? 8 : 12;
+    }
+}
@@ -0,0 +1,187 @@
+package calculations;
+
+import java.util.HashMap;
+
+import sections.ConcreteSection;
+import sections.Steel;
+import standards.*;
+import utils.BatchEvent;
+import utils.DesignMetrics;
+import utils.NeutralAxisSolver;
+
+/**
+ * Flexural design of the stations of a span, from its bending moment diagram.
+ * Positive moments put the bottom of the section in tension, negative moments the top.
+ *
+ * The stations are designed in order, and each solve starts from the neutral axis of the previous station
+ * (NBR 6118), with Newton by default (WARM): only a few passes are needed between close stations.
+ * Its neutral axes agree with the bisection of Resistance.Flexural within the tolerance of the solver,
+ * so the areas of the stations agree with the design of each section alone within their rounding.
+ * Stations with a moment already designed (constant ranges, symmetric diagrams) are copied instead of solved.
+ */
+public class SpanDesign {
+
+    // Solver used by default: Newton from the previous station, with the tolerance of the default solver
+    public static final NeutralAxisSolver WARM =
+        new NeutralAxisSolver(NeutralAxisSolver.Method.NEWTON, NeutralAxisSolver.DEFAULT.getTolerance());
+
+
+
+    public static Envelope Flexural(double[] mk, ConcreteSection section, Code code, Steel steel) {
+        return Flexural(mk, section, code, steel, WARM);
+    }
+
+
+
+    /**
+     * Designs each station of the span with the section (same section along the span).
+     * @param mk      double[] - Characteristic bending moment at each station [N.mm].
+     * @param section ConcreteSection - Section of the span.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @param solver  NeutralAxisSolver - Method and tolerance used to converge the Neutral Axis
+     *                                    (all the methods start from the previous station).
+     * @return Envelope - Reinforcement areas at each station, and their maximum at the bottom and top.
+     */
+    public static Envelope Flexural(double[] mk, ConcreteSection section, Code code, Steel steel, NeutralAxisSolver solver) {
+        if (mk.length == 0) {
+            throw new IllegalArgumentException("The moment diagram must not be empty");
+        }
+        BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+        CodeParameters parameters = code.getParameters(section.getFck());
+        FlexuralKernel kernel = FlexuralKernel.of(code);
+        NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+        Envelope envelope = new Envelope(mk.length);
+        // Stations already designed for each absolute moment
+        HashMap<Double, Integer> designed = new HashMap<>();
+
+        double guess = Double.NaN;
+        for (int i = 0; i < mk.length; i++) {
+            double moment = Math.abs(mk[i]);
+            // Same moment of the previous station, or of another station
+            Integer station = (i > 0 && moment == Math.abs(mk[i-1])) ? Integer.valueOf(i-1) : designed.get(moment);
+            if (station != null) {
+                envelope.As[i] = envelope.As[station];
+                envelope.As2[i] = envelope.As2[station];
+                envelope.skipped++;
+            } else {
+                Resistance.flexural(moment, section.getWidth(), section.getHeight(), section.getFck(), steel.getfyk(),
+                                    steel.getEs(), steel.getesu(), code, kernel, parameters, solver, guess, solution,
+                                    envelope.As, envelope.As2, i);
+                designed.put(moment, i);
+                envelope.iterations += solution.getIterations();
+                // The next station starts from this neutral axis
+                guess = solution.getXk();
+            }
+            // Face in tension
+            if (mk[i] < 0) {
+                envelope.top[i] = envelope.As[i];
+                envelope.bottom[i] = envelope.As2[i];
+            } else {
+                envelope.bottom[i] = envelope.As[i];
+                envelope.top[i] = envelope.As2[i];
+            }
+            envelope.maxBottom = Math.max(envelope.maxBottom, envelope.bottom[i]);
+            envelope.maxTop = Math.max(envelope.maxTop, envelope.top[i]);
+        }
+        if (event != null) {
+            DesignMetrics.endBatch(event, "SpanDesign", kernel.name(), mk.length - envelope.skipped, envelope.iterations);
+        }
+        return envelope;
+    }
+
+
+
+    /**
+     * Designs each station of the span for an envelope of moments (pattern loading): the bottom for the
+     * maximum moments and the top for the minimum moments. The areas of each station are the largest of both.
+     * @param max     double[] - Maximum characteristic bending moment at each station [N.mm].
+     * @param min     double[] - Minimum characteristic bending moment at each station [N.mm].
+     * @param section ConcreteSection - Section of the span.
+     * @param code    Code   - Defines the code parameters and coeficients.
+     * @param steel   Steel  - Steel used as reinforcement.
+     * @return Envelope - Reinforcement areas at each station, and their maximum at the bottom and top.
+     */
+    public static Envelope Flexural(double[] max, double[] min, ConcreteSection section, Code code, Steel steel) {
+        if (max.length != min.length) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        Envelope upper = Flexural(max, section, code, steel);
+        Envelope lower = Flexural(min, section, code, steel);
+        Envelope envelope = new Envelope(max.length);
+        for (int i = 0; i < max.length; i++) {
+            envelope.As[i] = Math.max(upper.As[i], lower.As[i]);
+            envelope.As2[i] = Math.max(upper.As2[i], lower.As2[i]);
+            envelope.bottom[i] = Math.max(upper.bottom[i], lower.bottom[i]);
+            envelope.top[i] = Math.max(upper.top[i], lower.top[i]);
+            envelope.maxBottom = Math.max(envelope.maxBottom, envelope.bottom[i]);
+            envelope.maxTop = Math.max(envelope.maxTop, envelope.top[i]);
+        }
+        envelope.skipped = upper.skipped + lower.skipped;
+        envelope.iterations = upper.iterations + lower.iterations;
+        return envelope;
+    }
+
+
+
+    /**
+     * Reinforcement areas along the span.
+     */
+    public static class Envelope {
+        final double[] As;     // Reinforcement in tension at each station [mm²]
+        final double[] As2;    // Reinforcement in compression at each station [mm²]
+        final double[] bottom; // Reinforcement at the bottom of each station [mm²]
+        final double[] top;    // Reinforcement at the top of each station [mm²]
+        double maxBottom;
+        double maxTop;
+        int skipped;    // Stations copied from another station with the same moment
+        int iterations; // Passes of the solver used in all stations
+
+        Envelope(int stations){
+            this.As = new double[stations];
+            this.As2 = new double[stations];
+            this.bottom = new double[stations];
+            this.top = new double[stations];
+        }
+
+        /** @return double[] return the reinforcement area in tension at each station [mm²] */
+        public double[] getAs() {
+            return As.clone();
+        }
+
+        /** @return double[] return the reinforcement area in compression at each station [mm²] */
+        public double[] getAs2() {
+            return As2.clone();
+        }
+
+        /** @return double[] return the reinforcement area at the bottom of each station [mm²] */
+        public double[] getBottom() {
+            return bottom.clone();
+        }
+
+        /** @return double[] return the reinforcement area at the top of each station [mm²] */
+        public double[] getTop() {
+            return top.clone();
+        }
+
+        /** @return double return the maximum reinforcement area at the bottom along the span [mm²] */
+        public double getMaxBottom() {
+            return maxBottom;
+        }
+
+        /** @return double return the maximum reinforcement area at the top along the span [mm²] */
+        public double getMaxTop() {
+            return maxTop;
+        }
+
+        /** @return int return the number of stations copied from another station with the same moment */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /** @return int return the number of passes of the solver used in all stations */
+        public int getIterations() {
+            return iterations;
+        }
+    }
+}
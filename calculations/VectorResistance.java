@@ -0,0 +1,142 @@
+package calculations;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import sections.Steel;
+import standards.Code;
+import standards.CodeParameters;
+import utils.BatchEvent;
+import utils.DesignMetrics;
+import utils.NeutralAxisSolver;
+
+/**
+ * Flexural design of many sections at once by the Eurocode 2, with the SIMD instructions of the Vector API.
+ * The rectangular diagram of the Eurocode 2 has a closed form, so whole lanes of sections are designed
+ * with the same operations of Resistance.Flexural, in the same order, and the results are exactly the same.
+ * The parameters of each lane (ac, lambda and LN) are calculated in the lanes, from the fck limited to 90 MPa.
+ * The remaining sections that do not fill a vector are designed with the scalar routine.
+ *
+ * The Vector API is an incubator module of the JDK, it must be added to the JVM:
+ *   java --add-modules jdk.incubator.vector ...
+ */
+public class VectorResistance {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // Reference steel used for the properties that do not depend on the grade (Es and esu)
+    private static final Steel REFERENCE = new Steel(enums.GRADES.Grade.CA50);
+
+    // Pre-estabeleced position of the compression reinforcement [millimeter]
+    private static final double D2 = 50;
+
+
+
+    /**
+     * Designs all the sections by the Eurocode 2, with the same results of BatchResistance.Flexural.
+     * @param code Code     - Defines the code coeficients, must be a code with the parameters of the Eurocode 2.
+     * @param mk   double[] - Characteristic bending moment applied in each section [N.mm].
+     * @param b    double[] - Width of each section [millimeter].
+     * @param d    double[] - Effective height of each section [millimeter].
+     * @param fck  double[] - Concrete compressive strength of each section [MPa].
+     * @param fyk  double[] - Steel characteristic resistance of each section [MPa].
+     * @param As   double[] - Output: area of steel reinforcement in tension [mm²].
+     * @param As2  double[] - Output: area of steel reinforcement in compression [mm²].
+     */
+    public static void Flexural(Code code, double[] mk, double[] b, double[] d, double[] fck, double[] fyk,
+                                double[] As, double[] As2) {
+        int size = mk.length;
+        if (b.length != size || d.length != size || fck.length != size || fyk.length != size
+            || As.length < size || As2.length < size) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        for (int i = 0; i < size; i++) {
+            if (b[i] <= 0 || d[i] <= 0 || fck[i] <= 0 || fyk[i] <= 0) {
+                throw new IllegalArgumentException("Input values must be > 0");
+            }
+        }
+        // The lanes reproduce the kernel of the Eurocode 2, codes with other kernels are not accepted
+        FlexuralKernel kernel = FlexuralKernel.of(code);
+        if (kernel.getClass() != EuropeanKernel.class) {
+            throw new IllegalArgumentException("The vector design is only available for the Eurocode 2");
+        }
+        BatchEvent event = DesignMetrics.active() ? DesignMetrics.beginBatch() : null;
+
+        double gc = code.getGc();
+        double gs = code.getGs();
+        double gf = code.getGf();
+        double Es  = REFERENCE.getEs();
+        double esu = REFERENCE.getesu();
+        double ecu = code.getParameters(25).getecu(); // Same for every fck
+
+        // Lanes of sections: the areas before the rounding are stored in the outputs
+        int i = 0;
+        int bound = SPECIES.loopBound(size);
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector vb  = DoubleVector.fromArray(SPECIES, b, i);
+            DoubleVector vd  = DoubleVector.fromArray(SPECIES, d, i);
+            DoubleVector vfck = DoubleVector.fromArray(SPECIES, fck, i);
+
+            // Parameters of the code for the fck of each lane (EuropeanParameters)
+            DoubleVector limited = vfck.min(90);
+            VectorMask<Double> high = limited.compare(VectorOperators.GT, 50);
+            DoubleVector excess = limited.sub(50);
+            DoubleVector ac = DoubleVector.broadcast(SPECIES, 0.85)
+                .blend(DoubleVector.broadcast(SPECIES, 1).sub(excess.div(200)).mul(0.85), high);
+            DoubleVector lambda = DoubleVector.broadcast(SPECIES, 0.8)
+                .blend(DoubleVector.broadcast(SPECIES, 0.8).sub(excess.div(400)), high);
+            DoubleVector LN = DoubleVector.broadcast(SPECIES, 0.45)
+                .blend(DoubleVector.broadcast(SPECIES, 0.35), high);
+
+            // Defines Mechanical Characteristics
+            DoubleVector fcd = vfck.div(gc);
+            DoubleVector fyd = DoubleVector.fromArray(SPECIES, fyk, i).div(gs);
+            DoubleVector Msd = DoubleVector.fromArray(SPECIES, mk, i).mul(gf);
+
+            // Calculation of the Retangular section, kept at the limit when the root is negative
+            DoubleVector force = ac.mul(fcd).mul(vb);
+            DoubleVector root = vd.mul(vd).sub(Msd.mul(2).div(force));
+            DoubleVector limit = LN.mul(vd);
+            DoubleVector xk = vd.sub(root.sqrt()).div(lambda).min(limit)
+                .blend(limit, root.compare(VectorOperators.GT, 0).not());
+            DoubleVector ec = xk.mul(esu).div(vd.sub(xk)).min(ecu);
+            DoubleVector CG = lambda.div(2).mul(xk);
+            DoubleVector Md = force.mul(lambda).mul(xk).mul(vd.sub(CG));
+
+            // Obtain Reinforcements Strains and Stress
+            DoubleVector es  = ec.mul(vd).div(xk).sub(ec);
+            DoubleVector es2 = ec.mul(xk.sub(D2)).div(xk);
+            DoubleVector fs  = fyd.min(es.mul(Es));
+            DoubleVector fs2 = fyd.min(es2.mul(Es));
+
+            // Avoid numerical errors
+            DoubleVector Md2 = Msd.sub(Md);
+            Md2 = Md2.blend(0, Md2.compare(VectorOperators.LE, 50000));
+
+            // Obtain reinforcements area
+            DoubleVector lever2 = vd.sub(D2);
+            DoubleVector as2 = Md2.div(fs2.mul(lever2));
+            DoubleVector as  = Md.div(fs.mul(vd.sub(CG))).add(Md2.div(fs.mul(lever2)));
+            as.intoArray(As, i);
+            as2.intoArray(As2, i);
+        }
+        // Round value to avoid Numerical Computacional errors (long division, as Resistance.Flexural)
+        for (int j = 0; j < i; j++) {
+            As[j]  = Math.round(As[j]*10000)/10000;
+            As2[j] = Math.round(As2[j]*10000)/10000;
+        }
+
+        // Remaining sections with the scalar routine
+        NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+        for (; i < size; i++) {
+            CodeParameters parameters = code.getParameters(fck[i]);
+            Resistance.flexural(mk[i], b[i], d[i], fck[i], fyk[i], Es, esu, code, parameters,
+                                NeutralAxisSolver.DEFAULT, solution, As, As2, i);
+        }
+        if (event != null) {
+            DesignMetrics.endBatch(event, "VectorResistance", kernel.name(), size, 0);
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package cli;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calculations.BatchResistance;
+import calculations.DesignStore;
+import standards.*;
+import utils.NeutralAxisSolver;
+
+/**
+ * Command line tool that designs the sections of a CSV file, with the same routine of Resistance.Flexural.
+ * Each row of the input is: id,type,b,d,fck,grade,mk
+ *   type  - beam or slab (slabs are designed for a strip of 1000 mm, as the Slab class);
+ *   b, d  - Width and effective height [millimeter];
+ *   fck   - Concrete compressive strength [MPa], or the class of the concrete (C25);
+ *   grade - Grade of the steel (CA50), or its characteristic resistance [MPa];
+ *   mk    - Characteristic bending moment applied [N.mm].
+ * The output has a row id,As,As2 [mm²] for each input row, in the same order (NaN for invalid rows).
+ *
+ * The input is memory-mapped and read in blocks of rows, that are parsed directly from the bytes,
+ * designed in parallel and written in order. Only a limited number of blocks is kept in memory,
+ * so the memory used does not depend on the size of the file.
+ *
+ * With a store (--store), the designs of the previous runs are read from the store, and only the new sections
+ * are designed (DesignStore, with the default solver).
+ *
+ * Usage: java cli.BatchDesign input.csv output.csv [--code NBR6118|EUROCODE2] [--solver BISECTION|NEWTON|ILLINOIS] [--threads n]
+ *                             [--store file] [--store-capacity n]
+ */
+public class BatchDesign {
+
+    // Size of the region of the file mapped at once [bytes]
+    private static final long WINDOW = 256L << 20;
+
+    // Size of the block of rows designed by each task [bytes]
+    private static final int BLOCK = 1 << 20;
+
+    private final Code code;
+    private final NeutralAxisSolver solver;
+    private final int threads;
+
+    // Store of the designs of the previous runs (optional)
+    private DesignStore store;
+
+    // Number of invalid rows found
+    private final AtomicLong invalid = new AtomicLong();
+
+
+
+    /**
+     * Constructor of the tool.
+     * @param code    Code - Defines the code parameters and coeficients.
+     * @param solver  NeutralAxisSolver - Method used to converge the Neutral Axis (NBR 6118).
+     * @param threads int  - Number of threads used to design the blocks.
+     */
+    public BatchDesign(Code code, NeutralAxisSolver solver, int threads){
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        this.code = code;
+        this.solver = solver;
+        this.threads = threads;
+    }
+
+
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            usage(null);
+        }
+        Code code = new BrazilianCode();
+        NeutralAxisSolver solver = NeutralAxisSolver.DEFAULT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path storeFile = null;
+        int capacity = 1 << 20;
+        for (int i = 2; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                usage("Missing the value of " + args[i]);
+            }
+            switch (args[i]) {
+                case "--code":
+                    if (args[i+1].equalsIgnoreCase("NBR6118")) {
+                        code = new BrazilianCode();
+                    } else if (args[i+1].equalsIgnoreCase("EUROCODE2")) {
+                        code = new EuropeanCode();
+                    } else {
+                        usage("Unknown code " + args[i+1]);
+                    }
+                    break;
+                case "--solver":
+                    try {
+                        solver = new NeutralAxisSolver(NeutralAxisSolver.Method.valueOf(args[i+1].toUpperCase()),
+                                                       NeutralAxisSolver.DEFAULT.getTolerance());
+                    } catch (IllegalArgumentException e) {
+                        usage("Unknown solver " + args[i+1]);
+                    }
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i+1]);
+                    break;
+                case "--store":
+                    storeFile = Paths.get(args[i+1]);
+                    break;
+                case "--store-capacity":
+                    capacity = Integer.parseInt(args[i+1]);
+                    break;
+                default:
+                    usage("Unknown option " + args[i]);
+            }
+        }
+        BatchDesign design = new BatchDesign(code, solver, threads);
+        if (storeFile == null) {
+            long rows = design.run(Paths.get(args[0]), Paths.get(args[1]));
+            System.err.println(rows + " rows designed, " + design.getInvalid() + " invalid.");
+            return;
+        }
+        try (DesignStore store = DesignStore.open(storeFile, capacity)) {
+            design.setStore(store);
+            long rows = design.run(Paths.get(args[0]), Paths.get(args[1]));
+            System.err.println(rows + " rows designed, " + design.getInvalid() + " invalid, "
+                             + store.getHits() + " read from the store, " + store.getRejected() + " not stored (full).");
+        }
+    }
+
+
+
+    // Prints the error and the usage of the tool, and exits
+    private static void usage(String error){
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println("Usage: BatchDesign input.csv output.csv [--code NBR6118|EUROCODE2]"
+                         + " [--solver BISECTION|NEWTON|ILLINOIS] [--threads n] [--store file] [--store-capacity n]");
+        System.exit(2);
+    }
+
+
+
+    /**
+     * Designs all rows of the input file and writes the results in the output file.
+     * @param input  Path - CSV file with the sections.
+     * @param output Path - CSV file created with the reinforcement areas.
+     * @return long - Number of rows designed.
+     */
+    public long run(Path input, Path output) throws IOException, InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+        long rows = 0;
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+            out.write("id,As,As2\n".getBytes(StandardCharsets.US_ASCII));
+            long size = channel.size();
+            long position = 0;
+            boolean first = true;
+            while (position < size) {
+                // Maps a window of the file, ending at the last complete row
+                long length = Math.min(WINDOW, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = (int) length;
+                if (position + length < size) {
+                    while (end > 0 && window.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IOException("Row longer than " + WINDOW + " bytes at " + position);
+                    }
+                }
+                // Splits the window in blocks of complete rows
+                int start = 0;
+                if (first) {
+                    start = skipHeader(window, end);
+                    first = false;
+                }
+                while (start < end) {
+                    int stop = Math.min(start + BLOCK, end);
+                    while (stop < end && window.get(stop - 1) != '\n') {
+                        stop++;
+                    }
+                    ByteBuffer slice = window.duplicate();
+                    slice.position(start).limit(stop);
+                    ByteBuffer rowsOfBlock = slice.slice();
+                    pending.add(executor.submit(() -> design(rowsOfBlock)));
+                    // Keeps a limited number of blocks in memory, writing them in order
+                    while (pending.size() >= 2*threads) {
+                        rows += write(pending.poll(), out);
+                    }
+                    start = stop;
+                }
+                position += end;
+            }
+            while (!pending.isEmpty()) {
+                rows += write(pending.poll(), out);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return rows;
+    }
+
+
+
+    // Writes the result of a block, waiting for its design
+    private static int write(Future<Block> future, OutputStream out) throws IOException, InterruptedException {
+        try {
+            Block block = future.get();
+            block.output.writeTo(out);
+            return block.rows;
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to design a block of rows", e.getCause());
+        }
+    }
+
+
+    // Skips the first row when it is a header (its width is not a number)
+    private static int skipHeader(ByteBuffer window, int end){
+        int stop = 0;
+        while (stop < end && window.get(stop) != '\n') {
+            stop++;
+        }
+        int[] fields = new int[8];
+        if (split(window, 0, stop, fields) != 7 || Double.isNaN(parseNumber(window, fields[2], fields[3] - 1))) {
+            return Math.min(stop + 1, end);
+        }
+        return 0;
+    }
+
+
+
+    // Rows of a block, and the output produced for them
+    private static class Block {
+        int rows;
+        ByteArrayOutputStream output;
+    }
+
+
+    // Parses, designs and formats the rows of a block
+    private Block design(ByteBuffer buffer){
+        int limit = buffer.limit();
+        // Number of rows of the block
+        int count = 0;
+        for (int i = 0; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                count++;
+            }
+        }
+        if (limit > 0 && buffer.get(limit - 1) != '\n') {
+            count++;
+        }
+
+        int[] idStart = new int[count];
+        int[] idEnd = new int[count];
+        boolean[] valid = new boolean[count];
+        double[] mk = new double[count], b = new double[count], d = new double[count];
+        double[] fck = new double[count], fyk = new double[count];
+        int[] fields = new int[8];
+
+        int rows = 0;
+        int start = 0;
+        while (start < limit) {
+            int stop = start;
+            while (stop < limit && buffer.get(stop) != '\n') {
+                stop++;
+            }
+            int end = stop;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                end--;
+            }
+            if (end > start) {
+                int found = split(buffer, start, end, fields);
+                int row = rows++;
+                idStart[row] = start;
+                idEnd[row] = (found > 0) ? fields[1] - 1 : end;
+                valid[row] = found == 7 && parseRow(buffer, fields, row, mk, b, d, fck, fyk);
+                if (!valid[row]) {
+                    invalid.incrementAndGet();
+                    // Placeholder section, replaced by NaN in the output
+                    mk[row] = 0; b[row] = 1000; d[row] = 100; fck[row] = 25; fyk[row] = 500;
+                }
+            }
+            start = stop + 1;
+        }
+
+        double[] As = new double[rows], As2 = new double[rows];
+        if (rows > 0) {
+            if (store != null) {
+                store.Flexural(code, trim(mk, rows), trim(b, rows), trim(d, rows), trim(fck, rows), trim(fyk, rows),
+                               As, As2);
+            } else {
+                BatchResistance.Flexural(code, solver, trim(mk, rows), trim(b, rows), trim(d, rows), trim(fck, rows),
+                                         trim(fyk, rows), As, As2, null);
+            }
+        }
+
+        Block block = new Block();
+        block.rows = rows;
+        block.output = new ByteArrayOutputStream(rows*24 + 16);
+        for (int row = 0; row < rows; row++) {
+            for (int i = idStart[row]; i < idEnd[row]; i++) {
+                block.output.write(buffer.get(i));
+            }
+            block.output.write(',');
+            writeNumber(block.output, valid[row] ? As[row] : Double.NaN);
+            block.output.write(',');
+            writeNumber(block.output, valid[row] ? As2[row] : Double.NaN);
+            block.output.write('\n');
+        }
+        return block;
+    }
+
+
+    // Arrays with the exact number of rows (empty rows are not designed)
+    private static double[] trim(double[] values, int rows){
+        return (values.length == rows) ? values : java.util.Arrays.copyOf(values, rows);
+    }
+
+
+    // Finds the start of each field (fields[i]) of the row, fields[found] = end + 1. Returns the number of fields
+    private static int split(ByteBuffer buffer, int start, int end, int[] fields){
+        int found = 0;
+        fields[found++] = start;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                if (found == fields.length - 1) {
+                    return -1;
+                }
+                fields[found++] = i + 1;
+            }
+        }
+        fields[found] = end + 1;
+        return found;
+    }
+
+
+    // Parses the fields of the row: id,type,b,d,fck,grade,mk
+    private static boolean parseRow(ByteBuffer buffer, int[] fields, int row, double[] mk, double[] b, double[] d,
+                                    double[] fck, double[] fyk){
+        // Type of element: beam or slab
+        byte type = buffer.get(skipSpaces(buffer, fields[1], fields[2] - 1));
+        boolean slab = (type == 's' || type == 'S');
+        if (!slab && type != 'b' && type != 'B') {
+            return false;
+        }
+        b[row] = slab ? 1000 : parseNumber(buffer, fields[2], fields[3] - 1);
+        d[row] = parseNumber(buffer, fields[3], fields[4] - 1);
+        // Concrete class (C25) or fck
+        int concrete = skipSpaces(buffer, fields[4], fields[5] - 1);
+        if (concrete < fields[5] - 1 && (buffer.get(concrete) == 'C' || buffer.get(concrete) == 'c')) {
+            concrete++;
+        }
+        fck[row] = parseNumber(buffer, concrete, fields[5] - 1);
+        // Steel grade (CA50 = 500 MPa) or fyk
+        int steel = skipSpaces(buffer, fields[5], fields[6] - 1);
+        if (steel + 1 < fields[6] - 1 && (buffer.get(steel) == 'C' || buffer.get(steel) == 'c')
+            && (buffer.get(steel + 1) == 'A' || buffer.get(steel + 1) == 'a')) {
+            fyk[row] = 10*parseNumber(buffer, steel + 2, fields[6] - 1);
+        } else {
+            fyk[row] = parseNumber(buffer, steel, fields[6] - 1);
+        }
+        mk[row] = parseNumber(buffer, fields[6], fields[7] - 1);
+        return b[row] > 0 && d[row] > 0 && fck[row] > 0 && fyk[row] > 0 && !Double.isNaN(mk[row]);
+    }
+
+
+    private static int skipSpaces(ByteBuffer buffer, int start, int end){
+        while (start < end && (buffer.get(start) == ' ' || buffer.get(start) == '"')) {
+            start++;
+        }
+        return start;
+    }
+
+
+    // Powers of 10 represented exactly by doubles
+    private static final double[] POWERS = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+
+    /**
+     * Parses a decimal number from the bytes [start, end), without creating a String.
+     * Mantissas up to 2^53 with exponents up to 22 are exact (correctly rounded),
+     * other numbers fall back to Double.parseDouble. Returns NaN if the field is not a number.
+     */
+    static double parseNumber(ByteBuffer buffer, int start, int end){
+        start = skipSpaces(buffer, start, end);
+        while (end > start && (buffer.get(end - 1) == ' ' || buffer.get(end - 1) == '"')) {
+            end--;
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        boolean any = false, point = false;
+        for (; i < end; i++) {
+            byte c = buffer.get(i);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (digits < 18) {
+                    mantissa = 10*mantissa + (c - '0');
+                    if (mantissa != 0) { digits++; }
+                    if (point) { exponent--; }
+                } else if (!point) {
+                    exponent++;
+                }
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+        if (!any) {
+            return Double.NaN;
+        }
+        if (i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            int value = 0;
+            boolean anyExponent = false;
+            for (; i < end && buffer.get(i) >= '0' && buffer.get(i) <= '9'; i++) {
+                value = Math.min(10*value + (buffer.get(i) - '0'), 10000);
+                anyExponent = true;
+            }
+            if (!anyExponent) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != end) {
+            return Double.NaN;
+        }
+        double value;
+        if (mantissa < (1L << 53) && Math.abs(exponent) <= 22) {
+            value = (exponent >= 0) ? mantissa*POWERS[exponent] : mantissa/POWERS[-exponent];
+        } else {
+            byte[] text = new byte[end - start];
+            for (int j = 0; j < text.length; j++) {
+                text[j] = buffer.get(start + j);
+            }
+            return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        }
+        return negative ? -value : value;
+    }
+
+
+    // Writes the number with up to 4 decimals (the rounding of the reinforcement areas)
+    private static void writeNumber(ByteArrayOutputStream out, double value){
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e14) {
+            byte[] text = Double.toString(value).getBytes(StandardCharsets.US_ASCII);
+            out.write(text, 0, text.length);
+            return;
+        }
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        long scaled = Math.round(value*10000);
+        writeDigits(out, scaled/10000);
+        out.write('.');
+        long decimals = scaled%10000;
+        // At least one decimal, as Double.toString of the integer areas (515.0)
+        int divisor = 1000;
+        do {
+            out.write((int) ('0' + decimals/divisor));
+            decimals %= divisor;
+            divisor /= 10;
+        } while (decimals != 0 && divisor > 0);
+    }
+
+
+    private static void writeDigits(ByteArrayOutputStream out, long value){
+        if (value >= 10) {
+            writeDigits(out, value/10);
+        }
+        out.write((int) ('0' + value%10));
+    }
+
+
+    /**
+     * Designs the rows with the store: only the sections not found in the store are designed.
+     * @param store DesignStore - Store of the designs (default solver), or null to design all the rows.
+     */
+    public void setStore(DesignStore store) {
+        if (store != null && (solver.getMethod() != NeutralAxisSolver.DEFAULT.getMethod()
+                              || solver.getTolerance() != NeutralAxisSolver.DEFAULT.getTolerance())) {
+            throw new IllegalArgumentException("The store keeps the designs of the default solver");
+        }
+        this.store = store;
+    }
+
+
+    /** @return long return the number of invalid rows found */
+    public long getInvalid() {
+        return invalid.get();
+    }
+}
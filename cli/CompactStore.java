@@ -0,0 +1,66 @@
+package cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import calculations.DesignStore;
+
+/**
+ * Command line tool that compacts a store of designs (DesignStore): the designs not used in the last runs
+ * are removed, and the store is rebuilt with a new capacity (a full store is compacted with a larger one).
+ * A store in use (by another process) is refused. Without an output, the store is replaced.
+ *
+ * Usage: java cli.CompactStore store [output] [--capacity n] [--keep-runs n]
+ */
+public class CompactStore {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            usage(null);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = null;
+        int capacity = 0;
+        int keepRuns = 0;
+        int i = 1;
+        if (i < args.length && !args[i].startsWith("--")) {
+            target = Paths.get(args[i++]);
+        }
+        for (; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                usage("Missing the value of " + args[i]);
+            }
+            switch (args[i]) {
+                case "--capacity":
+                    capacity = Integer.parseInt(args[i+1]);
+                    break;
+                case "--keep-runs":
+                    keepRuns = Integer.parseInt(args[i+1]);
+                    break;
+                default:
+                    usage("Unknown option " + args[i]);
+            }
+        }
+
+        // Without an output, the store is rebuilt in a temporary file that replaces it
+        Path output = (target != null) ? target : source.resolveSibling(source.getFileName() + ".compact");
+        long kept = DesignStore.compact(source, output, capacity, keepRuns);
+        if (target == null) {
+            Files.move(output, source, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        System.err.println(kept + " designs kept in " + ((target != null) ? target : source) + ".");
+    }
+
+
+    // Prints the error and the usage of the tool, and exits
+    private static void usage(String error){
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println("Usage: CompactStore store [output] [--capacity n] [--keep-runs n]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,593 @@
+package cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import calculations.BatchResistance;
+import standards.*;
+import utils.NeutralAxisSolver;
+
+/**
+ * Local HTTP service that designs sections with the same routine of Resistance.Flexural,
+ * so many tools can share one JVM, already warmed up, instead of starting their own.
+ *
+ * POST /flexural?code=NBR6118|EUROCODE2 - The body is a JSON array of sections, or NDJSON (one section per line).
+ *   Each section is an object {"id": .., "type": "beam"|"slab", "b": .., "d": .., "fck": .., "fyk": .., "mk": ..}
+ *   with the same units and defaults of the rows of BatchDesign ("fck" may be "C30", "grade" "CA50" replaces "fyk",
+ *   slabs are strips of 1000 mm). The response has {"id": .., "As": .., "As2": ..} for each section, in the same
+ *   order and format of the request (array or NDJSON).
+ * GET /health - Returns ok.
+ *
+ * The sections of concurrent requests are designed together in micro-batches (MicroBatcher).
+ * Each response reports its latency in the header Server-Timing [milliseconds]:
+ *   queue - waiting for the batch, design - design of the batch, total - time of the request in the service;
+ * and the number of sections of its batch in the header X-Batch-Size.
+ * The requests are handled by virtual threads when the JVM has them (Java 21), otherwise by a cached pool.
+ * The service has no authentication, so it only listens on the loopback interface unless --bind is given.
+ *
+ * Usage: java cli.DesignServer [--port 8080] [--bind 127.0.0.1] [--max-wait 200 (microseconds)] [--max-batch 1024]
+ *                              [--threads n] [--solver BISECTION|NEWTON|ILLINOIS]
+ */
+public class DesignServer {
+
+    // Largest body accepted [bytes]
+    private static final int MAX_BODY = 64 << 20;
+
+    // The headers and the body are written separately, so without TCP_NODELAY the small responses
+    // wait for the delayed acknowledgement of the client (about 40 ms)
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final MicroBatcher brazilian;
+    private final MicroBatcher european;
+
+
+
+    /**
+     * Creates the service on the loopback interface, designing some sections with both codes to warm up the JVM.
+     * @param port     int  - Port of the service (0 for any free port).
+     * @param maxWait  long - Maximum time a batch waits for more requests [microseconds] (0 disables the batches).
+     * @param maxBatch int  - Maximum number of sections of a batch.
+     * @param threads  int  - Number of threads that design the batches.
+     * @param solver   NeutralAxisSolver - Method used to converge the Neutral Axis (NBR 6118).
+     */
+    public DesignServer(int port, long maxWait, int maxBatch, int threads, NeutralAxisSolver solver) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, maxWait, maxBatch, threads, solver);
+    }
+
+
+
+    /**
+     * Creates the service, designing some sections with both codes to warm up the JVM.
+     * @param bind     InetAddress - Address of the interface the service listens on.
+     * @param port     int  - Port of the service (0 for any free port).
+     * @param maxWait  long - Maximum time a batch waits for more requests [microseconds] (0 disables the batches).
+     * @param maxBatch int  - Maximum number of sections of a batch.
+     * @param threads  int  - Number of threads that design the batches.
+     * @param solver   NeutralAxisSolver - Method used to converge the Neutral Axis (NBR 6118).
+     */
+    public DesignServer(InetAddress bind, int port, long maxWait, int maxBatch, int threads, NeutralAxisSolver solver)
+            throws IOException {
+        this.brazilian = new MicroBatcher(new BrazilianCode(), solver, maxWait, maxBatch, threads);
+        this.european = new MicroBatcher(new EuropeanCode(), solver, maxWait, maxBatch, threads);
+        warmUp(solver);
+        this.handlers = handlers();
+        this.server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        this.server.createContext("/flexural", this::flexural);
+        this.server.createContext("/health", exchange -> send(exchange, 200, "ok\n"));
+        this.server.setExecutor(handlers);
+    }
+
+
+
+    public static void main(String[] args) throws IOException {
+        InetAddress bind = InetAddress.getLoopbackAddress();
+        int port = 8080;
+        long maxWait = 200;
+        int maxBatch = 1024;
+        int threads = Runtime.getRuntime().availableProcessors();
+        NeutralAxisSolver solver = NeutralAxisSolver.DEFAULT;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length) {
+                usage("Missing the value of " + args[i]);
+            }
+            switch (args[i]) {
+                case "--port":
+                    port = Integer.parseInt(args[i+1]);
+                    break;
+                case "--bind":
+                    try {
+                        bind = InetAddress.getByName(args[i+1]);
+                    } catch (UnknownHostException e) {
+                        usage("Unknown address " + args[i+1]);
+                    }
+                    break;
+                case "--max-wait":
+                    maxWait = Long.parseLong(args[i+1]);
+                    break;
+                case "--max-batch":
+                    maxBatch = Integer.parseInt(args[i+1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[i+1]);
+                    break;
+                case "--solver":
+                    try {
+                        solver = new NeutralAxisSolver(NeutralAxisSolver.Method.valueOf(args[i+1].toUpperCase()),
+                                                       NeutralAxisSolver.DEFAULT.getTolerance());
+                    } catch (IllegalArgumentException e) {
+                        usage("Unknown solver " + args[i+1]);
+                    }
+                    break;
+                default:
+                    usage("Unknown option " + args[i]);
+            }
+        }
+        DesignServer server = new DesignServer(bind, port, maxWait, maxBatch, threads, solver);
+        server.start();
+        System.err.println("Design service listening on " + server.getAddress());
+    }
+
+
+
+    // Prints the error and the usage of the service, and exits
+    private static void usage(String error){
+        if (error != null) {
+            System.err.println(error);
+        }
+        System.err.println("Usage: DesignServer [--port 8080] [--bind 127.0.0.1] [--max-wait 200] [--max-batch 1024]"
+                         + " [--threads n] [--solver BISECTION|NEWTON|ILLINOIS]");
+        System.exit(2);
+    }
+
+
+
+    /** Starts to accept requests. */
+    public void start(){
+        server.start();
+    }
+
+
+    /** Stops the service, waiting at most one second for the requests in progress. */
+    public void stop(){
+        server.stop(1);
+        brazilian.stop();
+        european.stop();
+        handlers.shutdown();
+    }
+
+
+    /** @return int return the port of the service */
+    public int getPort(){
+        return server.getAddress().getPort();
+    }
+
+
+    /** @return InetSocketAddress return the address and port the service listens on */
+    public InetSocketAddress getAddress(){
+        return server.getAddress();
+    }
+
+
+
+    // Virtual threads when available (Java 21), found by reflection so the service also runs on Java 17
+    private static ExecutorService handlers(){
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "design-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+
+    // Designs sections of all the ranges of both codes, so the first requests are already compiled by the JIT
+    private static void warmUp(NeutralAxisSolver solver){
+        int size = 20000;
+        double[] mk = new double[size], b = new double[size], d = new double[size];
+        double[] fck = new double[size], fyk = new double[size];
+        for (int i = 0; i < size; i++) {
+            b[i] = 120 + 10*(i % 30);
+            d[i] = 250 + 10*(i % 50);
+            fck[i] = 20 + 5*(i % 15);
+            fyk[i] = (i % 2 == 0) ? 500 : 600;
+            mk[i] = 0.01*(i % 40)*b[i]*d[i]*d[i];
+        }
+        double[] As = new double[size], As2 = new double[size];
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            for (int pass = 0; pass < 5; pass++) {
+                BatchResistance.Flexural(code, solver, mk, b, d, fck, fyk, As, As2, null);
+            }
+        }
+    }
+
+
+
+    // POST /flexural
+    private void flexural(HttpExchange exchange) throws IOException {
+        long received = System.nanoTime();
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, error("Use POST"));
+                return;
+            }
+            String query = exchange.getRequestURI().getQuery();
+            MicroBatcher batcher = brazilian;
+            if (query != null) {
+                for (String parameter : query.split("&")) {
+                    if (parameter.equalsIgnoreCase("code=EUROCODE2")) {
+                        batcher = european;
+                    } else if (!parameter.equalsIgnoreCase("code=NBR6118")) {
+                        send(exchange, 400, error("Unknown parameter " + parameter));
+                        return;
+                    }
+                }
+            }
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY + 1);
+            if (body.length > MAX_BODY) {
+                send(exchange, 413, error("Body larger than " + MAX_BODY + " bytes"));
+                return;
+            }
+            Sections sections;
+            try {
+                sections = Sections.parse(new String(body, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            }
+
+            MicroBatcher.Request request = new MicroBatcher.Request(sections.mk, sections.b, sections.d,
+                                                                    sections.fck, sections.fyk);
+            if (request.size() > 0) {
+                batcher.design(request);
+            } else {
+                request.queued = request.started = request.finished = received;
+            }
+
+            StringBuilder response = new StringBuilder(request.size()*40 + 4);
+            if (sections.array) {
+                response.append('[');
+            }
+            for (int i = 0; i < request.size(); i++) {
+                if (i > 0 && sections.array) {
+                    response.append(',');
+                }
+                response.append("{\"id\":").append(sections.id[i])
+                        .append(",\"As\":").append(request.As[i])
+                        .append(",\"As2\":").append(request.As2[i]).append('}');
+                if (!sections.array) {
+                    response.append('\n');
+                }
+            }
+            if (sections.array) {
+                response.append("]\n");
+            }
+            exchange.getResponseHeaders().set("Content-Type",
+                                              sections.array ? "application/json" : "application/x-ndjson");
+            exchange.getResponseHeaders().set("Server-Timing", String.format(Locale.ROOT,
+                "queue;dur=%.3f, design;dur=%.3f, total;dur=%.3f", (request.started - request.queued)/1e6,
+                (request.finished - request.started)/1e6, (System.nanoTime() - received)/1e6));
+            exchange.getResponseHeaders().set("X-Batch-Size", Integer.toString(request.batch));
+            send(exchange, 200, response.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            send(exchange, 503, error("Interrupted"));
+        } catch (RuntimeException e) {
+            send(exchange, 500, error(String.valueOf(e.getMessage())));
+        }
+    }
+
+
+    private static String error(String message){
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}\n";
+    }
+
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", status == 200 ? "text/plain" : "application/json");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+
+
+    /**
+     * Sections of a request, read from a JSON array or NDJSON.
+     * Only flat objects are accepted, with numbers, strings, booleans or null as values.
+     */
+    static final class Sections {
+        String[] id;
+        double[] mk, b, d, fck, fyk;
+        boolean array;
+        private int size;
+
+        private final String text;
+        private int position;
+
+        private Sections(String text){
+            this.text = text;
+            int capacity = 16;
+            id = new String[capacity];
+            mk = new double[capacity]; b = new double[capacity]; d = new double[capacity];
+            fck = new double[capacity]; fyk = new double[capacity];
+        }
+
+
+        static Sections parse(String text){
+            Sections sections = new Sections(text);
+            sections.skipSpaces();
+            sections.array = sections.peek() == '[';
+            if (sections.array) {
+                sections.position++;
+                sections.skipSpaces();
+                if (sections.peek() == ']') {
+                    sections.position++;
+                } else {
+                    while (true) {
+                        sections.section();
+                        sections.skipSpaces();
+                        char next = sections.next();
+                        if (next == ']') {
+                            break;
+                        } else if (next != ',') {
+                            throw sections.invalid("Expected , or ]");
+                        }
+                    }
+                }
+                sections.skipSpaces();
+                if (sections.position < text.length()) {
+                    throw sections.invalid("Unexpected content after the array");
+                }
+            } else {
+                // NDJSON: objects separated by new lines (or any space)
+                while (sections.position < text.length()) {
+                    sections.section();
+                    sections.skipSpaces();
+                }
+            }
+            sections.trim();
+            return sections;
+        }
+
+
+        // Reads an object with a section
+        private void section(){
+            skipSpaces();
+            if (next() != '{') {
+                throw invalid("Expected a section object");
+            }
+            String sectionId = "null";
+            String type = "beam", grade = null;
+            double width = Double.NaN, height = Double.NaN, concrete = Double.NaN, steel = Double.NaN;
+            double moment = Double.NaN;
+            skipSpaces();
+            if (peek() == '}') {
+                position++;
+            } else {
+                while (true) {
+                    skipSpaces();
+                    String key = string();
+                    skipSpaces();
+                    if (next() != ':') {
+                        throw invalid("Expected :");
+                    }
+                    skipSpaces();
+                    int start = position;
+                    Object value = value();
+                    switch (key) {
+                        case "id":
+                            sectionId = text.substring(start, position);
+                            break;
+                        case "type":
+                            type = String.valueOf(value).toLowerCase(Locale.ROOT);
+                            break;
+                        case "b":
+                            width = number(key, value);
+                            break;
+                        case "d":
+                            height = number(key, value);
+                            break;
+                        case "fck":
+                            if (value instanceof String && ((String) value).matches("[Cc][0-9.]+")) {
+                                value = ((String) value).substring(1);
+                            }
+                            concrete = number(key, value);
+                            break;
+                        case "fyk":
+                            steel = number(key, value);
+                            break;
+                        case "grade":
+                            grade = String.valueOf(value);
+                            break;
+                        case "mk":
+                            moment = number(key, value);
+                            break;
+                        default:
+                            // Other fields are ignored
+                    }
+                    skipSpaces();
+                    char next = next();
+                    if (next == '}') {
+                        break;
+                    } else if (next != ',') {
+                        throw invalid("Expected , or }");
+                    }
+                }
+            }
+            if (grade != null) {
+                if (!grade.matches("(?i)CA[0-9.]+")) {
+                    throw new IllegalArgumentException("Invalid grade " + grade + " of the section " + (size + 1));
+                }
+                steel = 10*Double.parseDouble(grade.substring(2));
+            }
+            if (type.equals("slab")) {
+                width = 1000;
+            } else if (!type.equals("beam")) {
+                throw new IllegalArgumentException("Invalid type " + type + " of the section " + (size + 1));
+            }
+            if (!(width > 0) || !(height > 0) || !(concrete > 0) || !(steel > 0) || Double.isNaN(moment)
+                || Double.isInfinite(moment)) {
+                throw new IllegalArgumentException("Input values must be > 0 (section " + (size + 1) + ")");
+            }
+            if (size == mk.length) {
+                grow();
+            }
+            id[size] = sectionId;
+            b[size] = width;
+            d[size] = height;
+            fck[size] = concrete;
+            fyk[size] = steel;
+            mk[size] = moment;
+            size++;
+        }
+
+
+        // Reads a value: number, string, boolean or null
+        private Object value(){
+            char c = peek();
+            if (c == '"') {
+                return string();
+            } else if (c == '{' || c == '[') {
+                throw invalid("Nested values are not accepted");
+            }
+            int start = position;
+            while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String token = text.substring(start, position);
+            switch (token) {
+                case "true":
+                    return Boolean.TRUE;
+                case "false":
+                    return Boolean.FALSE;
+                case "null":
+                    return null;
+                default:
+                    try {
+                        return Double.parseDouble(token);
+                    } catch (NumberFormatException e) {
+                        throw invalid("Invalid value " + token);
+                    }
+            }
+        }
+
+
+        // Reads a string with its escapes
+        private String string(){
+            if (next() != '"') {
+                throw invalid("Expected a string");
+            }
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                } else if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escape = next();
+                switch (escape) {
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw invalid("Invalid escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw invalid("Invalid escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escape);
+                }
+            }
+        }
+
+
+        private static double number(String key, Object value){
+            if (value instanceof Double) {
+                return (Double) value;
+            } else if (value instanceof String) {
+                try {
+                    return Double.parseDouble(((String) value).trim());
+                } catch (NumberFormatException e) {
+                    // Reported below
+                }
+            }
+            throw new IllegalArgumentException("Invalid value of " + key + ": " + value);
+        }
+
+
+        private void skipSpaces(){
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private char peek(){
+            return (position < text.length()) ? text.charAt(position) : 0;
+        }
+
+        private char next(){
+            if (position >= text.length()) {
+                throw invalid("Unexpected end of the body");
+            }
+            return text.charAt(position++);
+        }
+
+        private IllegalArgumentException invalid(String message){
+            return new IllegalArgumentException(message + " at character " + position);
+        }
+
+
+        private void grow(){
+            int capacity = 2*mk.length;
+            id = java.util.Arrays.copyOf(id, capacity);
+            mk = java.util.Arrays.copyOf(mk, capacity);
+            b = java.util.Arrays.copyOf(b, capacity);
+            d = java.util.Arrays.copyOf(d, capacity);
+            fck = java.util.Arrays.copyOf(fck, capacity);
+            fyk = java.util.Arrays.copyOf(fyk, capacity);
+        }
+
+        private void trim(){
+            id = java.util.Arrays.copyOf(id, size);
+            mk = java.util.Arrays.copyOf(mk, size);
+            b = java.util.Arrays.copyOf(b, size);
+            d = java.util.Arrays.copyOf(d, size);
+            fck = java.util.Arrays.copyOf(fck, size);
+            fyk = java.util.Arrays.copyOf(fyk, size);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package cli;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import calculations.BatchResistance;
+import standards.Code;
+import utils.NeutralAxisSolver;
+
+/**
+ * Groups the sections of many small requests in batches, designed together with BatchResistance.Flexural.
+ * A batch is closed when it reaches the maximum number of sections, or when the maximum wait
+ * since its first request has passed. The batches are designed by a fixed pool of threads,
+ * while the callers only wait for their results (they may be virtual threads).
+ * Requests with more sections than a batch are designed directly by the caller.
+ */
+final class MicroBatcher {
+
+    /**
+     * Sections of a request and their results, with the times of the design [nanoseconds].
+     */
+    static final class Request {
+        final double[] mk, b, d, fck, fyk;
+        final double[] As, As2;
+        long queued, started, finished;
+        int batch;
+        private final CompletableFuture<Request> done = new CompletableFuture<>();
+
+        Request(double[] mk, double[] b, double[] d, double[] fck, double[] fyk){
+            this.mk = mk; this.b = b; this.d = d; this.fck = fck; this.fyk = fyk;
+            this.As = new double[mk.length];
+            this.As2 = new double[mk.length];
+        }
+
+        int size(){
+            return mk.length;
+        }
+    }
+
+
+    private final Code code;
+    private final NeutralAxisSolver solver;
+    private final long maxWait;
+    private final int maxBatch;
+
+    private final LinkedBlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+
+
+    /**
+     * @param code     Code - Defines the code parameters and coeficients of all the requests.
+     * @param solver   NeutralAxisSolver - Method used to converge the Neutral Axis (NBR 6118).
+     * @param maxWait  long - Maximum time a batch waits for more requests [microseconds].
+     * @param maxBatch int  - Maximum number of sections of a batch.
+     * @param threads  int  - Number of threads that design the batches.
+     */
+    MicroBatcher(Code code, NeutralAxisSolver solver, long maxWait, int maxBatch, int threads){
+        if (maxWait < 0 || maxBatch <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        this.code = code;
+        this.solver = solver;
+        this.maxWait = TimeUnit.MICROSECONDS.toNanos(maxWait);
+        this.maxBatch = maxBatch;
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "design-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "design-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+
+
+    /**
+     * Designs the sections of the request, waiting for the batch that contains it.
+     * @param request Request - Sections of the request, already validated.
+     */
+    void design(Request request) throws InterruptedException {
+        request.queued = System.nanoTime();
+        if (request.size() >= maxBatch || maxWait == 0) {
+            ArrayList<Request> alone = new ArrayList<>(1);
+            alone.add(request);
+            design(alone);
+        } else {
+            queue.add(request);
+            // A request added while stopping would never be dispatched
+            if (!running && queue.remove(request)) {
+                throw new IllegalStateException("The batcher is stopped");
+            }
+        }
+        try {
+            request.done.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to design the batch", e.getCause());
+        }
+    }
+
+
+
+    // Closes the batches and sends them to the workers
+    private void dispatch(){
+        while (running) {
+            ArrayList<Request> batch = new ArrayList<>();
+            try {
+                Request first = queue.take();
+                batch.add(first);
+                int sections = first.size();
+                long deadline = first.queued + maxWait;
+                while (sections < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    Request next = (remaining > 0) ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    sections += next.size();
+                }
+            } catch (InterruptedException e) {
+                fail(batch, e);
+                break;
+            }
+            workers.execute(() -> design(batch));
+        }
+    }
+
+
+
+    // Designs the sections of all the requests of the batch at once
+    private void design(ArrayList<Request> batch){
+        try {
+            long started = System.nanoTime();
+            int size = 0;
+            for (Request request : batch) {
+                size += request.size();
+            }
+            double[] mk = new double[size], b = new double[size], d = new double[size];
+            double[] fck = new double[size], fyk = new double[size];
+            double[] As = new double[size], As2 = new double[size];
+            int position = 0;
+            for (Request request : batch) {
+                int length = request.size();
+                System.arraycopy(request.mk, 0, mk, position, length);
+                System.arraycopy(request.b, 0, b, position, length);
+                System.arraycopy(request.d, 0, d, position, length);
+                System.arraycopy(request.fck, 0, fck, position, length);
+                System.arraycopy(request.fyk, 0, fyk, position, length);
+                position += length;
+            }
+            BatchResistance.Flexural(code, solver, mk, b, d, fck, fyk, As, As2, null);
+            long finished = System.nanoTime();
+            position = 0;
+            for (Request request : batch) {
+                int length = request.size();
+                System.arraycopy(As, position, request.As, 0, length);
+                System.arraycopy(As2, position, request.As2, 0, length);
+                position += length;
+                request.started = started;
+                request.finished = finished;
+                request.batch = size;
+                request.done.complete(request);
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+
+    private static void fail(ArrayList<Request> batch, Throwable cause){
+        for (Request request : batch) {
+            request.done.completeExceptionally(cause);
+        }
+    }
+
+
+
+    /**
+     * Stops the batcher. The requests still waiting fail.
+     */
+    void stop(){
+        running = false;
+        dispatcher.interrupt();
+        workers.shutdown();
+        ArrayList<Request> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, new IllegalStateException("The batcher is stopped"));
+    }
+}
@@ -0,0 +1,33 @@
+package enums;
+
+/**
+ * Defines the bars used to detail the reinforcement of the sections.
+ */
+public class BARS {
+
+    /**
+     * Defines the nominal diameters of the bars, NBR 7480 (the same diameters are usual with Eurocode 2)
+     */
+    public enum Diameter {
+        D5(5.0), D6_3(6.3), D8(8.0), D10(10.0), D12_5(12.5),
+        D16(16.0), D20(20.0), D22(22.0), D25(25.0), D32(32.0), D40(40.0);
+
+        // Nominal diameter of the bar [millimeter]
+        private double diameter;
+
+        // BARS.Diameter Construtor
+        Diameter(double diameter){
+            this.diameter = diameter;
+        }
+
+        // Method that gets the nominal diameter of the bar [millimeter]
+        public double getDiameter(){
+            return this.diameter;
+        }
+
+        // Method that gets the nominal area of the bar [mm²]
+        public double getArea(){
+            return Math.PI*this.diameter*this.diameter/4;
+        }
+    }
+}
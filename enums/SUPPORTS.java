@@ -0,0 +1,32 @@
+package enums;
+
+/**
+ * Defines the supports and edges of the slab panels.
+ */
+public class SUPPORTS {
+
+    /**
+     * Defines the conditions of the edges of a panel
+     */
+    public enum Support {
+        SIMPLE, // Free rotation (end of the floor, or edge without continuity)
+        FIXED;  // Restrained rotation (continuity with the next panel, or embedded edge)
+    }
+
+
+
+    /**
+     * Defines the edges of a rectangular panel, with lx along the x axis and ly along the y axis
+     */
+    public enum Edge {
+        LEFT,   // Edge at x = 0, supports the span lx
+        RIGHT,  // Edge at x = lx, supports the span lx
+        BOTTOM, // Edge at y = 0, supports the span ly
+        TOP;    // Edge at y = ly, supports the span ly
+
+        // Method that tells if the edge supports the span lx
+        public boolean isX(){
+            return this == LEFT || this == RIGHT;
+        }
+    }
+}
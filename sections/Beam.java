@@ -3,13 +3,27 @@ package sections;
 
 import java.util.ArrayList;
 
+import calculations.DesignCache;
 import calculations.Resistance;
+import calculations.SpanDesign;
 
 /**
  * Class used to calculated beam sections
  */
 public class Beam extends ConcreteSection {
 
+    // Area of stirrups per length (Asw/s) in mm²/m
+    private double Asw;
+
+    // Last shear design: force, inclination of the struts and code (null when never designed)
+    private double vk = Double.NaN;
+    private double theta = Double.NaN;
+    private standards.Code shearCode;
+
+    // Inputs of the section at the last shear design, Asw is designed again when one of them changes
+    private int shearVersion;
+    private double shearB, shearD, shearFck, shearAs;
+
 
     /**
      * Constructor with the properties of the Rectangular Section.
@@ -114,9 +128,80 @@ public class Beam extends ConcreteSection {
      * @param code - Defines the code parameters and coeficients
      */
     public void FlexuralResistance(double mk, standards.Code code){
-        ArrayList<Double> reinforcementAreas = Resistance.Flexural(mk, new Beam(this.b, this.d, this.fck), code, this.steel);
+        ArrayList<Double> reinforcementAreas = Resistance.Flexural(mk, this, code, this.steel);
+        this.As = reinforcementAreas.get(0);
+        this.As2 = reinforcementAreas.get(1);
+        designed(mk, code);
+    }
+
+
+
+    /**
+     * Flexural design through a cache of designs, shared by repeated sections.
+     * @param mk - Moment force applied in the Beam [N.mm]
+     * @param code - Defines the code parameters and coeficients
+     * @param cache - Cache of designs (the moment is quantized by the cache)
+     */
+    public void FlexuralResistance(double mk, standards.Code code, DesignCache cache){
+        ArrayList<Double> reinforcementAreas = cache.Flexural(mk, this, code, this.steel);
         this.As = reinforcementAreas.get(0);
         this.As2 = reinforcementAreas.get(1);
+        designed(mk, code);
+    }
+
+
+
+    /**
+     * Designs the stations along the span of the Beam (the reinforcement of the beam is not changed).
+     * @param mk - Moment force applied at each station of the span [N.mm]
+     * @param code - Defines the code parameters and coeficients
+     * @return SpanDesign.Envelope - Reinforcement areas at each station, at the bottom and at the top
+     */
+    public SpanDesign.Envelope FlexuralEnvelope(double[] mk, standards.Code code){
+        return SpanDesign.Flexural(mk, this, code, this.steel);
+    }
+
+
+    /**
+     * Shear design of the beam with vertical stirrups (NBR 6118 Model I, or Eurocode 2 variable strut).
+     * @param vk - Shear force applied in the Beam [N]
+     * @param code - Defines the code parameters and coeficients
+     */
+    public void ShearResistance(double vk, standards.Code code){
+        ShearResistance(vk, code, Double.NaN);
+    }
+
+
+
+    /**
+     * Shear design of the beam with vertical stirrups and the inclination of the struts.
+     * @param vk - Shear force applied in the Beam [N]
+     * @param code - Defines the code parameters and coeficients
+     * @param theta - Inclination of the struts (NBR 6118 Model II: 30° to 45°, Eurocode 2: 21.8° to 45°)
+     */
+    public void ShearResistance(double vk, standards.Code code, double theta){
+        this.Asw = Resistance.Shear(vk, this, code, this.steel, theta);
+        this.vk = vk;
+        this.theta = theta;
+        this.shearCode = code;
+        this.shearVersion = code.getVersion();
+        this.shearB = this.b;
+        this.shearD = this.d;
+        this.shearFck = this.fck;
+        this.shearAs = getAs();
+    }
+
+
+    /**
+     * @return double return the area of stirrups per length - Asw/s [mm²/m] (NaN if the struts are crushed),
+     * designed again with the last shear force when the section, its tension reinforcement or the code changed.
+     */
+    public double getAsw() {
+        if (shearCode != null && (b != shearB || d != shearD || fck != shearFck
+                                  || shearCode.getVersion() != shearVersion || getAs() != shearAs)) {
+            ShearResistance(vk, shearCode, theta);
+        }
+        return this.Asw;
     }
 
 
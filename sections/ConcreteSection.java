@@ -1,9 +1,16 @@
 
 package sections;
 
+import calculations.FlexuralResult;
+import calculations.Resistance;
+
 /**
  * Class that is used to define the properties of the structural elements 
  * of the Reinforced Concrete element has a rectangular transverse dimension, typical in beams and slabs.
+ *
+ * The section remembers the moment and the code of its last design. When an input changes (dimensions, fck,
+ * moment, or the coefficients of the code) the section becomes dirty, and it is designed again
+ * only when its reinforcement is read (getAs, getAs2) or by the bulk redesign of calculations.Redesign.
  */
 public class ConcreteSection {
 
@@ -15,6 +22,12 @@ public class ConcreteSection {
     double As;   // Area of steel reinforcement in tension
     double As2;  // Area of steel reinforcement in compression
 
+    // Last design of the section
+    double mk = Double.NaN; // Moment force of the design [N.mm]
+    standards.Code code;    // Code of the design (null when never designed)
+    int codeVersion;        // Version of the coefficients of the code at the design
+    boolean dirty;          // An input changed after the design
+
 
     
     /**
@@ -25,7 +38,10 @@ public class ConcreteSection {
         if (b <= 0) {
             throw new IllegalArgumentException("Input values must be > 0");
         }
-        this.b = b;
+        if (b != this.b) {
+            this.b = b;
+            this.dirty = true;
+        }
     }
 
 
@@ -38,7 +54,10 @@ public class ConcreteSection {
         if (d <= 0) {
             throw new IllegalArgumentException("Input values must be > 0");
         }
-        this.d = d;
+        if (d != this.d) {
+            this.d = d;
+            this.dirty = true;
+        }
     }
 
 
@@ -51,7 +70,85 @@ public class ConcreteSection {
         if (fck <= 0) {
             throw new IllegalArgumentException("Input values must be > 0");
         }
-        this.fck = fck;
+        if (fck != this.fck) {
+            this.fck = fck;
+            this.dirty = true;
+        }
+    }
+
+
+    /**
+     * Flexural design of the section into a reusable result, without allocations.
+     * The reinforcement areas of the section are also updated.
+     * @param mk - Moment force applied in the section [N.mm]
+     * @param code - Defines the code parameters and coeficients
+     * @param result - Holder of the design, reused between designs
+     */
+    public void FlexuralResistance(double mk, standards.Code code, FlexuralResult result){
+        Resistance.Flexural(mk, this, code, this.steel, result);
+        this.As = result.getAs();
+        this.As2 = result.getAs2();
+        designed(mk, code);
+    }
+
+
+
+    /**
+     * Changes the moment of the design, the section is designed again when its reinforcement is read.
+     * @param mk - Moment force applied in the section [N.mm]
+     */
+    public void setMoment(double mk){
+        if (Double.isNaN(mk)) {
+            throw new IllegalArgumentException("Input values must be a number");
+        }
+        if (mk != this.mk) {
+            this.mk = mk;
+            this.dirty = true;
+        }
+    }
+
+
+
+    /**
+     * Marks the section to be designed again, even without changes of its inputs.
+     */
+    public void invalidate(){
+        this.dirty = true;
+    }
+
+
+
+    /**
+     * @return boolean - true when the reinforcement is out of date: an input changed after the last design
+     * (false when the section was never designed, or has no moment).
+     */
+    public boolean isDirty(){
+        return code != null && !Double.isNaN(mk) && (dirty || code.getVersion() != codeVersion);
+    }
+
+
+
+    /**
+     * Designs the section again with its last moment and code, only if it is dirty.
+     * @param result - Holder of the design, reused between designs
+     * @return boolean - true when the section was designed again.
+     */
+    public boolean redesign(FlexuralResult result){
+        if (!isDirty()) {
+            return false;
+        }
+        FlexuralResistance(mk, code, result);
+        return true;
+    }
+
+
+
+    // Records the moment and the code of the design, the reinforcement is up to date
+    void designed(double mk, standards.Code code){
+        this.mk = mk;
+        this.code = code;
+        this.codeVersion = code.getVersion();
+        this.dirty = false;
     }
 
 
@@ -73,26 +170,64 @@ public class ConcreteSection {
     }
 
 
-    /**@return double return the section Reinforcement area in tension */
+    /** @return Steel return the steel of the reinforcement */
+    public Steel getSteel(){
+        return this.steel;
+    }
+
+
+    /** @return double return the moment of the last design [N.mm] (NaN when never designed) */
+    public double getMoment(){
+        return this.mk;
+    }
+
+
+    /** @return Code return the code of the last design (null when never designed) */
+    public standards.Code getCode(){
+        return this.code;
+    }
+
+
+    /**@return double return the section Reinforcement area in tension (designed again if dirty) */
     public double getAs(){
+        if (isDirty()) {
+            redesign();
+        }
         return this.As;
     }
 
 
-    /** @return double return the section Reinforcement area in Compression */
+    /** @return double return the section Reinforcement area in Compression (designed again if dirty) */
     public double getAs2(){
+        if (isDirty()) {
+            redesign();
+        }
         return this.As2;
     }
 
 
+    // Lazy design of a dirty section, read by the getters
+    private void redesign(){
+        java.util.ArrayList<Double> reinforcementAreas = Resistance.Flexural(mk, this, code, this.steel);
+        this.As = reinforcementAreas.get(0);
+        this.As2 = reinforcementAreas.get(1);
+        designed(mk, code);
+    }
+
+
+    /**
+     * Prints the stored dimensions and reinforcement, without designing the section again:
+     * a dirty section is marked as out of date.
+     */
     @Override
     public String toString() {
+        String state = isDirty() ? " (out of date)" : "";
         String str = 
         "  Width-b  =\t" + this.b + "mm, \n" +
         "  Height-d =\t" + this.d + "mm, \n" +
         "  fck =     \t" + this.fck + "MPA, \n" +
-        "  Area-As  =\t" + this.As/100 + "cm², \n" + 
-        "  Area-As2 =\t" + this.As2/100 + "cm2. \n";
+        "  Area-As  =\t" + this.As/100 + "cm²" + state + ", \n" + 
+        "  Area-As2 =\t" + this.As2/100 + "cm2" + state + ". \n";
         return str;
     }
-}
\ No newline at end of file
+}
@@ -1,6 +1,7 @@
 
 package sections;
 import java.util.ArrayList;
+import calculations.DesignCache;
 import calculations.Resistance;
 
 /**
@@ -99,6 +100,19 @@ public class Slab extends ConcreteSection {
     *
     */
 
+
+    /**
+     * Slabs are designed as strips of 1 meter, their width is not changed.
+     * @param b - Width of the strip, must be 1000 [millimeter].
+     */
+    @Override
+    public void setWidth(double b){
+        if (b != 1000) {
+            throw new IllegalArgumentException("Slabs are designed as strips of 1000 mm");
+        }
+    }
+
+
     
     /**
      * 
@@ -106,9 +120,25 @@ public class Slab extends ConcreteSection {
      * @param code - Defines the code parameters and coeficients
      */
     public void FlexuralResistance(double mk, standards.Code code){
-        ArrayList<Double> reinforcementAreas = Resistance.Flexural(mk, new Slab(this.d, this.fck), code, this.steel);
+        ArrayList<Double> reinforcementAreas = Resistance.Flexural(mk, this, code, this.steel);
+        this.As = reinforcementAreas.get(0);
+        this.As2 = reinforcementAreas.get(1);
+        designed(mk, code);
+    }
+
+
+
+    /**
+     * Flexural design through a cache of designs, shared by repeated sections.
+     * @param mk - Moment force applied in the Slab [N.mm]
+     * @param code - Defines the code parameters and coeficients
+     * @param cache - Cache of designs (the moment is quantized by the cache)
+     */
+    public void FlexuralResistance(double mk, standards.Code code, DesignCache cache){
+        ArrayList<Double> reinforcementAreas = cache.Flexural(mk, this, code, this.steel);
         this.As = reinforcementAreas.get(0);
         this.As2 = reinforcementAreas.get(1);
+        designed(mk, code);
     }
 
 
@@ -0,0 +1,191 @@
+package sections;
+
+import calculations.FlexuralResult;
+import calculations.Resistance;
+import calculations.SlabMoments;
+import enums.SUPPORTS.Edge;
+import enums.SUPPORTS.Support;
+
+/**
+ * Class used to calculate rectangular slab panels supported on the four edges.
+ * The moments of the panel are obtained from its spans, supports and load (SlabMoments),
+ * and each moment is designed as a strip of 1 meter, with the Slab section of the panel.
+ */
+public class SlabPanel {
+
+    // Geometry of the panel
+    private final double lx; // Span along x [millimeter]
+    private final double ly; // Span along y [millimeter]
+    private final Support[] supports; // Support of each edge (indexed by Edge.ordinal())
+    private final double load; // Uniform characteristic load [kN/m²]
+
+    // Section of the strips of the panel
+    private final Slab strip;
+
+    // Moments [Mx, My, X left, X right, X bottom, X top] [N.mm/m]
+    private final double[] moments = new double[6];
+    // Reinforcement areas of each moment [mm²/m]
+    private final double[] As  = new double[6];
+    private final double[] As2 = new double[6];
+
+
+
+    /**
+     * Constructor with the properties of the panel.
+     * @param lx - Span of the panel along x [millimeter].
+     * @param ly - Span of the panel along y [millimeter].
+     * @param load - Uniform characteristic load on the panel [kN/m²].
+     * @param strip - Section of the slab (effective height, concrete and steel).
+     * @param left, right, bottom, top - Supports of the edges.
+     */
+    public SlabPanel(double lx, double ly, double load, Slab strip, Support left, Support right, Support bottom, Support top){
+        if (lx <= 0 || ly <= 0 || load < 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        this.lx = lx;
+        this.ly = ly;
+        this.load = load;
+        this.strip = strip;
+        this.supports = new Support[] {left, right, bottom, top};
+    }
+
+
+    /**
+    *
+    * End of constructors
+    *
+    */
+
+
+    /**
+     * Obtains the moments of the panel, isolated from the other panels.
+     * @param method - Method used to obtain the moments (Marcus or strips).
+     */
+    public void PanelMoments(SlabMoments.Method method){
+        SlabMoments.Moments(lx, ly, load, supports, method, moments);
+    }
+
+
+
+    /**
+     * Changes the negative moment of an edge to the value balanced with the next panel.
+     * When the moment is reduced, the positive moment of the direction grows by half of the reduction.
+     * @param edge - Edge of the panel.
+     * @param X - Negative moment balanced [N.mm/m].
+     */
+    public void balanceEdge(Edge edge, double X){
+        int index = SlabMoments.EDGES + edge.ordinal();
+        double reduction = moments[index] - X;
+        if (reduction > 0) {
+            moments[edge.isX() ? SlabMoments.MX : SlabMoments.MY] += reduction/2;
+        }
+        moments[index] = X;
+    }
+
+
+
+    /**
+     * Designs the strips of the panel for all its moments (as the Slab of 1 meter).
+     * @param code - Defines the code parameters and coeficients
+     * @param result - Holder of the design, reused between designs
+     */
+    public void FlexuralResistance(standards.Code code, FlexuralResult result){
+        for (int i = 0; i < moments.length; i++) {
+            if (i >= SlabMoments.EDGES && supports[i - SlabMoments.EDGES] != Support.FIXED) {
+                As[i] = 0;
+                As2[i] = 0;
+                continue;
+            }
+            // The strip is only read, so panels can share it among threads
+            Resistance.Flexural(moments[i], strip, code, strip.steel, result);
+            As[i] = result.getAs();
+            As2[i] = result.getAs2();
+        }
+    }
+
+
+    /** @return double return the span along x [millimeter] */
+    public double getLx() {
+        return lx;
+    }
+
+    /** @return double return the span along y [millimeter] */
+    public double getLy() {
+        return ly;
+    }
+
+    /** @return double return the uniform characteristic load [kN/m²] */
+    public double getLoad() {
+        return load;
+    }
+
+    /** @return Support return the support of the edge */
+    public Support getSupport(Edge edge) {
+        return supports[edge.ordinal()];
+    }
+
+    /** @return Slab return the section of the strips */
+    public Slab getStrip() {
+        return strip;
+    }
+
+    /** @return double return the positive moment of the strips along x [N.mm/m] */
+    public double getMx() {
+        return moments[SlabMoments.MX];
+    }
+
+    /** @return double return the positive moment of the strips along y [N.mm/m] */
+    public double getMy() {
+        return moments[SlabMoments.MY];
+    }
+
+    /** @return double return the negative moment of the edge (positive value) [N.mm/m] */
+    public double getX(Edge edge) {
+        return moments[SlabMoments.EDGES + edge.ordinal()];
+    }
+
+    /** @return double return the bottom reinforcement along x [mm²/m] */
+    public double getAsx() {
+        return As[SlabMoments.MX];
+    }
+
+    /** @return double return the bottom reinforcement along y [mm²/m] */
+    public double getAsy() {
+        return As[SlabMoments.MY];
+    }
+
+    /** @return double return the top reinforcement over the edge [mm²/m] */
+    public double getAs(Edge edge) {
+        return As[SlabMoments.EDGES + edge.ordinal()];
+    }
+
+    /** @return double return the compression reinforcement of the moment along x [mm²/m] */
+    public double getAs2x() {
+        return As2[SlabMoments.MX];
+    }
+
+    /** @return double return the compression reinforcement of the moment along y [mm²/m] */
+    public double getAs2y() {
+        return As2[SlabMoments.MY];
+    }
+
+    /** @return double return the compression reinforcement of the moment over the edge [mm²/m] */
+    public double getAs2(Edge edge) {
+        return As2[SlabMoments.EDGES + edge.ordinal()];
+    }
+
+
+    @Override
+    public String toString() {
+        String str =
+        "*Slab Panel: " + lx + "mm x " + ly + "mm, " + load + "kN/m² \n" +
+        "  Mx =\t" + getMx()/1e6 + "kN.m/m, As =\t" + getAsx()/100 + "cm²/m \n" +
+        "  My =\t" + getMy()/1e6 + "kN.m/m, As =\t" + getAsy()/100 + "cm²/m \n";
+        for (Edge edge : Edge.values()) {
+            if (getSupport(edge) == Support.FIXED) {
+                str += "  X " + edge + " =\t" + getX(edge)/1e6 + "kN.m/m, As =\t" + getAs(edge)/100 + "cm²/m \n";
+            }
+        }
+        return str;
+    }
+}
@@ -35,35 +35,26 @@ public class BrazilianCode extends Code{
      * @param fck - Value of Compression Concrete Resistance in MPa
      */
     public void setFck(double fck){
-        if (fck <= 0) {
-            throw new IllegalArgumentException();
-        // Maximum Concrete Resistance according to Code = 90 MPa.
-        } else if (fck > 90) {
-            fck = 90;
-        }
-        this.fck = fck;
-        updateCode();
+        BrazilianParameters parameters = getParameters(fck);
+        this.fck = parameters.getFck();
+        this.ec2 = parameters.getec2();
+        this.ecu = parameters.getecu();
+        this.n = parameters.getN();
+        this.LN = parameters.getLN();
+        this.fctm = parameters.getFctm();
+        this.fctkinf = parameters.getFctkinf();
+        this.fctksup = parameters.getFctksup();
     }
 
 
 
-    // Method that updates all code parameters used in the calculation
-    private void updateCode(){
-        if (this.fck <= 50){
-            this.ec2 = 2.0/1000;
-            this.ecu = 3.5/1000;
-            this.n = 2;
-            this.LN = 0.45;
-            this.fctm = 0.3*Math.pow(fck, (2.0/3));
-        } else {
-            this.ec2 = 2.0/1000 + (0.085/1000)*(Math.pow((fck-50), 0.53));
-            this.ecu = 2.6/1000 + (35.0/1000)*(Math.pow(((90.0-fck)/100), 4));
-            this.n = 1.4 + 23.4*(Math.pow(((90.0-fck)/100), 4));
-            this.LN = 0.35;
-            this.fctm = 2.12*Math.log(1+0.11*fck);
-        }
-        this.fctkinf = 0.7*fctm;
-        this.fctksup = 1.3*fctm;
+    /**
+     * Obtains the immutable code parameters for the fck, without changing this code.
+     * @param fck - Value of Compression Concrete Resistance in MPa
+     * @return BrazilianParameters - Shared parameters of the code for the fck.
+     */
+    public BrazilianParameters getParameters(double fck){
+        return BrazilianParameters.of(fck);
     }
 
 
@@ -80,6 +71,7 @@ public class BrazilianCode extends Code{
         this.gc = gc;
         this.gs = gs;
         this.gf = gf;
+        this.version++;
     }
 
 
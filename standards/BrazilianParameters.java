@@ -0,0 +1,150 @@
+package standards;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import utils.StressBlock;
+
+/**
+ * Parameters of the Brazilian Code - NBR 6118:2014 for a given fck.
+ * The snapshots of all integer fck (which include every GRADES.Concrete class) are prebuilt,
+ * other values are built on demand and cached.
+ */
+public final class BrazilianParameters extends CodeParameters {
+
+    // Snapshots prebuilt for the integer values of fck [1, 90] MPa
+    private static final BrazilianParameters[] PREBUILT = new BrazilianParameters[91];
+    static {
+        for (int fck = 1; fck <= 90; fck++) {
+            PREBUILT[fck] = new BrazilianParameters(fck);
+        }
+    }
+
+    // Snapshots of the non integer fck values, limited to avoid an unbounded growth
+    private static final int CACHE_LIMIT = 1024;
+    private static final ConcurrentHashMap<Double, BrazilianParameters> CACHE = new ConcurrentHashMap<>();
+
+    // Flexural parameters
+    private final double ec2;
+    private final double n;
+    private final StressBlock stressBlock; // Closed form of the diagram, precomputed for ec2 and n
+
+    // Tension parameters
+    private final double fctm;
+    private final double fctkinf;
+    private final double fctksup;
+
+    // Modulus of elasticity (granite aggregate, aE = 1.0)
+    private final double Eci;
+    private final double Ecs;
+
+
+    // Constructor that calculates all the code parameters used in the calculation
+    private BrazilianParameters(double fck){
+        super(fck, (fck <= 50) ? 0.45 : 0.35,
+              (fck <= 50) ? 3.5/1000 : 2.6/1000 + (35.0/1000)*(Math.pow(((90.0-fck)/100), 4)));
+        if (fck <= 50){
+            this.ec2 = 2.0/1000;
+            this.n = 2;
+            this.fctm = 0.3*Math.pow(fck, (2.0/3));
+        } else {
+            this.ec2 = 2.0/1000 + (0.085/1000)*(Math.pow((fck-50), 0.53));
+            this.n = 1.4 + 23.4*(Math.pow(((90.0-fck)/100), 4));
+            this.fctm = 2.12*Math.log(1+0.11*fck);
+        }
+        this.fctkinf = 0.7*fctm;
+        this.fctksup = 1.3*fctm;
+        // Item 8.2.8: initial and secant modulus
+        this.Eci = (fck <= 50) ? 5600*Math.sqrt(fck) : 21.5e3*Math.cbrt(fck/10 + 1.25);
+        this.Ecs = Math.min(0.8 + 0.2*fck/80, 1)*Eci;
+        this.stressBlock = new StressBlock(ec2, n);
+    }
+
+
+
+    /**
+     * Obtains the (shared) parameters of the code for the fck.
+     * @param fck - Value of Compression Concrete Resistance in MPa
+     * @return BrazilianParameters - Immutable parameters for the fck (limited to 90 MPa).
+     */
+    public static BrazilianParameters of(double fck){
+        fck = limitFck(fck);
+        int index = (int) fck;
+        if (index == fck) {
+            return PREBUILT[index];
+        }
+        BrazilianParameters parameters = CACHE.get(fck);
+        if (parameters == null) {
+            parameters = new BrazilianParameters(fck);
+            if (CACHE.size() < CACHE_LIMIT) {
+                CACHE.putIfAbsent(fck, parameters);
+            }
+        }
+        return parameters;
+    }
+
+
+    /**
+     * @return double - return the concrete strain at the rupture by compression.
+     */
+    public double getec2() {
+        return ec2;
+    }
+
+
+    /**
+     * @return double - return the Flexural parameter n.
+     */
+    public double getN() {
+        return n;
+    }
+
+
+    /**
+     * @return StressBlock - return the closed form of the Compression Concrete diagram.
+     */
+    public StressBlock getStressBlock() {
+        return stressBlock;
+    }
+
+
+    /**
+     * @return double return the fctm.
+     */
+    @Override
+    public double getFctm() {
+        return fctm;
+    }
+
+
+    /**
+     * @return double return the fctkinf.
+     */
+    public double getFctkinf() {
+        return fctkinf;
+    }
+
+
+    /**
+     * @return double return the fctksup.
+     */
+    public double getFctksup() {
+        return fctksup;
+    }
+
+
+    /**
+     * @return double return the initial modulus of elasticity - Eci [MPa].
+     */
+    public double getEci() {
+        return Eci;
+    }
+
+
+    /**
+     * @return double return the secant modulus of elasticity - Ecs [MPa].
+     */
+    @Override
+    public double getEcs() {
+        return Ecs;
+    }
+}
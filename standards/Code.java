@@ -1,6 +1,12 @@
 package standards;
 
-public class Code {
+/**
+ * Base of the design codes: safety factors and the parameters that depend on the fck.
+ * The flexural design of each code is done by its calculations.FlexuralKernel, and the shear, serviceability and slabs
+ * by its calculations.MemberKernel, both found through the ServiceLoader, so a new code is added with a subclass of Code
+ * and its kernels, without changes in the design routines.
+ */
+public abstract class Code {
 
     // Compressive strength of concrete
     double fck;
@@ -16,14 +22,19 @@ public class Code {
     double gs; // Steel S.F.
     double gf; // Force S.F.
 
+    // Changes of the coefficients, so the sections designed before know their design is out of date
+    int version;
+
     // Define some methods that are use in the Resistance.java Class
-    public void setFck(double fck){};
-    public void setCoefficients(double gc, double gs, double gf){};
-    public double getFck(){return 0;};
-    public double getGc() {return 0;};
-    public double getGs() {return 0;};
-    public double getGf() {return 0;};
-    public double getLN() {return 0;};
-    public double getecu() {return 0;};
-    
+    public abstract void setFck(double fck);
+    public abstract void setCoefficients(double gc, double gs, double gf);
+    public abstract double getFck();
+    public abstract double getGc();
+    public abstract double getGs();
+    public abstract double getGf();
+    public abstract double getLN();
+    public abstract double getecu();
+    public abstract CodeParameters getParameters(double fck);
+    public int getVersion() {return version;};
+
 }
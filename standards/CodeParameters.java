@@ -0,0 +1,77 @@
+package standards;
+
+/**
+ * Immutable set of the code parameters that depend only on the concrete fck.
+ * Instances are built once per fck and shared, so a single Code can be used
+ * by many threads at the same time (the Code object is never modified while designing).
+ */
+public abstract class CodeParameters {
+
+    // Compressive strength of concrete (limited to the code maximum)
+    final double fck;
+
+    // Neutral Axis limit
+    final double LN;
+
+    // Defined strain of the concrete compression at the rupture
+    final double ecu;
+
+    CodeParameters(double fck, double LN, double ecu){
+        this.fck = fck;
+        this.LN = LN;
+        this.ecu = ecu;
+    }
+
+
+
+    /**
+     * Limits the fck to the range accepted by the codes.
+     * @param fck - Value of Compression Concrete Resistance in MPa
+     * @return double - fck limited to the maximum of 90 MPa.
+     */
+    static double limitFck(double fck){
+        if (fck <= 0) {
+            throw new IllegalArgumentException();
+        // Maximum Concrete Resistance according to Code = 90 MPa.
+        } else if (fck > 90) {
+            fck = 90;
+        }
+        return fck;
+    }
+
+
+    /**
+     * @return double - return the compressive strength of concrete - fck
+     */
+    public double getFck() {
+        return fck;
+    }
+
+
+    /**
+     * @return double - return the Neutral Axis Limit.
+     */
+    public double getLN() {
+        return LN;
+    }
+
+
+    /**
+     * @return double - return the concrete strain at the Ultimate Limit State of Rupture.
+     */
+    public double getecu() {
+        return ecu;
+    }
+
+
+    /**
+     * @return double - return the mean tensile strength of concrete - fctm [MPa].
+     */
+    public abstract double getFctm();
+
+
+    /**
+     * @return double - return the secant modulus of elasticity of concrete - Ecs (NBR 6118) or Ecm (Eurocode 2) [MPa].
+     */
+    public abstract double getEcs();
+}
@@ -31,30 +31,23 @@ public class EuropeanCode extends Code{
      * @param fck - Value of Compression Concrete Resistance in MPa
      */
     public void setFck(double fck){
-        if (fck <= 0) {
-            throw new IllegalArgumentException();
-        // Maximum Concrete Resistance according to Code = 90 MPa.
-        } else if (fck > 90) {
-            fck = 90;
-        }
-        this.fck = fck;
-        updateCode();
+        EuropeanParameters parameters = getParameters(fck);
+        this.fck = parameters.getFck();
+        this.ecu = parameters.getecu();
+        this.ac = parameters.getAc();
+        this.lambda = parameters.getLambda();
+        this.LN = parameters.getLN();
     }
 
 
 
-    // Method that updates all code parameters used in the calculation
-    private void updateCode(){
-        this.ecu = 3.5/1000;
-        if (this.fck <= 50){
-            this.ac = 0.85;
-            this.lambda = 0.8;
-            this.LN = 0.45;
-        } else {
-            this.ac = 0.85*(1-((fck-50)/200));
-            this.lambda = 0.8-((fck-50)/400);
-            this.LN = 0.35;
-        }
+    /**
+     * Obtains the immutable code parameters for the fck, without changing this code.
+     * @param fck - Value of Compression Concrete Resistance in MPa
+     * @return EuropeanParameters - Shared parameters of the code for the fck.
+     */
+    public EuropeanParameters getParameters(double fck){
+        return EuropeanParameters.of(fck);
     }
 
 
@@ -71,6 +64,7 @@ public class EuropeanCode extends Code{
         this.gc = gc;
         this.gs = gs;
         this.gf = gf;
+        this.version++;
     }
 
 
@@ -0,0 +1,104 @@
+package standards;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parameters of the European EuroCode 2 for a given fck.
+ * The snapshots of all integer fck (which include every GRADES.Concrete class) are prebuilt,
+ * other values are built on demand and cached.
+ */
+public final class EuropeanParameters extends CodeParameters {
+
+    // Snapshots prebuilt for the integer values of fck [1, 90] MPa
+    private static final EuropeanParameters[] PREBUILT = new EuropeanParameters[91];
+    static {
+        for (int fck = 1; fck <= 90; fck++) {
+            PREBUILT[fck] = new EuropeanParameters(fck);
+        }
+    }
+
+    // Snapshots of the non integer fck values, limited to avoid an unbounded growth
+    private static final int CACHE_LIMIT = 1024;
+    private static final ConcurrentHashMap<Double, EuropeanParameters> CACHE = new ConcurrentHashMap<>();
+
+    // Flexural parameters
+    private final double ac;
+    private final double lambda;
+
+    // Tension and elasticity parameters (Table 3.1)
+    private final double fctm;
+    private final double Ecm;
+
+
+    // Constructor that calculates all the code parameters used in the calculation
+    private EuropeanParameters(double fck){
+        super(fck, (fck <= 50) ? 0.45 : 0.35, 3.5/1000);
+        if (fck <= 50){
+            this.ac = 0.85;
+            this.lambda = 0.8;
+        } else {
+            this.ac = 0.85*(1-((fck-50)/200));
+            this.lambda = 0.8-((fck-50)/400);
+        }
+        double fcm = fck + 8;
+        this.fctm = (fck <= 50) ? 0.3*Math.pow(fck, 2.0/3) : 2.12*Math.log(1 + fcm/10);
+        this.Ecm = 22000*Math.pow(fcm/10, 0.3);
+    }
+
+
+
+    /**
+     * Obtains the (shared) parameters of the code for the fck.
+     * @param fck - Value of Compression Concrete Resistance in MPa
+     * @return EuropeanParameters - Immutable parameters for the fck (limited to 90 MPa).
+     */
+    public static EuropeanParameters of(double fck){
+        fck = limitFck(fck);
+        int index = (int) fck;
+        if (index == fck) {
+            return PREBUILT[index];
+        }
+        EuropeanParameters parameters = CACHE.get(fck);
+        if (parameters == null) {
+            parameters = new EuropeanParameters(fck);
+            if (CACHE.size() < CACHE_LIMIT) {
+                CACHE.putIfAbsent(fck, parameters);
+            }
+        }
+        return parameters;
+    }
+
+
+    /**
+     * @return double - return the flexural parameter ac
+     */
+    public double getAc() {
+        return ac;
+    }
+
+
+    /**
+     * @return double return the lambda
+     */
+    public double getLambda() {
+        return lambda;
+    }
+
+
+    /**
+     * @return double return the mean tensile strength - fctm [MPa]
+     */
+    @Override
+    public double getFctm() {
+        return fctm;
+    }
+
+
+    /**
+     * @return double return the secant modulus of elasticity - Ecm [MPa]
+     */
+    @Override
+    public double getEcs() {
+        return Ecm;
+    }
+}
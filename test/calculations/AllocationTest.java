@@ -0,0 +1,57 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import enums.GRADES;
+import sections.Beam;
+import sections.ConcreteSection;
+import sections.Slab;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * The design with a FlexuralResult allocates nothing in steady state.
+ * The bytes allocated by the thread are counted around many designs, after the warm up of the JIT,
+ * for both codes, beams and slabs, singly and doubly reinforced sections.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP = 200000;
+    private static final int DESIGNS = 100000;
+
+
+    @Test
+    public void designsWithoutAllocations(){
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            ConcreteSection[] sections = {
+                new Beam(200, 500, GRADES.Concrete.C30, GRADES.Grade.CA50),
+                new Beam(150, 400, 32.5, GRADES.Grade.CA60),
+                new Slab(120, GRADES.Concrete.C70, GRADES.Grade.CA50)
+            };
+            FlexuralResult result = new FlexuralResult();
+            for (ConcreteSection section : sections) {
+                // Singly and doubly reinforced moments
+                double[] moments = {0.05*section.getWidth()*section.getHeight()*section.getHeight(),
+                                    0.4*section.getWidth()*section.getHeight()*section.getHeight()};
+                for (int i = 0; i < WARMUP; i++) {
+                    section.FlexuralResistance(moments[i & 1], code, result);
+                }
+                long before = threads.getThreadAllocatedBytes(thread);
+                for (int i = 0; i < DESIGNS; i++) {
+                    section.FlexuralResistance(moments[i & 1], code, result);
+                }
+                long allocated = threads.getThreadAllocatedBytes(thread) - before;
+                assertEquals(0, allocated, "Bytes allocated by " + DESIGNS + " designs of the "
+                             + section.getClass().getSimpleName() + " of fck " + section.getFck()
+                             + " by the " + code.getClass().getSimpleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import sections.Slab;
+import standards.BrazilianCode;
+import standards.Code;
+
+/**
+ * Two independent bays: in each one, a slab of 4 m (5 kN/m²) rests on two beams of 6 m (2 kN/m),
+ * whose starts rest on a girder of 6 m (3 kN/m) at 1 m and 5 m; the other ends rest on columns.
+ * A change of one slab designs again only that slab, its beams and their girder.
+ */
+public class BuildingModelTest {
+
+    // Members of each bay: slab, two beams and the girder
+    private int[] first;
+    private int[] second;
+
+
+    @Test
+    public void changedSlabRedesignsOnlyItsDownstreamMembers(){
+        Code code = new BrazilianCode();
+        BuildingModel model = model();
+        assertEquals(8, model.design(code));
+        assertEquals(3, model.getLevels());
+        assertMoments(model, first, 5);
+        assertMoments(model, second, 5);
+        double[] untouched = moments(model, second);
+
+        // Nothing changed
+        assertEquals(0, model.design(code));
+        model.setLoad(second[0], 5);
+        assertEquals(0, model.design(code));
+
+        model.setLoad(first[0], 8);
+        assertEquals(4, model.design(code));
+        assertMoments(model, first, 8);
+        for (int k = 0; k < second.length; k++) {
+            assertEquals(untouched[k], model.getMoment(second[k]));
+        }
+    }
+
+
+    @Test
+    public void changedSectionKeepsTheLoadsBelow(){
+        Code code = new BrazilianCode();
+        BuildingModel model = model();
+        model.design(code);
+        // The reactions of the beam do not depend on its section: the girder is not designed again
+        model.getSection(second[1]).setHeight(500);
+        assertEquals(1, model.design(code));
+        assertMoments(model, second, 5);
+        // Another code designs all the members again
+        assertEquals(8, model.design(new BrazilianCode()));
+    }
+
+
+
+    private BuildingModel model(){
+        BuildingModel model = new BuildingModel();
+        first = bay(model);
+        second = bay(model);
+        return model;
+    }
+
+
+    // Slab, beams and girder of a bay
+    private static int[] bay(BuildingModel model){
+        int girder = model.addBeam(new Beam(250, 600, 30), 6000, 3);
+        int left = model.addBeam(new Beam(200, 450, 30), 6000, 2);
+        int right = model.addBeam(new Beam(200, 450, 30), 6000, 2);
+        int slab = model.addSlab(new Slab(90, 30), 4000, 5);
+        model.support(slab, left, 0);
+        model.support(slab, right, 0);
+        model.support(left, girder, 1000);
+        model.support(right, girder, 5000);
+        return new int[] {slab, left, right, girder};
+    }
+
+
+    // Closed form of the simply supported spans, for the load of the slab [kN/m²]
+    private static void assertMoments(BuildingModel model, int[] bay, double load){
+        double slab = load*4000*4000/8;      // q = load N/mm on the strip of 1 m
+        double line = 2 + load*4000/2/1000;  // Beam load plus the reaction of the slab [N/mm]
+        double beam = line*6000*6000/8;
+        double reaction = line*6000/2;
+        double girder = 3.0*6000*6000/8 + reaction*1000; // Symmetric point loads at 1 m from the supports
+        assertEquals(slab, model.getMoment(bay[0]), 1e-6*slab);
+        assertEquals(beam, model.getMoment(bay[1]), 1e-6*beam);
+        assertEquals(beam, model.getMoment(bay[2]), 1e-6*beam);
+        assertEquals(girder, model.getMoment(bay[3]), 1e-6*girder);
+    }
+
+
+    private static double[] moments(BuildingModel model, int[] bay){
+        double[] moments = new double[bay.length];
+        for (int k = 0; k < bay.length; k++) {
+            moments[k] = model.getMoment(bay[k]);
+        }
+        return moments;
+    }
+}
@@ -0,0 +1,78 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * The section designed by Resistance.Flexural for a moment resists it again: MRd = Msd, apart from the
+ * rounding of the areas (down to the mm²) and the compression reinforcement below 50000 N.mm that is not designed.
+ */
+public class CapacityTest {
+
+    private static final double[] FCKS = {20, 30, 50, 70, 90};
+    private static final double[] MOMENTS = {5e6, 40e6, 120e6, 250e6, 400e6};
+
+
+    @Test
+    public void resistsTheDesignMoment(){
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            for (double fck : FCKS) {
+                Beam beam = new Beam(200, 550, fck);
+                double fyd = beam.getSteel().getfyk()/code.getGs();
+                // One mm² of each area, at most at the lever arm d, and the compression reinforcement not designed
+                double tolerance = 2*fyd*beam.getHeight() + 50000;
+                for (double mk : MOMENTS) {
+                    List<Double> areas = Resistance.Flexural(mk, beam, code, beam.getSteel());
+                    double MRd = Capacity.Flexural(beam, code, beam.getSteel(), areas.get(0), areas.get(1));
+                    double Msd = mk*code.getGf();
+                    String name = code.getClass().getSimpleName() + " fck=" + fck + " mk=" + mk;
+                    assertEquals(Msd, MRd, tolerance, name);
+                }
+            }
+        }
+    }
+
+
+    @Test
+    public void batchEqualsTheSingleSection(){
+        BrazilianCode code = new BrazilianCode();
+        int size = FCKS.length*MOMENTS.length;
+        double[] b = new double[size], d = new double[size], fck = new double[size], fyk = new double[size];
+        double[] As = new double[size], As2 = new double[size], MRd = new double[size];
+        int i = 0;
+        for (double strength : FCKS) {
+            for (double mk : MOMENTS) {
+                Beam beam = new Beam(180, 480, strength);
+                List<Double> areas = Resistance.Flexural(mk, beam, code, beam.getSteel());
+                b[i] = 180; d[i] = 480; fck[i] = strength; fyk[i] = beam.getSteel().getfyk();
+                As[i] = areas.get(0); As2[i] = areas.get(1);
+                i++;
+            }
+        }
+        Capacity.Flexural(code, b, d, fck, fyk, As, As2, MRd);
+        for (i = 0; i < size; i++) {
+            Beam beam = new Beam(b[i], d[i], fck[i]);
+            assertEquals(Capacity.Flexural(beam, code, beam.getSteel(), As[i], As2[i]), MRd[i], 0);
+        }
+    }
+
+
+    @Test
+    public void compressionReinforcementIncreasesTheResistance(){
+        EuropeanCode code = new EuropeanCode();
+        Beam beam = new Beam(200, 500, 30);
+        double single = Capacity.Flexural(beam, code, beam.getSteel(), 2500, 0);
+        double doubly = Capacity.Flexural(beam, code, beam.getSteel(), 2500, 800);
+        assertTrue(doubly > single);
+        assertEquals(0, Capacity.Flexural(beam, code, beam.getSteel(), 0, 0), 0);
+    }
+}
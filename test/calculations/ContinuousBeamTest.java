@@ -0,0 +1,89 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import enums.SUPPORTS.Support;
+
+/**
+ * Moments of continuous beams of equal spans L under a uniform load w, against the closed form
+ * (three-moment equation): -wL²/8 at the middle support of two spans, -0.1 wL² at the inner supports of three spans.
+ * The elements are exact for uniform loads, so every station matches the closed form.
+ */
+public class ContinuousBeamTest {
+
+    private static final double L = 6000;   // Span [millimeter]
+    private static final double W = 10;     // Uniform load [kN/m = N/mm]
+    private static final double EI = 2.5e14; // Stiffness [N.mm²]
+    private static final double TOLERANCE = 1e-9*W*L*L;
+
+
+    @Test
+    public void twoEqualSpans(){
+        ContinuousBeam beam = new ContinuousBeam(new double[] {L, L}, new double[] {EI, EI},
+                                                 Support.SIMPLE, Support.SIMPLE);
+        double[] moments = beam.Moments(new double[] {W, W});
+        double[] x = beam.getPositions();
+        assertEquals(-W*L*L/8, moments[10], TOLERANCE);
+        for (int i = 0; i < moments.length; i++) {
+            // Reaction of the end supports 3wL/8, symmetric about the middle support
+            double s = Math.min(x[i], 2*L - x[i]);
+            assertEquals(3*W*L*s/8 - W*s*s/2, moments[i], TOLERANCE, "x=" + x[i]);
+        }
+        // Maximum of the span 9wL²/128, at 3L/8 (between the stations, which are lower)
+        ContinuousBeam.Envelope envelope = beam.Analyze(new double[] {W, W}, new double[] {0, 0});
+        assertEquals(-W*L*L/8, envelope.getSupportMoment(1), TOLERANCE);
+        assertEquals(3*W*L*2400/8 - W*2400*2400/2, envelope.getSpanMoment(0), TOLERANCE);
+    }
+
+
+    @Test
+    public void threeEqualSpans(){
+        ContinuousBeam beam = new ContinuousBeam(new double[] {L, L, L}, new double[] {EI, EI, EI},
+                                                 Support.SIMPLE, Support.SIMPLE);
+        double[] moments = beam.Moments(new double[] {W, W, W});
+        double[] x = beam.getPositions();
+        assertEquals(-0.1*W*L*L, moments[10], TOLERANCE);
+        assertEquals(-0.1*W*L*L, moments[20], TOLERANCE);
+        for (int i = 0; i < moments.length; i++) {
+            double expected;
+            if (x[i] <= L || x[i] >= 2*L) {
+                // End spans: reaction 0.4wL, maximum 0.08wL² at 0.4L
+                double s = Math.min(x[i], 3*L - x[i]);
+                expected = 0.4*W*L*s - W*s*s/2;
+            } else {
+                // Middle span: support moments -0.1wL², 0.025wL² at the middle
+                double s = x[i] - L;
+                expected = W*s*(L - s)/2 - 0.1*W*L*L;
+            }
+            assertEquals(expected, moments[i], TOLERANCE, "x=" + x[i]);
+        }
+        assertEquals(0.08*W*L*L, moments[4], TOLERANCE);
+        assertEquals(0.025*W*L*L, moments[15], TOLERANCE);
+    }
+
+
+    @Test
+    public void patternLoadingOfThreeSpans(){
+        ContinuousBeam beam = new ContinuousBeam(new double[] {L, L, L}, new double[] {EI, EI, EI},
+                                                 Support.SIMPLE, Support.SIMPLE);
+        ContinuousBeam.Envelope envelope = beam.Analyze(new double[] {0, 0, 0}, new double[] {W, W, W});
+        // Spans 1 and 2 loaded: -7wL²/60 at the first inner support
+        assertEquals(-7*W*L*L/60, envelope.getSupportMoment(1), TOLERANCE);
+        assertEquals(-7*W*L*L/60, envelope.getSupportMoment(2), TOLERANCE);
+        // Middle span loaded alone: wL²/8 - 0.05wL²; end spans loaded alone: -0.05wL² along the middle span
+        assertEquals(0.075*W*L*L, envelope.getSpanMoment(1), TOLERANCE);
+        assertEquals(-0.05*W*L*L, envelope.getMin()[15], TOLERANCE);
+    }
+
+
+    @Test
+    public void fixedEnds(){
+        ContinuousBeam beam = new ContinuousBeam(new double[] {L}, new double[] {EI}, Support.FIXED, Support.FIXED);
+        double[] moments = beam.Moments(new double[] {W});
+        assertEquals(-W*L*L/12, moments[0], TOLERANCE);
+        assertEquals(W*L*L/24, moments[5], TOLERANCE);
+        assertEquals(-W*L*L/12, moments[10], TOLERANCE);
+    }
+}
@@ -0,0 +1,74 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * A design read from the cache is the design of Resistance.Flexural, for the exact or the quantized moment,
+ * and a change of the coefficients of the code is not answered with the designs of the old coefficients.
+ */
+public class DesignCacheTest {
+
+    private static final double[] MOMENTS = {2e4, 8e6, 55e6, 140e6, 260e6, 410e6};
+
+
+    @Test
+    public void hitEqualsTheFreshDesign(){
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            DesignCache cache = new DesignCache(1024);
+            Beam beam = new Beam(200, 500, 35);
+            for (int pass = 0; pass < 2; pass++) {
+                for (double mk : MOMENTS) {
+                    List<Double> fresh = Resistance.Flexural(mk, beam, code, beam.getSteel());
+                    List<Double> cached = cache.Flexural(mk, beam, code, beam.getSteel());
+                    assertEquals(fresh, cached, code.getClass().getSimpleName() + " mk=" + mk + " pass " + pass);
+                }
+            }
+            assertEquals(MOMENTS.length, cache.getMisses());
+            assertEquals(MOMENTS.length, cache.getHits());
+        }
+    }
+
+
+    @Test
+    public void quantizedMomentIsWithinTheRounding(){
+        BrazilianCode code = new BrazilianCode();
+        Beam beam = new Beam(250, 600, 30);
+        double quantum = DesignCache.safeQuantum(beam.getHeight(), beam.getSteel().getfyk(), code);
+        DesignCache cache = new DesignCache(1024, quantum, utils.NeutralAxisSolver.DEFAULT);
+        for (double mk = 10e6; mk < 300e6; mk += 7.3e6) {
+            List<Double> cached = cache.Flexural(mk, beam, code, beam.getSteel());
+            // Exactly the design of the rounded moment
+            List<Double> rounded = Resistance.Flexural(Math.rint(mk/quantum)*quantum, beam, code, beam.getSteel());
+            assertEquals(rounded, cached, "mk=" + mk);
+            // Tension reinforcement within the rounding of the exact moment (simple reinforcement)
+            List<Double> exact = Resistance.Flexural(mk, beam, code, beam.getSteel());
+            if (exact.get(1) == 0) {
+                assertEquals(exact.get(0), cached.get(0), 1, "mk=" + mk);
+            }
+        }
+    }
+
+
+    @Test
+    public void changedCoefficientsAreDesignedAgain(){
+        BrazilianCode code = new BrazilianCode();
+        DesignCache cache = new DesignCache(64);
+        Beam beam = new Beam(200, 450, 30);
+        List<Double> before = cache.Flexural(120e6, beam, code, beam.getSteel());
+        code.setCoefficients(1.5, 1.2, 1.5);
+        List<Double> after = cache.Flexural(120e6, beam, code, beam.getSteel());
+        assertEquals(Resistance.Flexural(120e6, beam, code, beam.getSteel()), after);
+        assertEquals(2, cache.getMisses());
+        assertTrue(after.get(0) > before.get(0));
+    }
+}
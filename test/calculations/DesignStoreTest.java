@@ -0,0 +1,184 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+
+/**
+ * The designs of a store are kept between the runs, a store of another version is discarded, a store not
+ * closed is recovered, and a store in use is refused.
+ */
+public class DesignStoreTest {
+
+    private static final double[] MOMENTS = {8e6, 55e6, 140e6, 260e6};
+
+    // Layout of the file (DesignStore)
+    private static final int HEADER = 64;
+    private static final int RECORD = 104;
+    private static final int H_STAMP = 16, H_SLOTS = 24, H_COUNT = 32, H_OPEN = 44;
+    private static final long LOCKED = Long.MIN_VALUE;
+
+    @TempDir
+    Path directory;
+
+
+    @Test
+    public void reopenedStoreKeepsTheDesigns() throws IOException {
+        Path file = directory.resolve("designs.store");
+        Code code = new BrazilianCode();
+        Beam beam = new Beam(200, 500, 30);
+        try (DesignStore store = DesignStore.open(file, 64)) {
+            assertEquals(0, store.getRun());
+            for (double mk : MOMENTS) {
+                store.Flexural(mk, beam, code, beam.getSteel());
+            }
+            assertEquals(MOMENTS.length, store.getMisses());
+        }
+        try (DesignStore store = DesignStore.open(file, 64)) {
+            assertEquals(1, store.getRun());
+            assertEquals(MOMENTS.length, store.size());
+            for (double mk : MOMENTS) {
+                List<Double> fresh = Resistance.Flexural(mk, beam, code, beam.getSteel());
+                assertEquals(fresh, store.Flexural(mk, beam, code, beam.getSteel()), "mk=" + mk);
+            }
+            assertEquals(MOMENTS.length, store.getHits());
+            assertEquals(0, store.getMisses());
+        }
+    }
+
+
+    @Test
+    public void storeOfAnotherVersionIsDiscarded() throws IOException {
+        Path file = directory.resolve("designs.store");
+        Code code = new BrazilianCode();
+        Beam beam = new Beam(200, 500, 30);
+        try (DesignStore store = DesignStore.open(file, 64)) {
+            for (double mk : MOMENTS) {
+                store.Flexural(mk, beam, code, beam.getSteel());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = header(channel);
+            header.putLong(H_STAMP, DesignStore.stamp("0.0.1"));
+            header.force();
+        }
+        try (DesignStore store = DesignStore.open(file, 64)) {
+            assertEquals(0, store.size());
+            assertEquals(0, store.getRun());
+            store.Flexural(MOMENTS[0], beam, code, beam.getSteel());
+            assertEquals(1, store.getMisses());
+        }
+    }
+
+
+    @Test
+    public void stampChangesWithTheVersion(){
+        assertNotNull(DesignStore.getVersion(), "version written by the build");
+        assertEquals(DesignStore.stamp(DesignStore.getVersion()), DesignStore.stamp());
+        assertNotEquals(DesignStore.stamp("1.0.0"), DesignStore.stamp("1.0.1"));
+        assertNotEquals(DesignStore.stamp(null), DesignStore.stamp("1.0.0"));
+    }
+
+
+    @Test
+    public void storeNotClosedIsRecovered() throws IOException {
+        Path file = directory.resolve("designs.store");
+        Path crashed = directory.resolve("crashed.store");
+        Code code = new BrazilianCode();
+        Beam beam = new Beam(200, 500, 30);
+        try (DesignStore store = DesignStore.open(file, 64)) {
+            for (double mk : MOMENTS) {
+                store.Flexural(mk, beam, code, beam.getSteel());
+            }
+            store.force();
+            // The file of a process stopped while the store was open
+            Files.copy(file, crashed);
+        }
+        try (FileChannel channel = FileChannel.open(crashed, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = header(channel);
+            assertEquals(1, header.getInt(H_OPEN));
+            int slots = (int) header.getLong(H_SLOTS);
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) slots*RECORD);
+            records.order(ByteOrder.LITTLE_ENDIAN);
+            // A writer stopped before publishing its record
+            int offset = HEADER;
+            while (records.getLong(offset) != 0) {
+                offset += RECORD;
+            }
+            records.putLong(offset, LOCKED);
+            records.putLong(H_COUNT, MOMENTS.length + 1);
+            records.force();
+        }
+        try (DesignStore store = DesignStore.open(crashed, 64)) {
+            assertEquals(MOMENTS.length, store.size());
+            for (double mk : MOMENTS) {
+                store.Flexural(mk, beam, code, beam.getSteel());
+            }
+            assertEquals(MOMENTS.length, store.getHits());
+            // The released record is used again
+            store.Flexural(300e6, beam, code, beam.getSteel());
+            assertEquals(MOMENTS.length + 1, store.size());
+        }
+        try (FileChannel channel = FileChannel.open(crashed, StandardOpenOption.READ)) {
+            assertEquals(0, channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER).order(ByteOrder.LITTLE_ENDIAN)
+                                   .getInt(H_OPEN));
+        }
+    }
+
+
+    @Test
+    public void storeInUseIsRefused() throws IOException {
+        Path file = directory.resolve("designs.store");
+        Path target = directory.resolve("compacted.store");
+        Code code = new BrazilianCode();
+        Beam beam = new Beam(200, 500, 30);
+        try (DesignStore store = DesignStore.open(file, 64)) {
+            store.Flexural(MOMENTS[0], beam, code, beam.getSteel());
+            IOException open = assertThrows(IOException.class, () -> DesignStore.open(file, 64));
+            assertTrue(open.getMessage().contains("in use"), open.getMessage());
+            assertThrows(IOException.class, () -> DesignStore.compact(file, target, 0, 0));
+            // The store is not recovered nor replaced by the refused openings
+            assertEquals(1, store.size());
+        }
+        try (DesignStore store = DesignStore.open(target, 64)) {
+            assertThrows(IOException.class, () -> DesignStore.compact(file, target, 0, 0));
+            assertEquals(0, store.size());
+        }
+        assertEquals(1, DesignStore.compact(file, target, 0, 0));
+    }
+
+
+    @Test
+    public void fileThatIsNotAStoreIsRefused() throws IOException {
+        Path file = directory.resolve("notes.txt");
+        Files.writeString(file, "Not a design store, kept as it is.");
+        assertThrows(IOException.class, () -> DesignStore.open(file, 64));
+        assertEquals("Not a design store, kept as it is.", Files.readString(file));
+    }
+
+
+    // Header of the file, little endian
+    private static MappedByteBuffer header(FileChannel channel) throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        return header;
+    }
+}
@@ -0,0 +1,97 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import enums.BARS;
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * Arrangements of a beam 200 x 450 mm (C30, CA-50) with a cover of 30 mm, stirrups of 6.3 mm and aggregate of 19 mm:
+ * 127.4 mm between the stirrups. With the clear spacing of NBR 6118, a layer has 4 bars of 10 mm, 3 bars of 16 mm
+ * or 20 mm, and the layers of 16 mm are 16 + 20 mm apart (16 + 24 mm with the Eurocode 2).
+ */
+public class DetailingTest {
+
+    private static final double WIDTH = 200;
+    private static final double DEPTH = 450;
+    private static final double COVER = 30;
+
+
+    @Test
+    public void cheapestArrangementInOneLayer(){
+        Code code = new BrazilianCode();
+        Beam beam = new Beam(WIDTH, DEPTH, 30);
+        // As = 627 mm²: 2 bars of 20 mm (628 mm²) are lighter than 6 of 12.5 mm or 4 of 16 mm,
+        // and 8 bars of 10 mm need 2 layers (then a lower d and more bars, 3 layers)
+        Detailing.Detail detail = new Detailing(code, COVER).Arrange(beam, 80e6);
+        assertTrue(detail.isValid());
+        assertEquals(BARS.Diameter.D20, detail.getDiameter());
+        assertArrayEquals(new int[] {2}, detail.getLayers());
+        assertEquals(DEPTH, detail.getD());
+        assertEquals(Resistance.Flexural(80e6, beam, code, beam.getSteel()).get(0), detail.getAs());
+        assertTrue(detail.getArea() >= detail.getAs());
+        assertNull(detail.getCompressionDiameter());
+    }
+
+
+    @Test
+    public void secondLayerLowersTheEffectiveHeight(){
+        // 6 bars of 16 mm in 2 layers of 3: the resultant is half the spacing of the layers above the first one
+        double[] spacing = {16 + 20, 16 + 24};
+        Code[] codes = {new BrazilianCode(), new EuropeanCode()};
+        for (int c = 0; c < codes.length; c++) {
+            Code code = codes[c];
+            Beam beam = new Beam(WIDTH, DEPTH, 30);
+            Detailing.Detail detail = new Detailing(code, COVER).Arrange(beam, 120e6);
+            String name = code.getClass().getSimpleName();
+            assertEquals(BARS.Diameter.D16, detail.getDiameter(), name);
+            assertArrayEquals(new int[] {3, 3}, detail.getLayers(), name);
+            double d = DEPTH - spacing[c]/2;
+            assertEquals(d, detail.getD(), 1e-9, name);
+            // Designed again with the effective height of the bars, which still resist it
+            Beam lowered = new Beam(WIDTH, d, 30);
+            List<Double> areas = Resistance.Flexural(120e6, lowered, code, lowered.getSteel());
+            assertEquals(areas.get(0), detail.getAs(), name);
+            assertTrue(detail.getAs() > Resistance.Flexural(120e6, beam, code, beam.getSteel()).get(0), name);
+            assertTrue(detail.getArea() >= detail.getAs(), name);
+        }
+    }
+
+
+    @Test
+    public void barsThatDoNotFitAreRefused(){
+        // 30 mm between the stirrups: not even 2 bars of 10 mm with 22.8 mm of clear spacing
+        Beam beam = new Beam(102.6, DEPTH, 30);
+        Detailing.Detail detail = new Detailing(new BrazilianCode(), COVER).Arrange(beam, 20e6);
+        assertFalse(detail.isValid());
+        assertNull(detail.getDiameter());
+        assertEquals(0, detail.getArea());
+    }
+
+
+    @Test
+    public void buildingIsDetailedLikeEachBeam(){
+        Code code = new EuropeanCode();
+        Detailing detailing = new Detailing(code, COVER);
+        List<Beam> beams = List.of(new Beam(WIDTH, DEPTH, 30), new Beam(WIDTH, DEPTH, 30), new Beam(250, 600, 35));
+        double[] moments = {80e6, 120e6, 200e6};
+        Detailing.Detail[] details = detailing.Arrange(beams, moments);
+        for (int i = 0; i < moments.length; i++) {
+            Detailing.Detail single = detailing.Arrange(beams.get(i), moments[i]);
+            assertEquals(single.getDiameter(), details[i].getDiameter());
+            assertArrayEquals(single.getLayers(), details[i].getLayers());
+            assertEquals(single.getD(), details[i].getD());
+        }
+    }
+}
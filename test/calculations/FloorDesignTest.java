@@ -0,0 +1,94 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import enums.SUPPORTS.Edge;
+import enums.SUPPORTS.Support;
+import sections.SlabPanel;
+import sections.Slab;
+import standards.BrazilianCode;
+
+/**
+ * Moments of the panels against the closed forms of the strips, and the balance of a shared edge.
+ */
+public class FloorDesignTest {
+
+    // Relative tolerance of the closed forms
+    private static final double TOLERANCE = 1e-12;
+
+
+    @Test
+    public void squarePanelSimplySupported(){
+        double l = 4000, p = 10; // [mm], [kN/m²]
+        double[] moments = new double[6];
+        Support[] simple = {Support.SIMPLE, Support.SIMPLE, Support.SIMPLE, Support.SIMPLE};
+        // Half of the load in each direction: p*l²/16
+        SlabMoments.Moments(l, l, p, simple, SlabMoments.Method.STRIP, moments);
+        double strip = p*l*l/16;
+        assertEquals(strip, moments[SlabMoments.MX], TOLERANCE*strip);
+        assertEquals(strip, moments[SlabMoments.MY], TOLERANCE*strip);
+        // Marcus: v = 1 - (20/(3*8))*0.5 = 7/12, p*l²/27.43 (tables of Marcus)
+        SlabMoments.Moments(l, l, p, simple, SlabMoments.Method.MARCUS, moments);
+        assertEquals(strip*7/12, moments[SlabMoments.MX], TOLERANCE*strip);
+        assertEquals(p*l*l/27.43, moments[SlabMoments.MX], 1e-3*strip);
+        for (Edge edge : Edge.values()) {
+            assertEquals(0, moments[SlabMoments.EDGES + edge.ordinal()], 0);
+        }
+    }
+
+
+    @Test
+    public void fixedEdgesOfOneDirection(){
+        double lx = 4000, ly = 6000, p = 8;
+        double[] moments = new double[6];
+        Support[] supports = {Support.FIXED, Support.FIXED, Support.SIMPLE, Support.SIMPLE};
+        SlabMoments.Moments(lx, ly, p, supports, SlabMoments.Method.STRIP, moments);
+        // Deflection of the strips: kx = 5*ly^4/(1*lx^4 + 5*ly^4)
+        double kx = 5*Math.pow(ly, 4)/(Math.pow(lx, 4) + 5*Math.pow(ly, 4));
+        double mx = kx*p*lx*lx;
+        double my = (1 - kx)*p*ly*ly;
+        assertEquals(mx/24, moments[SlabMoments.MX], TOLERANCE*mx);
+        assertEquals(my/8, moments[SlabMoments.MY], TOLERANCE*my);
+        assertEquals(mx/12, moments[SlabMoments.EDGES + Edge.LEFT.ordinal()], TOLERANCE*mx);
+        assertEquals(mx/12, moments[SlabMoments.EDGES + Edge.RIGHT.ordinal()], TOLERANCE*mx);
+        assertEquals(0, moments[SlabMoments.EDGES + Edge.TOP.ordinal()], 0);
+    }
+
+
+    @Test
+    public void sharedEdgeIsBalanced(){
+        BrazilianCode code = new BrazilianCode();
+        Slab strip = new Slab(90, 30);
+        SlabPanel small = new SlabPanel(3000, 5000, 7, strip, Support.SIMPLE, Support.FIXED, Support.SIMPLE, Support.SIMPLE);
+        SlabPanel large = new SlabPanel(5000, 5000, 7, strip, Support.FIXED, Support.SIMPLE, Support.SIMPLE, Support.SIMPLE);
+        FloorDesign floor = new FloorDesign();
+        int a = floor.add(small);
+        int b = floor.add(large);
+        floor.connect(a, Edge.RIGHT, b, Edge.LEFT);
+
+        // Moments of the isolated panels
+        double[] first = new double[6], second = new double[6];
+        Support[] supportsA = {Support.SIMPLE, Support.FIXED, Support.SIMPLE, Support.SIMPLE};
+        Support[] supportsB = {Support.FIXED, Support.SIMPLE, Support.SIMPLE, Support.SIMPLE};
+        SlabMoments.Moments(3000, 5000, 7, supportsA, SlabMoments.Method.MARCUS, first);
+        SlabMoments.Moments(5000, 5000, 7, supportsB, SlabMoments.Method.MARCUS, second);
+        double X1 = first[SlabMoments.EDGES + Edge.RIGHT.ordinal()];
+        double X2 = second[SlabMoments.EDGES + Edge.LEFT.ordinal()];
+        double X = Math.max(0.8*Math.max(X1, X2), (X1 + X2)/2);
+
+        floor.design(code, SlabMoments.Method.MARCUS);
+        assertEquals(X, small.getX(Edge.RIGHT), 0);
+        assertEquals(X, large.getX(Edge.LEFT), 0);
+        // The panel whose moment is reduced has its positive moment increased by half of the reduction
+        SlabPanel reduced = (X1 > X2) ? small : large;
+        double[] isolated = (X1 > X2) ? first : second;
+        assertEquals(isolated[SlabMoments.MX] + (Math.max(X1, X2) - X)/2, reduced.getMx(), 1e-9*X);
+
+        // Strips designed as slabs of 1 meter
+        assertEquals(Resistance.Flexural(large.getMx(), strip, code, strip.getSteel()).get(0), large.getAsx(), 0);
+        assertEquals(Resistance.Flexural(X, strip, code, strip.getSteel()).get(0), small.getAs(Edge.RIGHT), 0);
+        assertEquals(0, small.getAs(Edge.LEFT), 0);
+    }
+}
@@ -0,0 +1,81 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import enums.GRADES;
+import enums.SUPPORTS.Support;
+import sections.Beam;
+import sections.Slab;
+import sections.SlabPanel;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.CodeParameters;
+import standards.EuropeanCode;
+import standards.EuropeanParameters;
+
+/**
+ * The rules of each code come from its kernels: a code without kernels is refused by every routine,
+ * instead of being designed with the rules of another code.
+ */
+public class KernelsTest {
+
+    // Code without kernels, with the parameters of the Eurocode 2 (the old implicit fallback)
+    private static final class ForeignCode extends Code {
+        @Override public void setFck(double fck) { }
+        @Override public void setCoefficients(double gc, double gs, double gf) { }
+        @Override public double getFck() { return 30; }
+        @Override public double getGc() { return 1.5; }
+        @Override public double getGs() { return 1.15; }
+        @Override public double getGf() { return 1.4; }
+        @Override public double getLN() { return 0.45; }
+        @Override public double getecu() { return 0.0035; }
+        @Override public CodeParameters getParameters(double fck) { return EuropeanParameters.of(fck); }
+    }
+
+    // Subclass of a code of the library, that keeps its kernels
+    private static final class NationalAnnex extends BrazilianCode {
+    }
+
+
+    @Test
+    public void unknownCodeIsRefused(){
+        Code code = new ForeignCode();
+        Beam beam = new Beam(200, 450, 30);
+        double[] one = {1};
+        assertThrows(IllegalArgumentException.class, () -> FlexuralKernel.of(code));
+        assertThrows(IllegalArgumentException.class, () -> MemberKernel.of(code));
+        assertThrows(IllegalArgumentException.class, () -> DetailingKernel.of(code));
+        assertThrows(IllegalArgumentException.class, () -> new Detailing(code, 30));
+        assertThrows(IllegalArgumentException.class, () -> Resistance.Shear(100e3, beam, code, beam.getSteel()));
+        assertThrows(IllegalArgumentException.class,
+                     () -> Capacity.Flexural(beam, code, beam.getSteel(), 1000, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> DesignTable.of(code, GRADES.Concrete.C30, GRADES.Grade.CA50));
+        assertThrows(IllegalArgumentException.class,
+                     () -> Serviceability.Check(code, new double[]{200}, new double[]{450}, new double[]{500},
+                                                new double[]{30}, new double[]{600}, new double[]{0},
+                                                new double[]{60e6}, new double[]{5000}, 5.0/48, 16,
+                                                one.clone(), one.clone(), one.clone(), one.clone()));
+        FloorDesign floor = new FloorDesign();
+        floor.add(new SlabPanel(4000, 5000, 7, new Slab(90, 30), Support.SIMPLE, Support.SIMPLE,
+                                Support.SIMPLE, Support.SIMPLE));
+        assertThrows(IllegalArgumentException.class, () -> floor.design(code));
+    }
+
+
+    @Test
+    public void kernelsOfEachCode(){
+        assertEquals("NBR6118", MemberKernel.of(new BrazilianCode()).name());
+        assertEquals("EUROCODE2", MemberKernel.of(new EuropeanCode()).name());
+        assertEquals(SlabMoments.Method.MARCUS, MemberKernel.of(new BrazilianCode()).slabMethod());
+        assertEquals(SlabMoments.Method.STRIP, MemberKernel.of(new EuropeanCode()).slabMethod());
+        // A subclass of a code uses the kernels of the code
+        assertSame(BrazilianMemberKernel.class, MemberKernel.of(new NationalAnnex()).getClass());
+        assertSame(BrazilianKernel.class, FlexuralKernel.of(new NationalAnnex()).getClass());
+        assertSame(BrazilianDetailingKernel.class, DetailingKernel.of(new NationalAnnex()).getClass());
+    }
+}
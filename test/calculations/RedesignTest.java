@@ -0,0 +1,62 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import sections.ConcreteSection;
+import standards.BrazilianCode;
+
+/**
+ * Only the dirty sections are designed again, each once, and they end with the design of a fresh section.
+ */
+public class RedesignTest {
+
+    // Sections of the model, above the THRESHOLD of a task
+    private static final int SECTIONS = 1000;
+
+
+    @Test
+    public void designsOnlyTheDirtySections(){
+        BrazilianCode code = new BrazilianCode();
+        List<Beam> beams = new ArrayList<>();
+        for (int i = 0; i < SECTIONS; i++) {
+            Beam beam = new Beam(200, 450, 30);
+            beam.FlexuralResistance((50 + i % 200)*1e6, code);
+            beams.add(beam);
+        }
+        List<ConcreteSection> model = new ArrayList<>(beams);
+        // A never designed section is skipped, and a repeated one counted once
+        model.add(new Beam(200, 450, 30));
+        model.add(beams.get(0));
+        assertEquals(0, Redesign.Dirty(model));
+
+        int changed = 0;
+        for (int i = 0; i < SECTIONS; i += 7) {
+            beams.get(i).setHeight(500);
+            changed++;
+        }
+        beams.get(3).setMoment(90e6);
+        beams.get(5).setMoment(beams.get(5).getMoment()); // Same moment: not dirty
+        changed++;
+        assertEquals(changed, Redesign.Dirty(model));
+        assertEquals(0, Redesign.Dirty(model));
+
+        for (Beam beam : beams) {
+            assertFalse(beam.isDirty());
+            Beam fresh = new Beam(beam.getWidth(), beam.getHeight(), beam.getFck());
+            fresh.FlexuralResistance(beam.getMoment(), code);
+            assertEquals(fresh.getAs(), beam.getAs(), 0);
+            assertEquals(fresh.getAs2(), beam.getAs2(), 0);
+        }
+
+        // New coefficients of the code make every section dirty
+        code.setCoefficients(1.5, 1.15, 1.4);
+        assertEquals(SECTIONS, Redesign.Dirty(model));
+    }
+}
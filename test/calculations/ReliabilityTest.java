@@ -0,0 +1,62 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * The samples are split in a fixed tree of random streams, so the same seed gives the same failures
+ * with any parallelism of the pool.
+ */
+public class ReliabilityTest {
+
+    // Samples of several tasks (THRESHOLD = 2^15), not a power of 2
+    private static final long SAMPLES = 300_000;
+
+    private static final long SEED = 42;
+
+    private static final int[] PARALLELISM = {1, 2, 3, 8};
+
+
+    @Test
+    public void sameSeedAtAnyParallelism(){
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            Beam beam = new Beam(200, 450, 30);
+            double mk = 150e6;
+            beam.FlexuralResistance(mk, code);
+            // Under-designed, so the failures are not rare
+            Reliability.Distribution fc = Reliability.Distribution.characteristic(
+                Reliability.Distribution.Type.LOGNORMAL, 30, 0.15, 0.05);
+            Reliability.Distribution fy = Reliability.Distribution.characteristic(
+                Reliability.Distribution.Type.LOGNORMAL, 500, 0.05, 0.05);
+            Reliability.Distribution d = new Reliability.Distribution(Reliability.Distribution.Type.NORMAL, 450, 5);
+            Reliability.Distribution load = Reliability.Distribution.characteristic(
+                Reliability.Distribution.Type.GUMBEL, 1.3*mk, 0.20, 0.95);
+
+            Reliability.Result common = Reliability.Analyze(beam, code, fc, fy, d, load, SAMPLES, SEED);
+            assertTrue(common.getFailures() > 0);
+            for (int parallelism : PARALLELISM) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                try {
+                    Reliability.Result result = Reliability.analyze(beam, code, fc, fy, d, load, SAMPLES, SEED, pool);
+                    assertEquals(common.getFailures(), result.getFailures(), "parallelism " + parallelism);
+                    assertEquals(common.getBeta(), result.getBeta(), 0);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+            // Another seed gives other samples
+            assertNotEquals(common.getFailures(),
+                            Reliability.Analyze(beam, code, fc, fy, d, load, SAMPLES, SEED + 1).getFailures());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import enums.GRADES;
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+
+/**
+ * The optimizer returns the areas of Resistance.Flexural (not of the design table), and its ranking is the
+ * cheapest of a search of all the sections, designed one by one.
+ */
+public class SectionOptimizerTest {
+
+    private static final double[] WIDTHS = {150, 200, 250};
+    private static final double[] HEIGHTS = {300, 350, 400, 450, 500, 550, 600, 700};
+    private static final GRADES.Concrete[] CONCRETES = {GRADES.Concrete.C25, GRADES.Concrete.C35, GRADES.Concrete.C50};
+    private static final GRADES.Grade[] GRADES_ = {GRADES.Grade.CA50, GRADES.Grade.CA60};
+    private static final double STEEL = 9.5, FORMWORK = 45, COVER = 50;
+
+
+    @Test
+    public void ranksTheExactDesigns(){
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            for (boolean compression : new boolean[] {false, true}) {
+                for (double mk : new double[] {40e6, 150e6, 320e6}) {
+                    check(code, compression, mk);
+                }
+            }
+        }
+    }
+
+
+    private static void check(Code code, boolean compression, double mk){
+        Map<GRADES.Concrete, Double> costs = new EnumMap<>(GRADES.Concrete.class);
+        costs.put(GRADES.Concrete.C25, 420.0);
+        costs.put(GRADES.Concrete.C35, 470.0);
+        costs.put(GRADES.Concrete.C50, 560.0);
+        SectionOptimizer optimizer = new SectionOptimizer(code, WIDTHS, HEIGHTS, CONCRETES, GRADES_, costs,
+                                                          STEEL, FORMWORK, COVER, compression);
+        List<SectionOptimizer.Design> designs = optimizer.optimize(mk, 5);
+
+        // Every section designed one by one, with the rules of the optimizer
+        List<Double> all = new ArrayList<>();
+        for (double b : WIDTHS) {
+            for (double d : HEIGHTS) {
+                for (GRADES.Concrete concrete : CONCRETES) {
+                    for (GRADES.Grade grade : GRADES_) {
+                        Beam beam = new Beam(b, d, concrete.getFck(), grade);
+                        List<Double> areas = Resistance.Flexural(mk, beam, code, beam.getSteel());
+                        double area = areas.get(0) + areas.get(1);
+                        if ((!compression && areas.get(1) > 0) || area > 0.04*b*(d + COVER)) {
+                            continue;
+                        }
+                        all.add(cost(costs.get(concrete), b, d, area));
+                    }
+                }
+            }
+        }
+        Collections.sort(all);
+        String name = code.getClass().getSimpleName() + " mk=" + mk + " compression=" + compression;
+        assertFalse(designs.isEmpty(), name);
+        assertEquals(Math.min(5, all.size()), designs.size(), name);
+
+        double previous = 0;
+        for (int k = 0; k < designs.size(); k++) {
+            SectionOptimizer.Design design = designs.get(k);
+            Beam beam = new Beam(design.getWidth(), design.getHeight(), design.getConcrete().getFck(), design.getGrade());
+            List<Double> areas = Resistance.Flexural(mk, beam, code, beam.getSteel());
+            assertEquals(areas.get(0), design.getAs(), 0, name);
+            assertEquals(areas.get(1), design.getAs2(), 0, name);
+            assertEquals(all.get(k), design.getCost(), 1e-9*all.get(k), name + " rank " + k);
+            assertTrue(design.getCost() >= previous, name);
+            previous = design.getCost();
+        }
+    }
+
+
+    private static double cost(double concrete, double b, double d, double area){
+        double h = d + COVER;
+        return concrete*(b*h*1e-6) + FORMWORK*((b + 2*h)*1e-3) + STEEL*area*1e-6*7850;
+    }
+}
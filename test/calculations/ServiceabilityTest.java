@@ -0,0 +1,77 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import standards.BrazilianCode;
+import standards.Code;
+import standards.CodeParameters;
+import standards.EuropeanCode;
+
+/**
+ * Serviceability of a textbook beam: 20x50 cm, d = 45 cm, C25, 3 bars of 16 mm (603 mm²), simply supported span
+ * of 5 m, quasi-permanent moment of 60 kN.m.
+ * The intermediate values are written as they are computed by hand, rounded to 4 digits.
+ */
+public class ServiceabilityTest {
+
+    // Relative tolerance of the example, above the rounding of the intermediate values
+    private static final double TOLERANCE = 1e-3;
+
+    private static final double B = 200, H = 500, D = 450, FCK = 25, AS = 603, PHI = 16;
+    private static final double MA = 60e6, SPAN = 5000, SIMPLE = 5.0/48;
+
+
+    @Test
+    public void brazilianTextbookBeam(){
+        double[] out = check(new BrazilianCode(), MA);
+        // fctm = 0.3*25^(2/3) = 2.565 MPa, Ic = 200*500³/12 = 2.083e9 mm4
+        // Mr = 1.5*2.565*2.083e9/250 = 32.06 kN.m
+        assertEquals(32.06e6, out[0], TOLERANCE*32.06e6);
+        // Ecs = 0.8625*5600*sqrt(25) = 24150 MPa, ae = 8.696
+        // Stage II: 100*x² + 5244*x - 2.360e6 = 0 -> xII = 129.6 mm, III = 6.834e8 mm4
+        // Branson: (32.06/60)³ = 0.1526 -> Ieff = 0.1526*2.083e9 + 0.8474*6.834e8 = 8.970e8 mm4
+        // a0 = 5/48*60e6*5000²/(24150*8.970e8) = 7.213 mm
+        assertEquals(7.213, out[2], TOLERANCE*7.213);
+        // af = 2 - 0.68*0.996 = 1.323 (no compression steel): a = 7.213*2.323 = 16.75 mm
+        assertEquals(16.75, out[3], TOLERANCE*16.75);
+        // ss = 8.696*60e6*(450 - 129.6)/6.834e8 = 244.6 MPa, pr = 603/(200*123.5) = 0.02442
+        // wk = min(16/28.13*244.6/210000*3*244.6/2.565, 16/28.13*244.6/210000*(4/0.02442 + 45)) = min(0.1896, 0.1384)
+        assertEquals(0.1384, out[1], TOLERANCE*0.1384);
+    }
+
+
+    @Test
+    public void uncrackedSectionKeepsTheGrossInertia(){
+        // Ma below Mr: no cracks, Ic in both deflections
+        BrazilianCode brazilian = new BrazilianCode();
+        double Ma = 20e6;
+        double[] out = check(brazilian, Ma);
+        double Ic = B*H*H*H/12;
+        double immediate = SIMPLE*Ma*SPAN*SPAN/(24150*Ic);
+        assertEquals(0, out[1], 0);
+        assertEquals(immediate, out[2], 1e-9*immediate);
+        assertEquals(immediate*(3 - 0.68*0.996), out[3], 1e-9*immediate);
+
+        // Eurocode 2: Mr = fctm*Ic/yt, and the creep coefficient 2 triples the deflection of the gross section
+        EuropeanCode european = new EuropeanCode();
+        CodeParameters parameters = european.getParameters(FCK);
+        double small = 10e6;
+        out = check(european, small);
+        assertEquals(parameters.getFctm()*Ic/(H/2), out[0], 1e-9*out[0]);
+        assertEquals(0, out[1], 0);
+        assertEquals(3*out[2], out[3], 1e-9*out[3]);
+    }
+
+
+
+    // Checks the single beam with the service moment Ma: [Mr, wk, immediate, total]
+    private static double[] check(Code code, double Ma){
+        double[] Mr = new double[1], wk = new double[1], immediate = new double[1], total = new double[1];
+        Serviceability.Check(code, new double[]{B}, new double[]{D}, new double[]{H}, new double[]{FCK},
+                             new double[]{AS}, new double[]{0}, new double[]{Ma}, new double[]{SPAN},
+                             SIMPLE, PHI, Mr, wk, immediate, total);
+        return new double[]{Mr[0], wk[0], immediate[0], total[0]};
+    }
+}
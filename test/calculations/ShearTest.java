@@ -0,0 +1,92 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import sections.Steel;
+import standards.BrazilianCode;
+import standards.EuropeanCode;
+
+/**
+ * Stirrups of the shear design against worked examples of the NBR 6118 (Models I and II) and of the Eurocode 2.
+ * The intermediate values of the examples are written as they are computed by hand, rounded to 4 digits.
+ */
+public class ShearTest {
+
+    // Relative tolerance of the examples, above the rounding of the intermediate values
+    private static final double TOLERANCE = 1e-3;
+
+    private static final Steel CA50 = new Steel(500);
+
+
+    @Test
+    public void brazilianModelOne(){
+        // bw = 200 mm, d = 450 mm, C25, Vk = 150 kN -> Vsd = 210 kN
+        Beam beam = new Beam(200, 450, 25);
+        double asw = Resistance.Shear(150e3, beam, new BrazilianCode(), CA50);
+        // VRd2 = 0.27*0.9*17.86*200*450 = 390.6 kN > Vsd
+        // fctd = 0.21*25^(2/3)/1.4 = 1.2825 MPa, Vc0 = 0.6*1.2825*200*450 = 69.26 kN
+        // Asw/s = (210 - 69.26)/(0.9*450*434.8) = 0.7992 mm²/mm
+        assertEquals(799.2, asw, TOLERANCE*799.2);
+    }
+
+
+    @Test
+    public void brazilianModelTwo(){
+        Beam beam = new Beam(200, 450, 25);
+        double asw = Resistance.Shear(150e3, beam, new BrazilianCode(), CA50, 30);
+        // VRd2 = 0.54*0.9*17.86*200*450*sin²30*cotg30 = 338.3 kN > Vsd
+        // Vc1 = 69.26*(338.3 - 210)/(338.3 - 69.26) = 33.03 kN
+        // Asw/s = (210 - 33.03)/(0.9*450*434.8*1.732) = 0.5802 mm²/mm
+        assertEquals(580.2, asw, TOLERANCE*580.2);
+        // Model II at 45° gives Vc1 below Vc0, and more stirrups than Model I
+        assertTrue(Resistance.Shear(150e3, beam, new BrazilianCode(), CA50, 45) > 799.2);
+    }
+
+
+    @Test
+    public void brazilianLimits(){
+        Beam beam = new Beam(200, 450, 25);
+        BrazilianCode code = new BrazilianCode();
+        // Minimum 0.2*fctm/fywk*bw = 0.2*2.565/500*200 = 0.2052 mm²/mm
+        assertEquals(205.2, Resistance.Shear(10e3, beam, code, CA50), TOLERANCE*205.2);
+        // Crushing of the struts above VRd2 = 390.6 kN
+        assertTrue(Double.isNaN(Resistance.Shear(390.6e3/1.4*1.01, beam, code, CA50)));
+        assertThrows(IllegalArgumentException.class, () -> Resistance.Shear(150e3, beam, code, CA50, 25));
+    }
+
+
+    @Test
+    public void europeanVariableStrut(){
+        // bw = 300 mm, d = 500 mm, C30/37, VEd = 400 kN (gf = 1), gc = 1.5
+        Beam beam = new Beam(300, 500, 30);
+        EuropeanCode code = new EuropeanCode();
+        code.setCoefficients(1.5, 1.15, 1.0);
+        // z = 450 mm, v1 = 0.6*(1 - 30/250) = 0.528, fcd = 20 MPa
+        // sin(2 theta) = 2*400/(300*450*0.528*20) = 0.5612 -> theta = 17.1°, limited to cotg = 2.5
+        // VRd,max = 1425.6/(2.5 + 0.4) = 491.6 kN > VEd
+        // Asw/s = 400e3/(450*434.8*2.5) = 0.8177 mm²/mm
+        assertEquals(817.7, Resistance.Shear(400e3, beam, code, CA50), TOLERANCE*817.7);
+        // Struts at 45°: VRd,max = 712.8 kN, Asw/s = 400e3/(450*434.8) = 2.0443 mm²/mm
+        assertEquals(2044.3, Resistance.Shear(400e3, beam, code, CA50, 45), TOLERANCE*2044.3);
+        // Above VRd,max at 45° the struts are crushed
+        assertTrue(Double.isNaN(Resistance.Shear(720e3, beam, code, CA50, 45)));
+    }
+
+
+    @Test
+    public void europeanConcreteContribution(){
+        Beam beam = new Beam(300, 500, 30);
+        EuropeanCode code = new EuropeanCode();
+        code.setCoefficients(1.5, 1.15, 1.0);
+        // Without tension steel: k = 1.632, VRd,c = vmin*bw*d = 0.035*1.632^1.5*sqrt(30)*300*500 = 59.96 kN
+        // Below VRd,c only the minimum 0.08*sqrt(30)/500*300 = 0.2629 mm²/mm
+        assertEquals(262.9, Resistance.Shear(59e3, beam, code, CA50, 45), TOLERANCE*262.9);
+        // Above VRd,c the stirrups resist the whole shear: 61e3/(450*434.8) = 0.3118 mm²/mm
+        assertEquals(311.8, Resistance.Shear(61e3, beam, code, CA50, 45), TOLERANCE*311.8);
+    }
+}
@@ -0,0 +1,83 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import sections.Beam;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.CodeParameters;
+import standards.EuropeanCode;
+import utils.NeutralAxisSolver;
+
+/**
+ * The span design (warm-started from the previous station, by default) against the design of each station
+ * alone (cold, from the whole interval): the neutral axes agree within the tolerance of the solver,
+ * so the areas agree within the rounding of the design, and the warm start uses fewer passes.
+ */
+public class SpanDesignTest {
+
+    private static final int STATIONS = 200;
+
+    // Difference of the areas admitted: the neutral axes differ up to the tolerance, the areas are rounded [mm²]
+    private static final double ROUNDING = 1;
+
+
+    @Test
+    public void warmStartMatchesTheColdDesign(){
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            Beam beam = new Beam(200, 550, 30);
+            // Continuous span: hogging at the supports, sagging at the middle [N.mm]
+            double[] mk = new double[STATIONS];
+            for (int i = 0; i < STATIONS; i++) {
+                double x = (double) i/(STATIONS - 1);
+                mk[i] = 420e6*x*(1 - x) - 60e6;
+            }
+            SpanDesign.Envelope envelope = SpanDesign.Flexural(mk, beam, code, beam.getSteel());
+
+            CodeParameters parameters = code.getParameters(beam.getFck());
+            NeutralAxisSolver.Solution solution = new NeutralAxisSolver.Solution();
+            double[] As = new double[1], As2 = new double[1];
+            int cold = 0;
+            for (int i = 0; i < STATIONS; i++) {
+                Resistance.flexural(Math.abs(mk[i]), beam.getWidth(), beam.getHeight(), beam.getFck(),
+                                    beam.getSteel().getfyk(), beam.getSteel().getEs(), beam.getSteel().getesu(), code,
+                                    parameters, NeutralAxisSolver.DEFAULT, solution, As, As2, 0);
+                cold += solution.getIterations();
+                String name = code.getClass().getSimpleName() + " station " + i;
+                assertEquals(As[0], envelope.getAs()[i], ROUNDING, name);
+                assertEquals(As2[0], envelope.getAs2()[i], ROUNDING, name);
+                assertEquals(mk[i] < 0 ? As[0] : As2[0], envelope.getTop()[i], ROUNDING, name);
+            }
+            if (code instanceof BrazilianCode) {
+                assertTrue(envelope.getIterations() < cold/4, "Passes warm " + envelope.getIterations() + ", cold " + cold);
+            }
+        }
+    }
+
+
+    // The bisection started from an estimative (an explicit solver of SpanDesign) converges to the same axis
+    @Test
+    public void warmBisectionFindsTheSameNeutralAxis(){
+        BrazilianCode code = new BrazilianCode();
+        for (double fck : new double[] {25, 50, 70, 90}) {
+            CodeParameters parameters = code.getParameters(fck);
+            NeutralAxisSolver.Solution cold = new NeutralAxisSolver.Solution();
+            NeutralAxisSolver.Solution warm = new NeutralAxisSolver.Solution();
+            double d = 500, bw = 200, fcd = fck/code.getGc();
+            double tolerance = NeutralAxisSolver.DEFAULT.getTolerance();
+            for (double Msd = 10e6; Msd < 500e6; Msd += 10e6) {
+                FlexuralKernel.of(code).compression(Msd, bw, d, fcd, 0.01, parameters, NeutralAxisSolver.DEFAULT,
+                                                    Double.NaN, cold);
+                // Estimative of a close station, above and below
+                for (double offset : new double[] {-3, -0.2, 0.2, 3}) {
+                    FlexuralKernel.of(code).compression(Msd, bw, d, fcd, 0.01, parameters, NeutralAxisSolver.DEFAULT,
+                                                        cold.getXk() + offset, warm);
+                    assertEquals(cold.getXk(), warm.getXk(), 2*tolerance, "fck " + fck + " Msd " + Msd);
+                }
+            }
+        }
+    }
+}
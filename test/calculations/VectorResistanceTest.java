@@ -0,0 +1,72 @@
+package calculations;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import jdk.incubator.vector.DoubleVector;
+
+import org.junit.jupiter.api.Test;
+
+import standards.EuropeanCode;
+
+/**
+ * Exact equality of the vector design (VectorResistance) with the scalar routine (BatchResistance), on a grid of
+ * sections: the lanes must reproduce the same operations, in the same order, and so the same doubles.
+ * The lengths designed leave tails that do not fill a vector, designed by the scalar routine.
+ */
+public class VectorResistanceTest {
+
+    private static final double[] WIDTHS  = {120, 200, 350};
+    private static final double[] HEIGHTS = {250, 450, 800};
+    private static final double[] FCKS    = {20, 35, 50, 55, 70, 90};
+    private static final double[] FYKS    = {250, 500, 600};
+    // From below the minimum moment (50 kN.cm) to sections that need compression reinforcement [N.mm]
+    private static final double[] MOMENTS = {3e4, 5e6, 4e7, 1.2e8, 3e8, 7e8};
+
+
+    @Test
+    public void matchesTheScalarDesign(){
+        EuropeanCode code = new EuropeanCode();
+        int size = WIDTHS.length*HEIGHTS.length*FCKS.length*FYKS.length*MOMENTS.length;
+        double[] b = new double[size], d = new double[size], fck = new double[size];
+        double[] fyk = new double[size], mk = new double[size];
+        int i = 0;
+        for (double width : WIDTHS) {
+            for (double height : HEIGHTS) {
+                for (double strength : FCKS) {
+                    for (double steel : FYKS) {
+                        for (double moment : MOMENTS) {
+                            b[i] = width; d[i] = height; fck[i] = strength; fyk[i] = steel; mk[i] = moment;
+                            i++;
+                        }
+                    }
+                }
+            }
+        }
+
+        int lanes = DoubleVector.SPECIES_PREFERRED.length();
+        int[] lengths = {1, 3, lanes - 1, lanes, lanes + 1, 2*lanes + 3, size - 1, size};
+        for (int length : lengths) {
+            if (length <= 0) {
+                continue;
+            }
+            // Sections from the middle of the grid, so each length starts from different ones
+            int from = (size - length)/2;
+            double[] vb = slice(b, from, length), vd = slice(d, from, length), vfck = slice(fck, from, length);
+            double[] vfyk = slice(fyk, from, length), vmk = slice(mk, from, length);
+
+            double[] As = new double[length], As2 = new double[length];
+            double[] vectorAs = new double[length], vectorAs2 = new double[length];
+            BatchResistance.Flexural(code, vmk, vb, vd, vfck, vfyk, As, As2);
+            VectorResistance.Flexural(code, vmk, vb, vd, vfck, vfyk, vectorAs, vectorAs2);
+            assertArrayEquals(As, vectorAs, "As of " + length + " sections");
+            assertArrayEquals(As2, vectorAs2, "As2 of " + length + " sections");
+        }
+    }
+
+
+    private static double[] slice(double[] values, int from, int length){
+        double[] slice = new double[length];
+        System.arraycopy(values, from, slice, 0, length);
+        return slice;
+    }
+}
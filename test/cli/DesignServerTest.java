@@ -0,0 +1,121 @@
+package cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import calculations.BatchResistance;
+import standards.BrazilianCode;
+import standards.Code;
+import standards.EuropeanCode;
+import utils.NeutralAxisSolver;
+
+/**
+ * Round trip of the sections through the service, as a JSON array and as NDJSON, against BatchResistance.
+ */
+public class DesignServerTest {
+
+    // Sections of the request: a beam with the fck as a class, a slab, and a beam with the grade of the steel
+    private static final String[] SECTIONS = {
+        "{\"id\": 1, \"type\": \"beam\", \"b\": 200, \"d\": 450, \"fck\": \"C30\", \"fyk\": 500, \"mk\": 150e6}",
+        "{\"id\": \"s2\", \"type\": \"slab\", \"d\": 90, \"fck\": 25, \"fyk\": 500, \"mk\": 12e6}",
+        "{\"id\": 3, \"b\": 150, \"d\": 300, \"fck\": 40, \"grade\": \"CA60\", \"mk\": 200e6}"};
+    private static final String[] IDS = {"1", "\"s2\"", "3"};
+    private static final double[] MK = {150e6, 12e6, 200e6};
+    private static final double[] B = {200, 1000, 150}, D = {450, 90, 300}, FCK = {30, 25, 40}, FYK = {500, 500, 600};
+
+    private static final Pattern RESULT =
+        Pattern.compile("\\{\"id\":(.+?),\"As\":([-0-9.Ee]+|NaN),\"As2\":([-0-9.Ee]+|NaN)\\}");
+
+    private static DesignServer server;
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+
+    @BeforeAll
+    public static void start() throws IOException {
+        server = new DesignServer(0, 200, 1024, 2, NeutralAxisSolver.DEFAULT);
+        server.start();
+    }
+
+
+    @AfterAll
+    public static void stop(){
+        server.stop();
+    }
+
+
+    @Test
+    public void listensOnlyOnTheLoopback(){
+        assertTrue(server.getAddress().getAddress().isLoopbackAddress());
+    }
+
+
+    @Test
+    public void jsonArrayRoundTrip() throws Exception {
+        for (Code code : new Code[] {new BrazilianCode(), new EuropeanCode()}) {
+            String name = (code instanceof BrazilianCode) ? "NBR6118" : "EUROCODE2";
+            HttpResponse<String> response = post(name, "[" + String.join(",", SECTIONS) + "]");
+            assertEquals(200, response.statusCode());
+            assertEquals("application/json", response.headers().firstValue("Content-Type").orElse(""));
+            String body = response.body().trim();
+            assertTrue(body.startsWith("[") && body.endsWith("]"));
+            check(code, body);
+        }
+    }
+
+
+    @Test
+    public void ndjsonRoundTrip() throws Exception {
+        HttpResponse<String> response = post("NBR6118", String.join("\n", SECTIONS) + "\n");
+        assertEquals(200, response.statusCode());
+        assertEquals("application/x-ndjson", response.headers().firstValue("Content-Type").orElse(""));
+        String[] lines = response.body().split("\n");
+        assertEquals(SECTIONS.length, lines.length);
+        check(new BrazilianCode(), response.body());
+    }
+
+
+    @Test
+    public void rejectsInvalidRequests() throws Exception {
+        assertEquals(400, post("ACI318", SECTIONS[0]).statusCode());
+        assertEquals(400, post("NBR6118", "[" + SECTIONS[0]).statusCode());
+        assertEquals(400, post("NBR6118", "{\"b\": 200, \"d\": 450, \"fck\": 30, \"fyk\": 500}").statusCode());
+    }
+
+
+
+    // Compares the results of the body, in the order of the request, with the batch design
+    private static void check(Code code, String body){
+        double[] As = new double[MK.length], As2 = new double[MK.length];
+        BatchResistance.Flexural(code, MK, B, D, FCK, FYK, As, As2);
+        Matcher matcher = RESULT.matcher(body);
+        for (int i = 0; i < MK.length; i++) {
+            assertTrue(matcher.find());
+            assertEquals(IDS[i], matcher.group(1));
+            assertEquals(As[i], Double.parseDouble(matcher.group(2)), 0);
+            assertEquals(As2[i], Double.parseDouble(matcher.group(3)), 0);
+        }
+        assertFalse(matcher.find());
+    }
+
+
+    private static HttpResponse<String> post(String code, String body) throws Exception {
+        String host = server.getAddress().getAddress().getHostAddress();
+        URI uri = URI.create("http://" + (host.contains(":") ? "[" + host + "]" : host) + ":" + server.getPort()
+                             + "/flexural?code=" + code);
+        HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,76 @@
+package sections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import calculations.Resistance;
+import standards.BrazilianCode;
+import standards.EuropeanCode;
+
+/**
+ * The stored design of a beam is never read out of date: the flexure and the stirrups are designed again
+ * when an input changes, and printing a dirty beam does not design it.
+ */
+public class BeamTest {
+
+    private static final double MK = 150e6, VK = 150e3;
+
+
+    @Test
+    public void printingDoesNotDesign(){
+        Beam beam = new Beam(200, 450, 30);
+        beam.FlexuralResistance(MK, new BrazilianCode());
+        String designed = beam.toString();
+        assertFalse(designed.contains("out of date"));
+
+        beam.setHeight(400);
+        String printed = beam.toString();
+        assertTrue(printed.contains("out of date"));
+        // Still dirty, with the reinforcement of the last design
+        assertTrue(beam.isDirty());
+        assertTrue(printed.contains(beam.As/100 + "cm²"));
+        assertEquals(designed.replace("450.0", "400.0"), printed.replace(" (out of date)", ""));
+    }
+
+
+    @Test
+    public void stirrupsFollowTheSection(){
+        BrazilianCode code = new BrazilianCode();
+        Beam beam = new Beam(200, 450, 30);
+        beam.ShearResistance(VK, code);
+        double first = beam.getAsw();
+
+        beam.setWidth(150);
+        beam.setHeight(400);
+        beam.setFck(25);
+        double changed = beam.getAsw();
+        assertNotEquals(first, changed);
+        assertEquals(Resistance.Shear(VK, new Beam(150, 400, 25), code, beam.getSteel()), changed, 0);
+
+        // Model II keeps its angle, and the coefficients of the code are followed
+        beam.ShearResistance(VK, code, 30);
+        code.setCoefficients(1.4, 1.15, 1.5);
+        assertEquals(Resistance.Shear(VK, new Beam(150, 400, 25), code, beam.getSteel(), 30), beam.getAsw(), 0);
+    }
+
+
+    @Test
+    public void europeanStirrupsFollowTheTensionReinforcement(){
+        // VRd,c of the Eurocode 2 depends on As: the stirrups follow a new moment of the flexure
+        EuropeanCode code = new EuropeanCode();
+        code.setCoefficients(1.5, 1.15, 1.0);
+        Beam beam = new Beam(300, 500, 30);
+        beam.FlexuralResistance(20e6, code);
+        beam.ShearResistance(62e3, code, 45);
+        double low = beam.getAsw();
+        beam.setMoment(300e6);
+        Beam reference = new Beam(300, 500, 30);
+        reference.FlexuralResistance(300e6, code);
+        assertEquals(Resistance.Shear(62e3, reference, code, reference.getSteel(), 45), beam.getAsw(), 0);
+        assertNotEquals(low, beam.getAsw());
+    }
+}
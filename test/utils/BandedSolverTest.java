@@ -0,0 +1,107 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The banded factorization solves the same systems as a dense Gaussian elimination,
+ * for several right-hand sides with one factorization, and refuses the matrices that are not positive definite.
+ */
+public class BandedSolverTest {
+
+    private static final int N = 40;
+    private static final int BANDWIDTH = 3;
+
+
+    @Test
+    public void sameSolutionAsDenseElimination(){
+        Random random = new Random(42);
+        double[][] K = new double[N][N];
+        BandedSolver solver = new BandedSolver(N, BANDWIDTH);
+        // Symmetric band, diagonally dominant (positive definite)
+        for (int i = 0; i < N; i++) {
+            for (int j = i + 1; j <= Math.min(N - 1, i + BANDWIDTH); j++) {
+                double value = random.nextDouble()*2 - 1;
+                K[i][j] = K[j][i] = value;
+                solver.add(j, i, value);
+            }
+        }
+        for (int i = 0; i < N; i++) {
+            K[i][i] = 2*BANDWIDTH + random.nextDouble();
+            solver.add(i, i, K[i][i]);
+        }
+        solver.factor();
+        for (int load = 0; load < 3; load++) {
+            double[] f = new double[N];
+            for (int i = 0; i < N; i++) {
+                f[i] = random.nextDouble()*100 - 50;
+            }
+            double[] expected = dense(K, f);
+            solver.solve(f);
+            for (int i = 0; i < N; i++) {
+                assertEquals(expected[i], f[i], 1e-10*Math.max(1, Math.abs(expected[i])), "load " + load + " u" + i);
+            }
+        }
+    }
+
+
+    @Test
+    public void invalidMatricesAreRefused(){
+        BandedSolver solver = new BandedSolver(3, 1);
+        assertThrows(IllegalArgumentException.class, () -> solver.add(0, 2, 1));
+        solver.add(0, 0, 1);
+        solver.add(0, 1, 2);
+        solver.add(1, 1, 1);
+        solver.add(2, 2, 1);
+        // D(1) = 1 - 2² < 0
+        assertThrows(IllegalArgumentException.class, solver::factor);
+
+        BandedSolver factored = new BandedSolver(2, 1);
+        factored.add(0, 0, 2);
+        factored.add(1, 1, 2);
+        factored.solve(new double[2]);
+        assertThrows(IllegalStateException.class, () -> factored.add(0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> factored.solve(new double[3]));
+    }
+
+
+    // Gaussian elimination with partial pivoting of the full matrix
+    private static double[] dense(double[][] K, double[] f){
+        int n = f.length;
+        double[][] a = new double[n][];
+        double[] b = f.clone();
+        for (int i = 0; i < n; i++) {
+            a[i] = K[i].clone();
+        }
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < n; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) {
+                    pivot = row;
+                }
+            }
+            double[] swap = a[col]; a[col] = a[pivot]; a[pivot] = swap;
+            double t = b[col]; b[col] = b[pivot]; b[pivot] = t;
+            for (int row = col + 1; row < n; row++) {
+                double factor = a[row][col]/a[col][col];
+                for (int k = col; k < n; k++) {
+                    a[row][k] -= factor*a[col][k];
+                }
+                b[row] -= factor*b[col];
+            }
+        }
+        double[] u = new double[n];
+        for (int row = n - 1; row >= 0; row--) {
+            double sum = b[row];
+            for (int k = row + 1; k < n; k++) {
+                sum -= a[row][k]*u[k];
+            }
+            u[row] = sum/a[row][row];
+        }
+        return u;
+    }
+}
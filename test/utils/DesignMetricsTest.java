@@ -0,0 +1,90 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import calculations.BatchResistance;
+import calculations.DesignCache;
+import calculations.DesignTable;
+import calculations.SpanDesign;
+import calculations.VectorResistance;
+import enums.GRADES;
+import sections.Beam;
+import sections.Steel;
+import standards.BrazilianCode;
+import standards.EuropeanCode;
+
+/**
+ * The batch APIs record one batch (and all its sections) per call, and the single designs are counted one by one.
+ */
+public class DesignMetricsTest {
+
+    private static final int SECTIONS = 10;
+
+    private final DesignMetrics metrics = DesignMetrics.get();
+
+
+    @BeforeEach
+    public void enable(){
+        metrics.setEnabled(true);
+        metrics.reset();
+    }
+
+
+    @AfterEach
+    public void disable(){
+        metrics.setEnabled(false);
+        metrics.reset();
+    }
+
+
+    @Test
+    public void oneBatchPerCall(){
+        double[] mk = new double[SECTIONS], b = new double[SECTIONS], d = new double[SECTIONS];
+        double[] fck = new double[SECTIONS], fyk = new double[SECTIONS];
+        double[] As = new double[SECTIONS], As2 = new double[SECTIONS];
+        for (int i = 0; i < SECTIONS; i++) {
+            mk[i] = (50 + 10*i)*1e6; b[i] = 200; d[i] = 450; fck[i] = 30; fyk[i] = 500;
+        }
+        BrazilianCode brazilian = new BrazilianCode();
+        EuropeanCode european = new EuropeanCode();
+
+        BatchResistance.Flexural(brazilian, mk, b, d, fck, fyk, As, As2);
+        BatchResistance.Flexural(european, mk, b, d, fck, fyk, As, As2);
+        VectorResistance.Flexural(european, mk, b, d, fck, fyk, As, As2);
+        DesignTable.of(brazilian, GRADES.Concrete.C30, GRADES.Grade.CA50).Flexural(mk, b, d, As, As2);
+        SpanDesign.Flexural(mk, new Beam(200, 450, 30), brazilian, new Steel(500));
+
+        Map<String, Long> batches = metrics.getBatches();
+        assertEquals(2L, batches.get("BatchResistance.batches"));
+        assertEquals(2L*SECTIONS, batches.get("BatchResistance.sections"));
+        assertEquals(1L, batches.get("VectorResistance.batches"));
+        assertEquals((long) SECTIONS, batches.get("VectorResistance.sections"));
+        assertEquals(1L, batches.get("DesignTable.batches"));
+        assertEquals((long) SECTIONS, batches.get("DesignTable.sections"));
+        assertEquals(1L, batches.get("SpanDesign.batches"));
+        assertEquals((long) SECTIONS, batches.get("SpanDesign.sections"));
+        // The batches are not counted as single designs
+        assertEquals(0L, metrics.getDesigns().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+
+    @Test
+    public void cacheRecordsOnlyItsMisses(){
+        DesignCache cache = new DesignCache(64);
+        BrazilianCode code = new BrazilianCode();
+        Beam beam = new Beam(200, 450, 30);
+        Steel steel = new Steel(500);
+        for (int i = 0; i < 3; i++) {
+            cache.Flexural(100e6, beam, code, steel);
+            cache.Flexural(120e6, beam, code, steel);
+        }
+        assertEquals(2L, metrics.getBatches().get("DesignCache.batches"));
+        assertEquals(2L, metrics.getBatches().get("DesignCache.sections"));
+    }
+}
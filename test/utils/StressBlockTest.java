@@ -0,0 +1,48 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import standards.BrazilianCode;
+import standards.BrazilianParameters;
+
+/**
+ * Accuracy of the closed form of the diagram (StressBlock) against the quadrature of ConcreteMath, kept as reference.
+ * The 5-point rule is exact for n = 2 (fck <= 50), and differs by up to 5e-5 for the non-integer n of fck > 50.
+ */
+public class StressBlockTest {
+
+    // Relative tolerance of the area and of the CG, above the deviation of the quadrature for fck > 50
+    private static final double TOLERANCE = 1e-4;
+
+    // Relative tolerance for n = 2, where both are exact
+    private static final double EXACT = 1e-9;
+
+    // Strains evaluated in (0, ecu]
+    private static final int STRAINS = 400;
+
+
+    @Test
+    public void matchesTheQuadrature(){
+        BrazilianCode code = new BrazilianCode();
+        double[] result = new double[2];
+        for (int fck = 20; fck <= 90; fck += 5) {
+            BrazilianParameters parameters = (BrazilianParameters) code.getParameters(fck);
+            StressBlock block = parameters.getStressBlock();
+            double ec2 = parameters.getec2();
+            double n = parameters.getN();
+            double tolerance = (fck <= 50) ? EXACT : TOLERANCE;
+            for (int i = 1; i <= STRAINS; i++) {
+                double ec = parameters.getecu()*i/STRAINS;
+                double e1 = Math.min(ec, ec2);
+                double e2 = ec - e1;
+                block.evaluate(ec, result);
+                double area = ConcreteMath.obtainArea(e1, e2, ec2, n);
+                double cg = ConcreteMath.obtainCG(ec, e1, e2, ec2, n);
+                assertEquals(area, result[0], tolerance*area, "Area of fck " + fck + " at ec " + ec);
+                assertEquals(cg, result[1], tolerance*ec, "CG of fck " + fck + " at ec " + ec);
+            }
+        }
+    }
+}
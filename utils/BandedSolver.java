@@ -0,0 +1,133 @@
+package utils;
+
+/**
+ * Solver of symmetric positive definite banded systems (stiffness matrices), K u = f.
+ * Only the diagonal and the upper band of the matrix are stored, row by row: K(i, j) at i*(w+1) + (j-i), j - i <= w.
+ * The matrix is factored once as K = L D L^T, in place, with O(n*w²) operations, and each right-hand side
+ * is then solved with O(n*w) operations, so many load cases share a single factorization.
+ */
+public class BandedSolver {
+
+    private final int n; // Number of equations
+    private final int w; // Half bandwidth (number of diagonals above the main one)
+    private final double[] band;
+    private boolean factored;
+
+
+
+    /**
+     * Constructor of an empty matrix.
+     * @param n         int - Number of equations.
+     * @param bandwidth int - Half bandwidth: largest |i - j| of the terms K(i, j) not null.
+     */
+    public BandedSolver(int n, int bandwidth){
+        if (n <= 0 || bandwidth < 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        this.n = n;
+        this.w = Math.min(bandwidth, n - 1);
+        this.band = new double[n*(w + 1)];
+    }
+
+
+
+    /**
+     * Adds a value to the term K(i, j), that is also the term K(j, i) (stored once).
+     * @param i     int    - Row of the term.
+     * @param j     int    - Column of the term.
+     * @param value double - Value added.
+     */
+    public void add(int i, int j, double value){
+        if (factored) {
+            throw new IllegalStateException("The matrix is already factored");
+        }
+        int row = Math.min(i, j);
+        int offset = Math.abs(i - j);
+        if (offset > w) {
+            throw new IllegalArgumentException("The term is out of the band");
+        }
+        band[row*(w + 1) + offset] += value;
+    }
+
+
+
+    /**
+     * Factors the matrix as L D L^T, in place (D on the diagonal, L^T on the upper band).
+     */
+    public void factor(){
+        int width = w + 1;
+        for (int j = 0; j < n; j++) {
+            // D(j) = K(j, j) - sum L(j, k)² D(k)
+            int first = Math.max(0, j - w);
+            double d = band[j*width];
+            for (int k = first; k < j; k++) {
+                double l = band[k*width + (j - k)];
+                d -= l*l*band[k*width];
+            }
+            if (!(d > 0)) {
+                throw new IllegalArgumentException("The matrix is not positive definite (unstable structure)");
+            }
+            band[j*width] = d;
+            // L(i, j) = (K(j, i) - sum L(i, k) L(j, k) D(k)) / D(j), stored at row j, offset i - j
+            int last = Math.min(n - 1, j + w);
+            for (int i = j + 1; i <= last; i++) {
+                double sum = band[j*width + (i - j)];
+                for (int k = Math.max(0, i - w); k < j; k++) {
+                    sum -= band[k*width + (i - k)]*band[k*width + (j - k)]*band[k*width];
+                }
+                band[j*width + (i - j)] = sum/d;
+            }
+        }
+        factored = true;
+    }
+
+
+
+    /**
+     * Solves the system for a right-hand side, with the factorization (factor is called if needed).
+     * @param f double[] - Right-hand side, replaced by the solution.
+     */
+    public void solve(double[] f){
+        if (f.length != n) {
+            throw new IllegalArgumentException("Input arrays must have the same length");
+        }
+        if (!factored) {
+            factor();
+        }
+        int width = w + 1;
+        // L y = f
+        for (int i = 0; i < n; i++) {
+            double sum = f[i];
+            for (int k = Math.max(0, i - w); k < i; k++) {
+                sum -= band[k*width + (i - k)]*f[k];
+            }
+            f[i] = sum;
+        }
+        // D z = y
+        for (int i = 0; i < n; i++) {
+            f[i] /= band[i*width];
+        }
+        // L^T u = z
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = f[i];
+            int last = Math.min(n - 1, i + w);
+            for (int k = i + 1; k <= last; k++) {
+                sum -= band[i*width + (k - i)]*f[k];
+            }
+            f[i] = sum;
+        }
+    }
+
+
+
+    /** @return int return the number of equations */
+    public int size() {
+        return n;
+    }
+
+
+    /** @return int return the half bandwidth of the matrix */
+    public int getBandwidth() {
+        return w;
+    }
+}
@@ -0,0 +1,32 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a call of a batch API (BatchResistance, VectorResistance, DesignTable, SpanDesign,
+ * and the misses of DesignCache), with its duration and the number of sections designed.
+ * Recorded while the metrics are enabled and a recording with the event is running.
+ */
+@Name("design.Batch")
+@Label("Batch Design")
+@Category("Beam and Slab Design")
+@Description("Flexural design of the sections of a batch")
+@StackTrace(false)
+public class BatchEvent extends jdk.jfr.Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Code")
+    String code;
+
+    @Label("Sections")
+    int sections;
+
+    @Label("Solver Passes")
+    long iterations;
+}
@@ -25,6 +25,7 @@ public class ConcreteMath {
 
     /**
      * Obtains the Compression Area of the Concrete Diagram, According to the Brazilian Code NBR 6118:2014 - Item 8.2.10.1.
+     * Numerical integration kept as reference, the design uses the closed form of StressBlock.
      * @param e1  double - Strain of the concrete while in the parable range.
      * @param e2  double - Strain of the concrete while in the constante range.
      * @param ec2 double - Constant of concrete strain at the rupture by compression.
@@ -50,6 +51,7 @@ public class ConcreteMath {
 
     /**
      * Obtains the Gravity Center of the Concrete Diagram.
+     * Numerical integration kept as reference, the design uses the closed form of StressBlock.
      * @param ec  double - Strain of the concrete for the applied force
      * @param e1  double - Strain of the concrete while in the parable range.
      * @param e2  double - Strain of the concrete while in the constante range.
@@ -0,0 +1,286 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+/**
+ * Runtime metrics of the design engine: designs per code and element, histograms of the solver passes
+ * and of the latency, designs with compression reinforcement and with the fck limited to 90 MPa.
+ * The metrics are exposed by a JMX MBean (design:type=DesignMetrics) and by the Flight Recorder event FlexuralEvent.
+ *
+ * The designs of the single-section API (Resistance.Flexural) are recorded one by one, with the histograms.
+ * The batch APIs record one BatchEvent per call instead, and count only their batches and sections (getBatches):
+ * BatchResistance (also the micro-batches of the DesignServer), VectorResistance, DesignTable, SpanDesign,
+ * and each miss of the DesignCache (a batch of one section).
+ *
+ * The collection is disabled by default (-Ddesign.metrics=true enables it at the start). While disabled,
+ * each design only reads a volatile flag. The counters are LongAdders, so the designs of many threads
+ * don't compete for the same memory.
+ */
+public final class DesignMetrics implements DesignMetricsMXBean {
+
+    // Elements counted for each code
+    private static final String[] ELEMENTS = {"beam", "slab"};
+
+    // Buckets of the histograms
+    private static final int ITERATION_BUCKETS = 65;
+    private static final int LATENCY_BUCKETS = 40;
+
+    private static final DesignMetrics INSTANCE = new DesignMetrics();
+
+    private static volatile boolean enabled;
+    private static boolean registered;
+
+    // Designs of each code (by the name of its kernel), per element
+    private final ConcurrentHashMap<String, LongAdder[]> designs = new ConcurrentHashMap<>();
+    private final LongAdder doublyReinforced = new LongAdder();
+    private final LongAdder cappedFck = new LongAdder();
+    private final LongAdder[] iterations = adders(ITERATION_BUCKETS);
+    private final LongAdder[] latency = adders(LATENCY_BUCKETS);
+    private final LongAdder totalLatency = new LongAdder();
+
+    // Batches and sections of each batch API (by the name of its source)
+    private final ConcurrentHashMap<String, LongAdder[]> batches = new ConcurrentHashMap<>();
+
+    static {
+        if (Boolean.getBoolean("design.metrics")) {
+            INSTANCE.setEnabled(true);
+        }
+    }
+
+
+    private DesignMetrics(){
+    }
+
+
+    private static LongAdder[] adders(int size){
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+
+
+    /** @return DesignMetrics return the metrics of the engine */
+    public static DesignMetrics get(){
+        return INSTANCE;
+    }
+
+
+    /** @return boolean return if the metrics are being collected (checked before each design) */
+    public static boolean active(){
+        return enabled;
+    }
+
+
+
+    /**
+     * Starts the measurement of a design (only called while the metrics are enabled).
+     * @return FlexuralEvent - Event of the design, finished by end.
+     */
+    public static FlexuralEvent begin(){
+        FlexuralEvent event = new FlexuralEvent();
+        event.begin();
+        event.start = System.nanoTime();
+        return event;
+    }
+
+
+
+    /**
+     * Finishes the measurement of a design and records its metrics.
+     * @param event      FlexuralEvent - Event returned by begin.
+     * @param code       String  - Name of the code used (NBR6118, EUROCODE2).
+     * @param slab       boolean - The element is a slab (otherwise a beam).
+     * @param mk         double  - Characteristic bending moment applied [N.mm].
+     * @param fck        double  - Concrete compressive strength of the section [MPa].
+     * @param passes     int     - Passes used by the solver (0 for the closed form).
+     * @param As         double  - Reinforcement area in tension [mm²].
+     * @param As2        double  - Reinforcement area in compression [mm²].
+     */
+    public static void end(FlexuralEvent event, String code, boolean slab, double mk, double fck, int passes,
+                           double As, double As2){
+        long nanos = System.nanoTime() - event.start;
+        DesignMetrics metrics = INSTANCE;
+        LongAdder[] elements = metrics.designs.get(code);
+        if (elements == null) {
+            elements = metrics.designs.computeIfAbsent(code, name -> adders(ELEMENTS.length));
+        }
+        elements[slab ? 1 : 0].increment();
+        if (As2 > 0) {
+            metrics.doublyReinforced.increment();
+        }
+        if (fck > 90) {
+            metrics.cappedFck.increment();
+        }
+        metrics.iterations[Math.min(Math.max(passes, 0), ITERATION_BUCKETS - 1)].increment();
+        metrics.latency[Math.min(63 - Long.numberOfLeadingZeros(Math.max(nanos, 1)), LATENCY_BUCKETS - 1)].increment();
+        metrics.totalLatency.add(nanos);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.code = code;
+            event.element = ELEMENTS[slab ? 1 : 0];
+            event.mk = mk;
+            event.fck = fck;
+            event.iterations = passes;
+            event.As = As;
+            event.As2 = As2;
+            event.commit();
+        }
+    }
+
+
+
+    /**
+     * Starts the measurement of a batch (only called while the metrics are enabled).
+     * @return BatchEvent - Event of the batch, finished by endBatch.
+     */
+    public static BatchEvent beginBatch(){
+        BatchEvent event = new BatchEvent();
+        event.begin();
+        return event;
+    }
+
+
+
+    /**
+     * Finishes the measurement of a batch and records its metrics.
+     * @param event    BatchEvent - Event returned by beginBatch.
+     * @param source   String - Name of the batch API (BatchResistance, VectorResistance...).
+     * @param code     String - Name of the code used (NBR6118, EUROCODE2).
+     * @param sections int    - Sections designed by the batch.
+     * @param passes   long   - Passes used by the solver in all the sections (0 for the closed forms and tables).
+     */
+    public static void endBatch(BatchEvent event, String source, String code, int sections, long passes){
+        DesignMetrics metrics = INSTANCE;
+        LongAdder[] counters = metrics.batches.get(source);
+        if (counters == null) {
+            counters = metrics.batches.computeIfAbsent(source, name -> adders(2));
+        }
+        counters[0].increment();
+        counters[1].add(sections);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.code = code;
+            event.sections = sections;
+            event.iterations = passes;
+            event.commit();
+        }
+    }
+
+
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+
+    @Override
+    public synchronized void setEnabled(boolean enable) {
+        if (enable && !registered) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(this, new ObjectName("design:type=DesignMetrics"));
+                registered = true;
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to register the metrics MBean", e);
+            }
+        }
+        enabled = enable;
+    }
+
+
+    @Override
+    public Map<String, Long> getDesigns() {
+        Map<String, Long> map = new TreeMap<>();
+        for (Map.Entry<String, LongAdder[]> entry : designs.entrySet()) {
+            for (int element = 0; element < ELEMENTS.length; element++) {
+                map.put(entry.getKey() + "." + ELEMENTS[element], entry.getValue()[element].sum());
+            }
+        }
+        return map;
+    }
+
+
+    @Override
+    public Map<String, Long> getBatches() {
+        Map<String, Long> map = new TreeMap<>();
+        for (Map.Entry<String, LongAdder[]> entry : batches.entrySet()) {
+            map.put(entry.getKey() + ".batches", entry.getValue()[0].sum());
+            map.put(entry.getKey() + ".sections", entry.getValue()[1].sum());
+        }
+        return map;
+    }
+
+
+    @Override
+    public long getDoublyReinforced() {
+        return doublyReinforced.sum();
+    }
+
+
+    @Override
+    public long getCappedFck() {
+        return cappedFck.sum();
+    }
+
+
+    @Override
+    public long[] getIterationHistogram() {
+        return sums(iterations);
+    }
+
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return sums(latency);
+    }
+
+
+    @Override
+    public double getMeanLatency() {
+        long count = 0;
+        for (LongAdder[] elements : designs.values()) {
+            for (LongAdder adder : elements) {
+                count += adder.sum();
+            }
+        }
+        return (count == 0) ? 0 : (double) totalLatency.sum()/count;
+    }
+
+
+    @Override
+    public void reset() {
+        for (LongAdder[] elements : designs.values()) {
+            for (LongAdder adder : elements) { adder.reset(); }
+        }
+        for (LongAdder[] counters : batches.values()) {
+            for (LongAdder adder : counters) { adder.reset(); }
+        }
+        for (LongAdder adder : iterations) { adder.reset(); }
+        for (LongAdder adder : latency) { adder.reset(); }
+        doublyReinforced.reset();
+        cappedFck.reset();
+        totalLatency.reset();
+    }
+
+
+    private static long[] sums(LongAdder[] adders){
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+}
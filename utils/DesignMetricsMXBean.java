@@ -0,0 +1,39 @@
+package utils;
+
+import java.util.Map;
+
+/**
+ * Management interface of the metrics of the design engine (JMX).
+ */
+public interface DesignMetricsMXBean {
+
+    /** @return boolean return if the metrics are being collected */
+    boolean isEnabled();
+
+    /** Starts or stops the collection of the metrics */
+    void setEnabled(boolean enabled);
+
+    /** @return Map return the number of designs per code and element (NBR6118.beam, EUROCODE2.slab...) */
+    Map<String, Long> getDesigns();
+
+    /** @return Map return the number of batches and of their sections per batch API (BatchResistance.batches...) */
+    Map<String, Long> getBatches();
+
+    /** @return long return the number of designs with compression reinforcement */
+    long getDoublyReinforced();
+
+    /** @return long return the number of designs with the fck limited to 90 MPa */
+    long getCappedFck();
+
+    /** @return long[] return the histogram of the solver passes (index = passes, last = more passes) */
+    long[] getIterationHistogram();
+
+    /** @return long[] return the histogram of the latency (index i = from 2^i to 2^(i+1) nanoseconds) */
+    long[] getLatencyHistogram();
+
+    /** @return double return the mean latency of the single-section designs [nanoseconds] */
+    double getMeanLatency();
+
+    /** Clears all the metrics */
+    void reset();
+}
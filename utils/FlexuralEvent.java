@@ -0,0 +1,43 @@
+package utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of a flexural design, with its duration and results.
+ * Recorded while the metrics are enabled and a recording with the event is running.
+ */
+@Name("design.Flexural")
+@Label("Flexural Design")
+@Category("Beam and Slab Design")
+@Description("Flexural design of a section by Resistance.Flexural")
+@StackTrace(false)
+public class FlexuralEvent extends jdk.jfr.Event {
+
+    @Label("Code")
+    String code;
+
+    @Label("Element")
+    String element;
+
+    @Label("Characteristic Moment [N.mm]")
+    double mk;
+
+    @Label("fck [MPa]")
+    double fck;
+
+    @Label("Solver Passes")
+    int iterations;
+
+    @Label("As [mm²]")
+    double As;
+
+    @Label("As2 [mm²]")
+    double As2;
+
+    // Start of the design, used by the latency histogram (not recorded)
+    transient long start;
+}
@@ -0,0 +1,343 @@
+package utils;
+
+/**
+ * Finds the Neutral Axis of a rectangular section with the parabola-rectangle diagram,
+ * According to the Brazilian Code NBR 6118:2014 - Item 8.2.10.1.
+ * The equilibrium solved is Md(x) = Msd, where Md(x) grows with the neutral axis x.
+ * The solver is immutable and can be shared among threads, the results are written in a Solution.
+ */
+public class NeutralAxisSolver {
+
+    /**
+     * Defines the methods available to converge the Neutral Axis.
+     */
+    public enum Method {
+        BISECTION, // Halves the interval at each pass (ConcreteMath.convergenceMethod)
+        NEWTON,    // Newton with the analytic dMd/dx, bracketed with an Illinois step as fallback
+        ILLINOIS   // Bracketed false position with the Illinois modification
+    }
+
+    // Solver used by default, the original bisection with a tolerance of 0.001 mm
+    public static final NeutralAxisSolver DEFAULT = new NeutralAxisSolver(Method.BISECTION, 0.001);
+
+    // Maximum number of passes allowed, avoids endless loops in degenerate sections
+    private static final int MAX_ITERATIONS = 200;
+
+    private final Method method;
+    private final double tolerance;
+
+
+
+    /**
+     * Constructor of the solver.
+     * @param method    Method - Method used to converge the neutral axis.
+     * @param tolerance double - Tolerance of the neutral axis [millimeter].
+     */
+    public NeutralAxisSolver(Method method, double tolerance){
+        if (method == null || !(tolerance > 0)) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        this.method = method;
+        this.tolerance = tolerance;
+    }
+
+
+
+    /**
+     * Mutable holder of the Neutral Axis found, reused between solutions to avoid allocations.
+     */
+    public static class Solution {
+        double xk; // Neutral axis of the section [millimeter]
+        double ec; // Strain of the concrete at the top of the section
+        double cg; // Depth of the resultant of the compression forces [millimeter]
+        double md; // Bending moment resisted by the concrete [N.mm]
+        int iterations; // Number of passes used to converge
+        final double[] block = new double[2]; // Area and CG of the diagram, reused by each evaluation
+
+        /** @return double return the Neutral Axis [millimeter] */
+        public double getXk() {
+            return xk;
+        }
+
+        /** @return double return the concrete strain at the top of the section */
+        public double getEc() {
+            return ec;
+        }
+
+        /** @return double return the depth of the compression resultant [millimeter] */
+        public double getCG() {
+            return cg;
+        }
+
+        /** @return double return the moment resisted by the concrete [N.mm] */
+        public double getMd() {
+            return md;
+        }
+
+        /** @return int return the number of passes used to converge */
+        public int getIterations() {
+            return iterations;
+        }
+
+        /**
+         * Stores the compression zone found without the solver (closed forms of the codes).
+         * @param xk double - Neutral axis [millimeter].
+         * @param ec double - Strain of the concrete at the top of the section.
+         * @param cg double - Depth of the resultant of the compression forces [millimeter].
+         * @param md double - Bending moment resisted by the concrete [N.mm].
+         */
+        public void set(double xk, double ec, double cg, double md) {
+            this.xk = xk;
+            this.ec = ec;
+            this.cg = cg;
+            this.md = md;
+            this.iterations = 0;
+        }
+    }
+
+
+
+    /**
+     * Finds the neutral axis in which the concrete resists the design moment,
+     * limited by the Neutral Axis limit of the code.
+     * @param Msd double - Design Bending Moment [N.mm].
+     * @param bw  double - Section Width [millimeter].
+     * @param d   double - Section effective height [millimeter].
+     * @param fcd double - Design Concrete Strength [MPa].
+     * @param ecu double - Concrete strain at the Ultimate Limit State of Rupture.
+     * @param esu double - Maximum admissible steel tension deformation.
+     * @param LN  double - Neutral Axis limit of the code (x/d).
+     * @param block StressBlock - Compression Concrete diagram of the code for the fck.
+     * @param solution Solution - Output with the neutral axis and its section forces.
+     */
+    public void solve(double Msd, double bw, double d, double fcd, double ecu, double esu, double LN,
+                      StressBlock block, Solution solution){
+        double xf = Math.min(LN*d, d);
+        switch (method) {
+            case BISECTION:
+                bisection(Msd, bw, d, fcd, ecu, esu, block, 0, xf, solution);
+                break;
+            case NEWTON:
+                bracketed(true, Msd, bw, d, fcd, ecu, esu, block, xf, Double.NaN, solution);
+                break;
+            case ILLINOIS:
+                bracketed(false, Msd, bw, d, fcd, ecu, esu, block, xf, Double.NaN, solution);
+                break;
+        }
+    }
+
+
+
+    /**
+     * Finds the neutral axis starting from an estimative, usually the neutral axis of a similar section
+     * (the next station of a beam). Newton and Illinois start their passes at the estimative, the bisection
+     * starts with a small interval around the prediction of the tangent at the estimative, expanded until it
+     * contains the solution, and then halves it to the same tolerance.
+     * Without a valid estimative (NaN or out of the section), it is the same as the solve without it.
+     * @param guess double - Estimative of the neutral axis [millimeter].
+     */
+    public void solve(double Msd, double bw, double d, double fcd, double ecu, double esu, double LN,
+                      StressBlock block, double guess, Solution solution){
+        double xf = Math.min(LN*d, d);
+        if (!(guess > 0 && guess < xf)) {
+            solve(Msd, bw, d, fcd, ecu, esu, LN, block, solution);
+            return;
+        }
+        switch (method) {
+            case BISECTION:
+                warmBisection(Msd, bw, d, fcd, ecu, esu, block, xf, guess, solution);
+                break;
+            case NEWTON:
+                bracketed(true, Msd, bw, d, fcd, ecu, esu, block, xf, guess, solution);
+                break;
+            case ILLINOIS:
+                bracketed(false, Msd, bw, d, fcd, ecu, esu, block, xf, guess, solution);
+                break;
+        }
+    }
+
+
+
+    // The original loop of Resistance.Flexural, the solution holds the last neutral axis evaluated
+    private void bisection(double Msd, double bw, double d, double fcd, double ecu, double esu,
+                           StressBlock block, double xi, double xf, Solution solution){
+        int iterations = 0;
+        while(Math.abs(xi-xf) > tolerance){
+            double xk = ConcreteMath.convergenceMethod(xi, xf);
+            evaluate(xk, bw, d, fcd, ecu, esu, block, solution);
+            if (solution.md > Msd) {
+                xf = xk;
+            } else {
+                xi = xk;
+            }
+            iterations++;
+        }
+        solution.iterations = iterations;
+    }
+
+
+
+    // Bisection in a small interval around the tangent prediction from the estimative,
+    // each side doubled until the interval contains the solution
+    private void warmBisection(double Msd, double bw, double d, double fcd, double ecu, double esu,
+                               StressBlock block, double xmax, double guess, Solution solution){
+        if (!(Msd > 0)) {
+            bisection(Msd, bw, d, fcd, ecu, esu, block, 0, xmax, solution);
+            return;
+        }
+        double dM = evaluate(guess, bw, d, fcd, ecu, esu, block, solution);
+        int iterations = 1;
+        // The estimative is on one side of the solution
+        double xi = 0, xf = xmax;
+        if (solution.md > Msd) {
+            xf = guess;
+        } else {
+            xi = guess;
+        }
+        // Prediction of the tangent, kept in the interval
+        double center = (dM > 0) ? guess + (Msd - solution.md)/dM : guess;
+        center = Math.max(xi, Math.min(center, xf));
+        double width = Math.max(Math.abs(center - guess)/16, 4*tolerance);
+
+        // Lower side: Md(x) <= Msd (Md(0) = 0)
+        for (double step = width; center - step > xi; step *= 2) {
+            double x = center - step;
+            evaluate(x, bw, d, fcd, ecu, esu, block, solution);
+            iterations++;
+            if (solution.md > Msd) {
+                xf = Math.min(xf, x);
+            } else {
+                xi = x;
+                break;
+            }
+        }
+        // Upper side: Md(x) > Msd (or the limit of the neutral axis)
+        for (double step = width; center + step < xf; step *= 2) {
+            double x = center + step;
+            evaluate(x, bw, d, fcd, ecu, esu, block, solution);
+            iterations++;
+            if (solution.md > Msd) {
+                xf = x;
+                break;
+            }
+            xi = Math.max(xi, x);
+        }
+        bisection(Msd, bw, d, fcd, ecu, esu, block, xi, xf, solution);
+        solution.iterations += iterations;
+    }
+
+
+
+    // Newton (or Illinois) steps kept inside the interval [xi, xf] that contains the solution.
+    // Without an estimative (NaN), starts with the rectangular diagram (Newton) or the false position (Illinois).
+    private void bracketed(boolean newton, double Msd, double bw, double d, double fcd, double ecu, double esu,
+                           StressBlock block, double xmax, double guess, Solution solution){
+        // Without moment, the neutral axis tends to the top of the section
+        if (!(Msd > 0)) {
+            evaluate(Math.min(tolerance, xmax)/2, bw, d, fcd, ecu, esu, block, solution);
+            solution.iterations = 1;
+            return;
+        }
+        // Section at the limit of the Neutral Axis: compression reinforcement will be needed
+        double dM = evaluate(xmax, bw, d, fcd, ecu, esu, block, solution);
+        double fxf = solution.md - Msd;
+        int iterations = 1;
+        if (fxf <= 0) {
+            solution.iterations = iterations;
+            return;
+        }
+
+        // Bracket of the solution: Md(0) = 0
+        double xi = 0, fxi = -Msd;
+        double xf = xmax;
+        // Initial estimative with the rectangular diagram (0.8x), or the false position
+        double x;
+        double root = d*d - (2*Msd)/(0.85*fcd*bw);
+        if (guess > 0 && guess < xmax) {
+            x = guess;
+        } else if (newton && root > 0) {
+            x = (d - Math.sqrt(root))/0.8;
+        } else {
+            x = xi - fxi*(xf-xi)/(fxf-fxi);
+        }
+        // Side of the bracket kept in the last step, used by the Illinois modification
+        int side = 0;
+        while (iterations < MAX_ITERATIONS) {
+            if (!(x > xi && x < xf)) {
+                x = (xi + xf)/2;
+            }
+            dM = evaluate(x, bw, d, fcd, ecu, esu, block, solution);
+            double fx = solution.md - Msd;
+            iterations++;
+            if (fx == 0) {
+                break;
+            }
+            // Update the bracket
+            if (fx > 0) {
+                xf = x; fxf = fx;
+                if (side == 1) { fxi /= 2; }
+                side = 1;
+            } else {
+                xi = x; fxi = fx;
+                if (side == -1) { fxf /= 2; }
+                side = -1;
+            }
+            // Next estimative: Newton step, or Illinois step if Newton leaves the bracket
+            double next = (newton && dM > 0) ? x - fx/dM : Double.NaN;
+            if (!(next > xi && next < xf)) {
+                next = xi - fxi*(xf-xi)/(fxf-fxi);
+            }
+            if (Math.abs(next - x) <= tolerance || xf - xi <= tolerance) {
+                break;
+            }
+            x = next;
+        }
+        solution.iterations = iterations;
+    }
+
+
+
+    /**
+     * Evaluates the section forces for a Neutral Axis and stores them in the solution.
+     * @return double - The analytic derivative dMd/dx for the neutral axis.
+     */
+    private static double evaluate(double xk, double bw, double d, double fcd, double ecu, double esu,
+                                   StressBlock block, Solution solution){
+        // Strain of the section (ConcreteMath.defineStrain)
+        double ec = Math.min(esu*xk/(d-xk), ecu);
+        // Specific area, and specific CG from the top of the diagram (closed form)
+        double sigma = block.evaluate(ec, solution.block); // Specific stress at the top
+        double Ae = solution.block[0];
+        double CG = solution.block[1];
+        double k = 0.85*fcd*bw;
+        double Md = k*(Ae/ec)*xk*(d-(CG/ec)*xk);
+
+        solution.xk = xk;
+        solution.ec = ec;
+        solution.cg = CG/ec*xk;
+        solution.md = Md;
+
+        // Derivative: Md = k*(a*d*x - g*x²), with a = Ae/ec and g = Ae/ec - S/ec², S = int(e*sigma)
+        double S = Ae*(ec - CG); // First moment of the specific diagram
+        double a = Ae/ec;
+        double g = a - S/(ec*ec);
+        double da = (sigma*ec - Ae)/(ec*ec);
+        double dg = da - (sigma/ec - 2*S/(ec*ec*ec));
+        // Strain changes with x only while the steel controls the rupture (ec < ecu)
+        double dec = (esu*xk/(d-xk) < ecu) ? esu*d/((d-xk)*(d-xk)) : 0;
+        return k*(a*d - 2*g*xk + xk*(d*da - xk*dg)*dec);
+    }
+
+
+
+    /** @return Method return the method used to converge */
+    public Method getMethod() {
+        return method;
+    }
+
+
+    /** @return double return the tolerance of the neutral axis [millimeter] */
+    public double getTolerance() {
+        return tolerance;
+    }
+}
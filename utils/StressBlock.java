@@ -0,0 +1,81 @@
+package utils;
+
+/**
+ * Closed form of the parabola-rectangle Compression Concrete diagram,
+ * According to the Brazilian Code NBR 6118:2014 - Item 8.2.10.1.
+ * The terms that depend only on ec2 and n are calculated once in the constructor,
+ * so each evaluation needs a single Math.pow.
+ *
+ * Exact integrals of the diagram s(e) = 1 - (1 - e/ec2)^n, with u = 1 - e1/ec2:
+ *   int(s)   = e1 - ec2/(n+1) * (1 - u^(n+1))
+ *   int(e*s) = e1²/2 - ec2²/(n+1) * (1 - u^(n+1)) + ec2²/(n+2) * (1 - u^(n+2))
+ */
+public final class StressBlock {
+
+    // Parameters of the diagram
+    private final double ec2;
+    private final double n;
+
+    // Precomputed terms of the integrals
+    private final double c1; // ec2/(n+1)
+    private final double c2; // ec2²/(n+1)
+    private final double c3; // ec2²/(n+2)
+
+
+
+    /**
+     * Constructor of the diagram.
+     * @param ec2 double - Constant of concrete strain at the rupture by compression.
+     * @param n   double - Constant of the Diagram, defined by the code.
+     */
+    public StressBlock(double ec2, double n){
+        if (ec2 <= 0 || n <= 0) {
+            throw new IllegalArgumentException("Input values must be > 0");
+        }
+        this.ec2 = ec2;
+        this.n = n;
+        this.c1 = ec2/(n+1);
+        this.c2 = ec2*ec2/(n+1);
+        this.c3 = ec2*ec2/(n+2);
+    }
+
+
+
+    /**
+     * Obtains the specific area and gravity center of the diagram in a single evaluation.
+     * Same results of ConcreteMath.obtainArea and ConcreteMath.obtainCG, without the quadrature.
+     * @param ec     double - Strain of the concrete for the applied force (top of the section).
+     * @param result double[2] - Output: [specific area, specific CG measured from the top of the diagram].
+     * @return double - The specific stress of the diagram at the top of the section, s(ec).
+     */
+    public double evaluate(double ec, double[] result){
+        // Strain at the parabola range (e1), and at the constant range (e2)
+        double e1 = Math.min(ec, ec2);
+        double e2 = ec - e1;
+        double u = 1 - e1/ec2;
+        double un = (u > 0) ? Math.pow(u, n) : 0; // u^n
+        double un1 = un*u; // u^(n+1)
+        double un2 = un1*u; // u^(n+2)
+        // Area: parabola part + constant part
+        double area = e1 - c1*(1 - un1) + e2;
+        // First moment: parabola part + constant part ((ec² - e1²)/2)
+        double moment = ec*ec/2 - c2*(1 - un1) + c3*(1 - un2);
+        result[0] = area;
+        // Invert the position to start at the top of the Diagram.
+        result[1] = ec - moment/area;
+        return 1 - un;
+    }
+
+
+
+    /** @return double return the concrete strain at the rupture by compression - ec2 */
+    public double getEc2() {
+        return ec2;
+    }
+
+
+    /** @return double return the constant of the diagram - n */
+    public double getN() {
+        return n;
+    }
+}